@@ -34,14 +34,25 @@ CREATE TABLE loads (
     weight_unit VARCHAR(10) NOT NULL CHECK (weight_unit IN ('KG', 'TON')),
     truck_type VARCHAR(50) NOT NULL,
     no_of_trucks INTEGER NOT NULL CHECK (no_of_trucks > 0),
+    allocated_trucks INTEGER NOT NULL DEFAULT 0 CHECK (allocated_trucks >= 0),
     status VARCHAR(20) NOT NULL DEFAULT 'POSTED' CHECK (status IN ('POSTED', 'OPEN_FOR_BIDS', 'BOOKED', 'CANCELLED')),
-    date_posted TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    version INTEGER DEFAULT 0
+    date_posted TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    bidding_deadline TIMESTAMP,
+    auction_closed_at TIMESTAMP,
+    version INTEGER DEFAULT 0,
+    CHECK (allocated_trucks <= no_of_trucks)
 );
 
 CREATE INDEX idx_loads_shipper ON loads(shipper_id);
 CREATE INDEX idx_loads_status ON loads(status);
 CREATE INDEX idx_loads_loading_date ON loads(loading_date);
+-- Keyset scrolling (GET /load/scroll) seeks on (date_posted, load_id), optionally after a filter
+CREATE INDEX idx_loads_date_posted ON loads(date_posted DESC, load_id DESC);
+CREATE INDEX idx_loads_shipper_date_posted ON loads(shipper_id, date_posted DESC, load_id DESC);
+CREATE INDEX idx_loads_status_date_posted ON loads(status, date_posted DESC, load_id DESC);
+-- Auction close scheduler: only open loads with a deadline and no close yet are ever looked up by it
+CREATE INDEX idx_loads_bidding_deadline ON loads(bidding_deadline)
+    WHERE bidding_deadline IS NOT NULL AND auction_closed_at IS NULL AND status IN ('POSTED', 'OPEN_FOR_BIDS');
 
 CREATE TABLE bids (
     bid_id SERIAL PRIMARY KEY,
@@ -304,3 +315,10 @@ INSERT INTO bookings (load_id, bid_id, transporter_id, allocated_trucks, final_r
 (44, 59, 19, 2, 75000.00, 'CONFIRMED'),
 (45, 61, 9, 2, 52000.00, 'CONFIRMED');
 
+UPDATE loads l SET allocated_trucks = COALESCE(
+    (SELECT SUM(b.allocated_trucks) FROM bookings b WHERE b.load_id = l.load_id AND b.status != 'CANCELLED'), 0);
+
+-- Hibernate allocates load, bid and booking ids in blocks of 50 (pooled sequence), so the sequences must step by 50
+ALTER SEQUENCE loads_load_id_seq INCREMENT BY 50;
+ALTER SEQUENCE bids_bid_id_seq INCREMENT BY 50;
+ALTER SEQUENCE bookings_booking_id_seq INCREMENT BY 50;
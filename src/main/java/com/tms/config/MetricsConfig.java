@@ -0,0 +1,47 @@
+package com.tms.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request latency (http.server.requests) and repository timings
+ * (spring.data.repository.invocations) come from Spring Boot's actuator;
+ * this adds the per-request SQL statement count on top.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+    private final SqlStatementMetricsInterceptor sqlStatementMetricsInterceptor;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.sqlStatementMetricsInterceptor = new SqlStatementMetricsInterceptor(sqlStatementCounter, meterRegistry);
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return sqlStatementCounter;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementMetricsInterceptor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // streamed listings query on the async executor
+        configurer.registerCallableInterceptors(sqlStatementMetricsInterceptor);
+    }
+}
@@ -0,0 +1,71 @@
+package com.tms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Virtual-thread request execution is Spring Boot's spring.threads.virtual.enabled
+ * (Tomcat and the MVC async executor switch to virtual threads; Java 21+ only, ignored
+ * on older runtimes). Enabling it also turns on tms.request-limit, which installs a
+ * DatabaseConcurrencyInterceptor sized to the connection pool unless
+ * tms.request-limit.max-concurrent says otherwise. The limit can be enabled on its own
+ * for platform threads too.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tms.request-limit.enabled", havingValue = "true")
+public class RequestExecutionConfig implements WebMvcConfigurer {
+
+    private final DatabaseConcurrencyInterceptor interceptor;
+
+    public RequestExecutionConfig(DataSource dataSource, MeterRegistry meterRegistry,
+                                  @Value("${tms.request-limit.max-concurrent:0}") int maxConcurrent,
+                                  @Value("${tms.request-limit.queue-timeout-ms:1000}") long queueTimeoutMillis) {
+        Counter rejected = Counter.builder("tms.request-limit.rejected")
+                .description("Requests rejected with 503 after waiting for a database permit")
+                .register(meterRegistry);
+        this.interceptor = new DatabaseConcurrencyInterceptor(
+                maxConcurrent > 0 ? maxConcurrent : poolSize(dataSource), queueTimeoutMillis, rejected);
+
+        Gauge.builder("tms.request-limit.in-flight", interceptor, DatabaseConcurrencyInterceptor::getInFlight)
+                .description("Requests holding a database permit")
+                .register(meterRegistry);
+        Gauge.builder("tms.request-limit.waiting", interceptor, DatabaseConcurrencyInterceptor::getWaiting)
+                .description("Requests queued for a database permit")
+                .register(meterRegistry);
+    }
+
+    @Bean
+    public DatabaseConcurrencyInterceptor databaseConcurrencyInterceptor() {
+        return interceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // waiting on a bid ticket holds no connection
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/load/**", "/bid/**", "/booking/**", "/transporter/**")
+                .excludePathPatterns("/bid/tickets/**");
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the connection pool size", e);
+        }
+        throw new IllegalStateException("Set tms.request-limit.max-concurrent, the connection pool size is unknown");
+    }
+}
@@ -0,0 +1,13 @@
+package com.tms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs (AuctionCloseScheduler) run on Spring's single scheduler thread; the
+ * work they fan out uses their own pools.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
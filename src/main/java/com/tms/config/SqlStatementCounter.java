@@ -0,0 +1,29 @@
+package com.tms.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * Hibernate statistics are factory-wide, so they can't attribute statements to a
+ * single request; this inspector sees every statement as it's prepared and keeps a
+ * per-thread tally that the request interceptor resets and reads.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public int get() {
+        return COUNT.get()[0];
+    }
+}
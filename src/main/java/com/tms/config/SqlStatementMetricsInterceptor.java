@@ -0,0 +1,82 @@
+package com.tms.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how many SQL statements each request issued as the tms.sql.statements
+ * summary, tagged like http.server.requests so the two can be lined up per endpoint.
+ * Recorded after completion so lazy loads during serialization are included.
+ *
+ * Async requests (streamed listings) run part of their work on the MVC async executor.
+ * The count is carried in a request attribute across the initial dispatch, the async
+ * task (as a CallableProcessingInterceptor) and the async dispatch, and recorded once.
+ */
+public class SqlStatementMetricsInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final String STATEMENTS_ATTRIBUTE = SqlStatementMetricsInterceptor.class.getName() + ".statements";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsInterceptor(SqlStatementCounter counter, MeterRegistry meterRegistry) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        counter.reset();
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(STATEMENTS_ATTRIBUTE, new AtomicInteger());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        addTo(request.getAttribute(STATEMENTS_ATTRIBUTE));
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        counter.reset();
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        addTo(request.getAttribute(STATEMENTS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object earlier = request.getAttribute(STATEMENTS_ATTRIBUTE);
+
+        DistributionSummary.builder("tms.sql.statements")
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(counter.get() + (earlier instanceof AtomicInteger count ? count.get() : 0));
+    }
+
+    private void addTo(Object statements) {
+        if (statements instanceof AtomicInteger count) {
+            count.addAndGet(counter.get());
+        }
+        counter.reset();
+    }
+}
@@ -1,51 +1,110 @@
 package com.tms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.BatchBidRequest;
+import com.tms.dto.BatchBidResponse;
 import com.tms.dto.BidRequest;
 import com.tms.dto.BidResponse;
+import com.tms.dto.BidTicket;
+import com.tms.service.BidIntake;
 import com.tms.service.BidService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Validated
 @RequestMapping("/bid")
 @Tag(name = "Bid", description = "Bid management APIs")
 public class BidController {
 
     private final BidService bidService;
+    private final BidIntake bidIntake;
+    private final ObjectMapper objectMapper;
 
-    public BidController(BidService bidService) {
+    public BidController(BidService bidService, BidIntake bidIntake, ObjectMapper objectMapper) {
         this.bidService = bidService;
+        this.bidIntake = bidIntake;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    @Operation(summary = "Submit a bid", description = "Creates a new bid (validates capacity and load status)")
+    @Operation(summary = "Submit a bid", description = "Creates a new bid (validates capacity and load status). With async intake enabled the bid is prechecked, queued and answered with a ticket to poll at /bid/tickets/{ticketId}")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Bid created successfully"),
+            @ApiResponse(responseCode = "201", description = "Bid created successfully",
+                    content = @Content(schema = @Schema(implementation = BidResponse.class))),
+            @ApiResponse(responseCode = "202", description = "Bid queued (async intake)",
+                    content = @Content(schema = @Schema(implementation = BidTicket.class))),
             @ApiResponse(responseCode = "400", description = "Invalid bid - capacity or status issue"),
-            @ApiResponse(responseCode = "404", description = "Load or transporter not found")
+            @ApiResponse(responseCode = "404", description = "Load or transporter not found"),
+            @ApiResponse(responseCode = "503", description = "Intake queue full")
     })
-    public ResponseEntity<BidResponse> createBid(@Valid @RequestBody BidRequest request) {
+    public ResponseEntity<?> createBid(@Valid @RequestBody BidRequest request) {
+        if (bidIntake.isEnabled()) {
+            BidTicket ticket = bidIntake.submit(request);
+            return ResponseEntity.accepted().location(URI.create("/bid/tickets/" + ticket.getTicketId())).body(ticket);
+        }
         BidResponse response = bidService.createBid(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
-    @GetMapping
-    @Operation(summary = "Get bids with filters", description = "Returns filtered list of bids")
-    public ResponseEntity<List<BidResponse>> getBids(
+    @GetMapping("/tickets/{ticketId}")
+    @Operation(summary = "Get an async bid ticket", description = "Returns the outcome of a queued bid: QUEUED, CREATED (with the bid) or REJECTED (with the reason). With waitMs the response is held until the outcome is known or the wait runs out")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ticket found"),
+            @ApiResponse(responseCode = "404", description = "Ticket unknown or expired")
+    })
+    public CompletableFuture<ResponseEntity<BidTicket>> getTicket(
+            @PathVariable String ticketId,
+            @Parameter(description = "Milliseconds to wait for the outcome (0 answers right away)") @RequestParam(defaultValue = "0") @Min(0) @Max(30000) long waitMs) {
+        CompletableFuture<BidTicket> ticket = waitMs > 0
+                ? bidIntake.awaitTicket(ticketId, waitMs)
+                : CompletableFuture.completedFuture(bidIntake.getTicket(ticketId));
+        return ticket.thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Submit bids on many loads", description = "Creates bids of one transporter on many loads in one transaction. Each item is validated on its own; valid items are created and the rest are reported per item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "At least one bid created"),
+            @ApiResponse(responseCode = "200", description = "Every item was rejected"),
+            @ApiResponse(responseCode = "400", description = "Invalid batch request"),
+            @ApiResponse(responseCode = "404", description = "Transporter not found")
+    })
+    public ResponseEntity<BatchBidResponse> createBids(@Valid @RequestBody BatchBidRequest request) {
+        BatchBidResponse response = bidService.createBids(request);
+        return ResponseEntity.status(response.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.OK).body(response);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, StreamingResponses.NDJSON})
+    @Operation(summary = "Get bids with filters", description = "Returns the bids matching all given filters, streamed as they are read. A JSON array by default, NDJSON (one bid per line) with Accept: application/x-ndjson")
+    @ApiResponse(responseCode = "200", description = "Bids in bid id order",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BidResponse.class))))
+    public ResponseEntity<StreamingResponseBody> getBids(
             @Parameter(description = "Filter by load ID") @RequestParam(required = false) Integer loadId,
             @Parameter(description = "Filter by transporter ID") @RequestParam(required = false) Integer transporterId,
-            @Parameter(description = "Filter by status (PENDING, ACCEPTED, REJECTED)") @RequestParam(required = false) String status) {
-        List<BidResponse> response = bidService.getBids(loadId, transporterId, status);
-        return ResponseEntity.ok(response);
+            @Parameter(description = "Filter by status (PENDING, ACCEPTED, REJECTED)") @RequestParam(required = false) String status,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return StreamingResponses.negotiate(objectMapper, accept,
+                sink -> bidService.streamBids(loadId, transporterId, status, sink));
     }
 
     @GetMapping("/{bidId}")
@@ -1,18 +1,25 @@
 package com.tms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.BatchBookingRequest;
+import com.tms.dto.BatchBookingResponse;
 import com.tms.dto.BookingRequest;
 import com.tms.dto.BookingResponse;
 import com.tms.service.BookingService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/booking")
@@ -20,9 +27,11 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -38,6 +47,20 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Book several bids of one load", description = "Validates all items against one snapshot of the load and books them in a single transaction. ALL_OR_NOTHING (default) rejects the whole batch on the first invalid item, BEST_EFFORT books the valid items and reports the rest per item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "At least one booking created"),
+            @ApiResponse(responseCode = "200", description = "BEST_EFFORT batch in which every item was rejected"),
+            @ApiResponse(responseCode = "400", description = "Invalid batch request"),
+            @ApiResponse(responseCode = "404", description = "Load or bid not found"),
+            @ApiResponse(responseCode = "409", description = "Not enough trucks remaining or concurrent booking conflict")
+    })
+    public ResponseEntity<BatchBookingResponse> createBookings(@Valid @RequestBody BatchBookingRequest request) {
+        BatchBookingResponse response = bookingService.createBookings(request);
+        return ResponseEntity.status(response.getBooked() > 0 ? HttpStatus.CREATED : HttpStatus.OK).body(response);
+    }
+
     @GetMapping("/{bookingId}")
     @Operation(summary = "Get booking by ID", description = "Returns booking details")
     @ApiResponses(value = {
@@ -49,11 +72,13 @@ public class BookingController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping
-    @Operation(summary = "Get all bookings", description = "Returns list of all bookings")
-    public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        List<BookingResponse> response = bookingService.getAllBookings();
-        return ResponseEntity.ok(response);
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, StreamingResponses.NDJSON})
+    @Operation(summary = "Get all bookings", description = "Returns all bookings, streamed as they are read. A JSON array by default, NDJSON (one booking per line) with Accept: application/x-ndjson")
+    @ApiResponse(responseCode = "200", description = "Bookings in booking id order",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookingResponse.class))))
+    public ResponseEntity<StreamingResponseBody> getAllBookings(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return StreamingResponses.negotiate(objectMapper, accept, bookingService::streamBookings);
     }
 
     @PatchMapping("/{bookingId}/cancel")
@@ -1,31 +1,58 @@
 package com.tms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tms.dto.*;
+import com.tms.service.AllocationService;
+import com.tms.service.LoadImportService;
 import com.tms.service.LoadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/load")
 @Tag(name = "Load", description = "Load management APIs")
 public class LoadController {
 
+    private static final String CSV = "text/csv";
+
     private final LoadService loadService;
+    private final LoadImportService loadImportService;
+    private final AllocationService allocationService;
+    private final ObjectMapper objectMapper;
 
-    public LoadController(LoadService loadService) {
+    public LoadController(LoadService loadService, LoadImportService loadImportService,
+                          AllocationService allocationService, ObjectMapper objectMapper) {
         this.loadService = loadService;
+        this.loadImportService = loadImportService;
+        this.allocationService = allocationService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -39,6 +66,23 @@ public class LoadController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/bulk", consumes = {StreamingResponses.NDJSON, CSV}, produces = StreamingResponses.NDJSON)
+    @Operation(summary = "Bulk create loads", description = "Streams an NDJSON or CSV (with header row) upload into loads with status POSTED. Rows are validated like POST /load and inserted in chunks; one NDJSON result line per row (row number, loadId or errors) is streamed back as each chunk commits")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload processed, see per-row results"),
+            @ApiResponse(responseCode = "415", description = "Content type is not application/x-ndjson or text/csv")
+    })
+    public ResponseEntity<StreamingResponseBody> createLoads(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, HttpServletRequest request) throws IOException {
+        LoadImportService.Format format = "csv".equals(contentType.getSubtype())
+                ? LoadImportService.Format.CSV : LoadImportService.Format.NDJSON;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        InputStream body = request.getInputStream();
+
+        return StreamingResponses.ndjson(objectMapper,
+                sink -> loadImportService.importLoads(new InputStreamReader(body, charset), format, sink));
+    }
+
     @GetMapping
     @Operation(summary = "Get loads with pagination", description = "Returns paginated list of loads with optional filters")
     public ResponseEntity<Page<LoadResponse>> getLoads(
@@ -51,6 +95,59 @@ public class LoadController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/slice")
+    @Operation(summary = "Get loads without totals", description = "Same filters and paging as GET /load, but skips the COUNT query and returns a compact envelope with a hasNext flag instead of totals")
+    public ResponseEntity<LoadSlice> getLoadSlice(
+            @Parameter(description = "Filter by shipper ID") @RequestParam(required = false) String shipperId,
+            @Parameter(description = "Filter by status (POSTED, OPEN_FOR_BIDS, BOOKED, CANCELLED)") @RequestParam(required = false) String status,
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") @Min(0) int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int size) {
+        LoadSlice response = loadService.getLoadSlice(shipperId, status, PageRequest.of(page, size));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll loads with a cursor", description = "Keyset pagination, newest first. Pass nextCursor from the previous response to get the following page; every page costs the same regardless of depth and no total count is computed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of loads"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    public ResponseEntity<LoadCursorPage> scrollLoads(
+            @Parameter(description = "Filter by shipper ID") @RequestParam(required = false) String shipperId,
+            @Parameter(description = "Filter by status (POSTED, OPEN_FOR_BIDS, BOOKED, CANCELLED)") @RequestParam(required = false) String status,
+            @Parameter(description = "nextCursor of the previous page (omit for the first page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int size) {
+        LoadCursorPage response = loadService.scrollLoads(shipperId, status, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search open loads on a lane", description = "Loads still open to transporters (POSTED or OPEN_FOR_BIDS) from one city to another, earliest loading date first. Served from an in-memory index, so it never queries the database")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching loads"),
+            @ApiResponse(responseCode = "400", description = "Missing lane or invalid parameters")
+    })
+    public ResponseEntity<List<LaneLoadResponse>> searchLane(
+            @Parameter(description = "Loading city (case-insensitive)") @RequestParam String loadingCity,
+            @Parameter(description = "Unloading city (case-insensitive)") @RequestParam String unloadingCity,
+            @Parameter(description = "Filter by truck type (case-insensitive)") @RequestParam(required = false) String truckType,
+            @Parameter(description = "Earliest loading date, ISO date-time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime loadingFrom,
+            @Parameter(description = "Latest loading date, ISO date-time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime loadingTo,
+            @Parameter(description = "Maximum number of loads to return") @RequestParam(defaultValue = "50") @Min(1) @Max(1000) int limit) {
+        List<LaneLoadResponse> response = loadService.searchLane(loadingCity, unloadingCity, truckType, loadingFrom, loadingTo, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/lane-rates")
+    @Operation(summary = "Get going rates for a lane", description = "p10/p50/p90 and counts of proposed bid rates and booked rates for a loading city, unloading city and truck type (all case-insensitive). Percentiles are within 1% and are served from memory")
+    public ResponseEntity<LaneRateResponse> getLaneRates(
+            @Parameter(description = "Loading city") @RequestParam String loadingCity,
+            @Parameter(description = "Unloading city") @RequestParam String unloadingCity,
+            @Parameter(description = "Truck type") @RequestParam String truckType) {
+        LaneRateResponse response = loadService.getLaneRates(loadingCity, unloadingCity, truckType);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{loadId}")
     @Operation(summary = "Get load by ID", description = "Returns load details with active bids")
     @ApiResponses(value = {
@@ -74,11 +171,58 @@ public class LoadController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{loadId}/eligible-transporters")
+    @Operation(summary = "Get transporters able to carry a load", description = "Transporters with enough trucks of the load's truck type, best rated first. The truck count range defaults to at least the trucks the load still needs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Eligible transporters"),
+            @ApiResponse(responseCode = "400", description = "Invalid range or limit"),
+            @ApiResponse(responseCode = "404", description = "Load not found")
+    })
+    public ResponseEntity<List<EligibleTransporterResponse>> getEligibleTransporters(
+            @PathVariable Integer loadId,
+            @Parameter(description = "Minimum available trucks (defaults to the trucks the load still needs)") @RequestParam(required = false) @Min(1) Integer minTrucks,
+            @Parameter(description = "Maximum available trucks (no upper bound if omitted)") @RequestParam(required = false) @Min(1) Integer maxTrucks,
+            @Parameter(description = "Maximum number of transporters to return") @RequestParam(defaultValue = "50") @Min(1) @Max(1000) int limit) {
+        List<EligibleTransporterResponse> response = loadService.getEligibleTransporters(loadId, minTrucks, maxTrucks, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{loadId}/best-bids")
     @Operation(summary = "Get best bids for a load", description = "Returns bids sorted by score: (1/rate)*0.7 + (rating/5)*0.3")
-    public ResponseEntity<List<BidResponse>> getBestBids(@PathVariable Integer loadId) {
-        List<BidResponse> response = loadService.getBestBids(loadId);
+    public ResponseEntity<List<BidResponse>> getBestBids(
+            @PathVariable Integer loadId,
+            @Parameter(description = "Number of top bids to skip") @RequestParam(defaultValue = "0") @Min(0) int offset,
+            @Parameter(description = "Maximum number of bids to return (all if omitted)") @RequestParam(required = false) @Min(1) Integer limit) {
+        List<BidResponse> response = loadService.getBestBids(loadId, offset, limit);
         return ResponseEntity.ok(response);
     }
-}
 
+    @GetMapping("/{loadId}/optimal-allocation")
+    @Operation(summary = "Suggest how to split a load across bids", description = "Allocates the load's remaining trucks over its PENDING bids at minimum total cost (COST) or maximum summed best-bid score (SCORE), within each bid's offer and each transporter's current capacity. complete is false when the bids can't cover the load")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Allocation plan"),
+            @ApiResponse(responseCode = "400", description = "Load is cancelled or objective is invalid"),
+            @ApiResponse(responseCode = "404", description = "Load not found")
+    })
+    public ResponseEntity<AllocationPlan> getOptimalAllocation(
+            @PathVariable Integer loadId,
+            @Parameter(description = "COST or SCORE") @RequestParam(defaultValue = "COST") AllocationService.Objective objective) {
+        AllocationPlan response = allocationService.planAllocation(loadId, objective);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{loadId}/optimal-allocation")
+    @Operation(summary = "Book the suggested allocation", description = "Plans as GET does and books the plan as one ALL_OR_NOTHING batch booking")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Allocation booked"),
+            @ApiResponse(responseCode = "400", description = "No bid can be allocated or the load is cancelled"),
+            @ApiResponse(responseCode = "404", description = "Load not found"),
+            @ApiResponse(responseCode = "409", description = "Bids or capacity changed since planning")
+    })
+    public ResponseEntity<BatchBookingResponse> applyOptimalAllocation(
+            @PathVariable Integer loadId,
+            @Parameter(description = "COST or SCORE") @RequestParam(defaultValue = "COST") AllocationService.Objective objective) {
+        BatchBookingResponse response = allocationService.applyAllocation(loadId, objective);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+}
@@ -0,0 +1,85 @@
+package com.tms.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows to the response as they are produced, either as one JSON array or as
+ * NDJSON (one object per line), so listings never hold the whole result in memory.
+ * The opening bytes are flushed right away; after that Jackson's buffer decides.
+ */
+final class StreamingResponses {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private static final MediaType NDJSON_TYPE = MediaType.parseMediaType(NDJSON);
+
+    @FunctionalInterface
+    interface RowSource<T> {
+        void writeTo(Consumer<T> sink) throws IOException;
+    }
+
+    private StreamingResponses() {}
+
+    /**
+     * NDJSON when the client accepts it, a JSON array otherwise.
+     */
+    static <T> ResponseEntity<StreamingResponseBody> negotiate(ObjectMapper objectMapper, String accept, RowSource<T> rows) {
+        if (accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(NDJSON_TYPE::equalsTypeAndSubtype)) {
+            return ndjson(objectMapper, rows);
+        }
+        return jsonArray(objectMapper, rows);
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> jsonArray(ObjectMapper objectMapper, RowSource<T> rows) {
+        ObjectWriter writer = rowWriter(objectMapper);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                generator.flush();
+                rows.writeTo(row -> write(() -> writer.writeValue(generator, row)));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper, RowSource<T> rows) {
+        ObjectWriter writer = rowWriter(objectMapper);
+        StreamingResponseBody body = out -> {
+            out.flush();
+            rows.writeTo(row -> write(() -> {
+                out.write(writer.writeValueAsBytes(row));
+                out.write('\n');
+            }));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON_TYPE).body(body);
+    }
+
+    private static ObjectWriter rowWriter(ObjectMapper objectMapper) {
+        return objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package com.tms.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AllocationPlan {
+
+    private Integer loadId;
+    private String objective;
+    private int trucksNeeded;
+    private int trucksAllocated;
+    private boolean complete;
+    private double totalCost;
+    private List<Item> allocations = new ArrayList<>();
+
+    public Integer getLoadId() { return loadId; }
+    public void setLoadId(Integer loadId) { this.loadId = loadId; }
+
+    public String getObjective() { return objective; }
+    public void setObjective(String objective) { this.objective = objective; }
+
+    public int getTrucksNeeded() { return trucksNeeded; }
+    public void setTrucksNeeded(int trucksNeeded) { this.trucksNeeded = trucksNeeded; }
+
+    public int getTrucksAllocated() { return trucksAllocated; }
+    public void setTrucksAllocated(int trucksAllocated) { this.trucksAllocated = trucksAllocated; }
+
+    public boolean isComplete() { return complete; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+
+    public double getTotalCost() { return totalCost; }
+    public void setTotalCost(double totalCost) { this.totalCost = totalCost; }
+
+    public List<Item> getAllocations() { return allocations; }
+    public void setAllocations(List<Item> allocations) { this.allocations = allocations; }
+
+    /**
+     * Trucks to book from one bid, in the order the optimizer picked them.
+     */
+    public static class Item {
+        private Integer bidId;
+        private Integer transporterId;
+        private String transporterCompanyName;
+        private Double proposedRate;
+        private Integer trucksOffered;
+        private Integer allocatedTrucks;
+        private Double score;
+
+        public Integer getBidId() { return bidId; }
+        public void setBidId(Integer bidId) { this.bidId = bidId; }
+
+        public Integer getTransporterId() { return transporterId; }
+        public void setTransporterId(Integer transporterId) { this.transporterId = transporterId; }
+
+        public String getTransporterCompanyName() { return transporterCompanyName; }
+        public void setTransporterCompanyName(String transporterCompanyName) { this.transporterCompanyName = transporterCompanyName; }
+
+        public Double getProposedRate() { return proposedRate; }
+        public void setProposedRate(Double proposedRate) { this.proposedRate = proposedRate; }
+
+        public Integer getTrucksOffered() { return trucksOffered; }
+        public void setTrucksOffered(Integer trucksOffered) { this.trucksOffered = trucksOffered; }
+
+        public Integer getAllocatedTrucks() { return allocatedTrucks; }
+        public void setAllocatedTrucks(Integer allocatedTrucks) { this.allocatedTrucks = allocatedTrucks; }
+
+        public Double getScore() { return score; }
+        public void setScore(Double score) { this.score = score; }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tms.dto;
+
+/**
+ * Outcome of one auction close cycle. Latencies are per load, from claiming it to its
+ * booking being committed, in milliseconds.
+ */
+public class AuctionCloseReport {
+
+    private int expired;
+    private int awarded;
+    private int partial;
+    private int unfilled;
+    private int failed;
+    private int deferred;
+    private double p50Millis;
+    private double p95Millis;
+    private double p99Millis;
+    private double maxMillis;
+    private long elapsedMillis;
+
+    public int getExpired() { return expired; }
+    public void setExpired(int expired) { this.expired = expired; }
+
+    public int getAwarded() { return awarded; }
+    public void setAwarded(int awarded) { this.awarded = awarded; }
+
+    public int getPartial() { return partial; }
+    public void setPartial(int partial) { this.partial = partial; }
+
+    public int getUnfilled() { return unfilled; }
+    public void setUnfilled(int unfilled) { this.unfilled = unfilled; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    /** Expired loads skipped this cycle because they are backing off after a failure. */
+    public int getDeferred() { return deferred; }
+    public void setDeferred(int deferred) { this.deferred = deferred; }
+
+    public double getP50Millis() { return p50Millis; }
+    public void setP50Millis(double p50Millis) { this.p50Millis = p50Millis; }
+
+    public double getP95Millis() { return p95Millis; }
+    public void setP95Millis(double p95Millis) { this.p95Millis = p95Millis; }
+
+    public double getP99Millis() { return p99Millis; }
+    public void setP99Millis(double p99Millis) { this.p99Millis = p99Millis; }
+
+    public double getMaxMillis() { return maxMillis; }
+    public void setMaxMillis(double maxMillis) { this.maxMillis = maxMillis; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
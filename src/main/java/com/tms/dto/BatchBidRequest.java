@@ -0,0 +1,55 @@
+package com.tms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public class BatchBidRequest {
+
+    @NotNull(message = "Transporter ID is required")
+    private Integer transporterId;
+
+    @NotNull(message = "Items are required")
+    @Size(min = 1, max = 500, message = "Between 1 and 500 items per batch")
+    private List<@Valid Item> items;
+
+    public Integer getTransporterId() { return transporterId; }
+    public void setTransporterId(Integer transporterId) { this.transporterId = transporterId; }
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+
+    /**
+     * One bid of the batch; the transporter is given once for the whole batch.
+     */
+    public static class Item {
+
+        @NotNull(message = "Load ID is required")
+        private Integer loadId;
+
+        @NotNull(message = "Proposed rate is required")
+        @Positive(message = "Proposed rate must be positive")
+        private Double proposedRate;
+
+        @NotNull(message = "Trucks offered is required")
+        @Min(value = 1, message = "At least 1 truck must be offered")
+        private Integer trucksOffered;
+
+        public Item() {}
+
+        public Item(Integer loadId, Double proposedRate, Integer trucksOffered) {
+            this.loadId = loadId;
+            this.proposedRate = proposedRate;
+            this.trucksOffered = trucksOffered;
+        }
+
+        public Integer getLoadId() { return loadId; }
+        public void setLoadId(Integer loadId) { this.loadId = loadId; }
+
+        public Double getProposedRate() { return proposedRate; }
+        public void setProposedRate(Double proposedRate) { this.proposedRate = proposedRate; }
+
+        public Integer getTrucksOffered() { return trucksOffered; }
+        public void setTrucksOffered(Integer trucksOffered) { this.trucksOffered = trucksOffered; }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tms.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchBidResponse {
+
+    private Integer transporterId;
+    private int created;
+    private int rejected;
+    private List<ItemResult> results = new ArrayList<>();
+
+    public Integer getTransporterId() { return transporterId; }
+    public void setTransporterId(Integer transporterId) { this.transporterId = transporterId; }
+
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public List<ItemResult> getResults() { return results; }
+    public void setResults(List<ItemResult> results) { this.results = results; }
+
+    /**
+     * Outcome of one batch item, in request order: either the created bid or the reason it was rejected.
+     */
+    public static class ItemResult {
+        private Integer loadId;
+        private BidResponse bid;
+        private String error;
+
+        public ItemResult() {}
+
+        public ItemResult(Integer loadId, BidResponse bid, String error) {
+            this.loadId = loadId;
+            this.bid = bid;
+            this.error = error;
+        }
+
+        public Integer getLoadId() { return loadId; }
+        public void setLoadId(Integer loadId) { this.loadId = loadId; }
+
+        public BidResponse getBid() { return bid; }
+        public void setBid(BidResponse bid) { this.bid = bid; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+}
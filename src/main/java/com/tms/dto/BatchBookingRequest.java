@@ -0,0 +1,34 @@
+package com.tms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public class BatchBookingRequest {
+
+    public static final String ALL_OR_NOTHING = "ALL_OR_NOTHING";
+    public static final String BEST_EFFORT = "BEST_EFFORT";
+
+    @NotNull(message = "Load ID is required")
+    private Integer loadId;
+
+    @Pattern(regexp = "ALL_OR_NOTHING|BEST_EFFORT", message = "Mode must be ALL_OR_NOTHING or BEST_EFFORT")
+    private String mode = ALL_OR_NOTHING;
+
+    @NotNull(message = "Items are required")
+    @Size(min = 1, max = 500, message = "Between 1 and 500 items per batch")
+    private List<@Valid BookingRequest> items;
+
+    public Integer getLoadId() { return loadId; }
+    public void setLoadId(Integer loadId) { this.loadId = loadId; }
+
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+
+    public List<BookingRequest> getItems() { return items; }
+    public void setItems(List<BookingRequest> items) { this.items = items; }
+
+    public boolean isBestEffort() {
+        return BEST_EFFORT.equals(mode);
+    }
+}
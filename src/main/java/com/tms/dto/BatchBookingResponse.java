@@ -0,0 +1,67 @@
+package com.tms.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchBookingResponse {
+
+    private Integer loadId;
+    private String mode;
+    private String loadStatus;
+    private Integer remainingTrucks;
+    private int booked;
+    private int rejected;
+    private List<ItemResult> results = new ArrayList<>();
+
+    public Integer getLoadId() { return loadId; }
+    public void setLoadId(Integer loadId) { this.loadId = loadId; }
+
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+
+    public String getLoadStatus() { return loadStatus; }
+    public void setLoadStatus(String loadStatus) { this.loadStatus = loadStatus; }
+
+    public Integer getRemainingTrucks() { return remainingTrucks; }
+    public void setRemainingTrucks(Integer remainingTrucks) { this.remainingTrucks = remainingTrucks; }
+
+    public int getBooked() { return booked; }
+    public void setBooked(int booked) { this.booked = booked; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public List<ItemResult> getResults() { return results; }
+    public void setResults(List<ItemResult> results) { this.results = results; }
+
+    /**
+     * Outcome of one batch item, in request order: either the booking or the reason it was rejected.
+     */
+    public static class ItemResult {
+        private Integer bidId;
+        private Integer allocatedTrucks;
+        private BookingResponse booking;
+        private String error;
+
+        public ItemResult() {}
+
+        public ItemResult(Integer bidId, Integer allocatedTrucks, BookingResponse booking, String error) {
+            this.bidId = bidId;
+            this.allocatedTrucks = allocatedTrucks;
+            this.booking = booking;
+            this.error = error;
+        }
+
+        public Integer getBidId() { return bidId; }
+        public void setBidId(Integer bidId) { this.bidId = bidId; }
+
+        public Integer getAllocatedTrucks() { return allocatedTrucks; }
+        public void setAllocatedTrucks(Integer allocatedTrucks) { this.allocatedTrucks = allocatedTrucks; }
+
+        public BookingResponse getBooking() { return booking; }
+        public void setBooking(BookingResponse booking) { this.booking = booking; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+}
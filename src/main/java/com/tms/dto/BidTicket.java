@@ -0,0 +1,47 @@
+package com.tms.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Receipt for a bid accepted into the async intake queue. Status is QUEUED until a
+ * writer commits its batch, then CREATED (with the bid) or REJECTED (with the reason).
+ */
+public class BidTicket {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private String ticketId;
+    private String status;
+    private Integer loadId;
+    private Integer transporterId;
+    private LocalDateTime queuedAt;
+    private LocalDateTime completedAt;
+    private BidResponse bid;
+    private String error;
+
+    public String getTicketId() { return ticketId; }
+    public void setTicketId(String ticketId) { this.ticketId = ticketId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getLoadId() { return loadId; }
+    public void setLoadId(Integer loadId) { this.loadId = loadId; }
+
+    public Integer getTransporterId() { return transporterId; }
+    public void setTransporterId(Integer transporterId) { this.transporterId = transporterId; }
+
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public void setQueuedAt(LocalDateTime queuedAt) { this.queuedAt = queuedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public BidResponse getBid() { return bid; }
+    public void setBid(BidResponse bid) { this.bid = bid; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,42 @@
+package com.tms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of one row of a bulk load upload: the created load id or the reasons the row was rejected.
+ * Row numbers are line numbers in the uploaded file.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkLoadResult {
+
+    private long row;
+    private Integer loadId;
+    private List<String> errors;
+
+    public BulkLoadResult() {}
+
+    public BulkLoadResult(long row, Integer loadId, List<String> errors) {
+        this.row = row;
+        this.loadId = loadId;
+        this.errors = errors;
+    }
+
+    public static BulkLoadResult created(long row, Integer loadId) {
+        return new BulkLoadResult(row, loadId, null);
+    }
+
+    public static BulkLoadResult rejected(long row, List<String> errors) {
+        return new BulkLoadResult(row, null, errors);
+    }
+
+    public long getRow() { return row; }
+    public void setRow(long row) { this.row = row; }
+
+    public Integer getLoadId() { return loadId; }
+    public void setLoadId(Integer loadId) { this.loadId = loadId; }
+
+    public List<String> getErrors() { return errors; }
+    public void setErrors(List<String> errors) { this.errors = errors; }
+}
@@ -0,0 +1,36 @@
+package com.tms.dto;
+
+public class EligibleTransporterResponse {
+
+    private Integer transporterId;
+    private String companyName;
+    private Double rating;
+    private String truckType;
+    private Integer availableTrucks;
+
+    public EligibleTransporterResponse() {}
+
+    public EligibleTransporterResponse(Integer transporterId, String companyName, Double rating,
+                                       String truckType, Integer availableTrucks) {
+        this.transporterId = transporterId;
+        this.companyName = companyName;
+        this.rating = rating;
+        this.truckType = truckType;
+        this.availableTrucks = availableTrucks;
+    }
+
+    public Integer getTransporterId() { return transporterId; }
+    public void setTransporterId(Integer transporterId) { this.transporterId = transporterId; }
+
+    public String getCompanyName() { return companyName; }
+    public void setCompanyName(String companyName) { this.companyName = companyName; }
+
+    public Double getRating() { return rating; }
+    public void setRating(Double rating) { this.rating = rating; }
+
+    public String getTruckType() { return truckType; }
+    public void setTruckType(String truckType) { this.truckType = truckType; }
+
+    public Integer getAvailableTrucks() { return availableTrucks; }
+    public void setAvailableTrucks(Integer availableTrucks) { this.availableTrucks = availableTrucks; }
+}
@@ -0,0 +1,55 @@
+package com.tms.dto;
+
+import java.time.LocalDateTime;
+
+public class LaneLoadResponse {
+
+    private Integer loadId;
+    private String shipperId;
+    private String loadingCity;
+    private String unloadingCity;
+    private LocalDateTime loadingDate;
+    private String productType;
+    private Double weight;
+    private String weightUnit;
+    private String truckType;
+    private Integer noOfTrucks;
+    private LocalDateTime datePosted;
+    private LocalDateTime biddingDeadline;
+
+    public Integer getLoadId() { return loadId; }
+    public void setLoadId(Integer loadId) { this.loadId = loadId; }
+
+    public String getShipperId() { return shipperId; }
+    public void setShipperId(String shipperId) { this.shipperId = shipperId; }
+
+    public String getLoadingCity() { return loadingCity; }
+    public void setLoadingCity(String loadingCity) { this.loadingCity = loadingCity; }
+
+    public String getUnloadingCity() { return unloadingCity; }
+    public void setUnloadingCity(String unloadingCity) { this.unloadingCity = unloadingCity; }
+
+    public LocalDateTime getLoadingDate() { return loadingDate; }
+    public void setLoadingDate(LocalDateTime loadingDate) { this.loadingDate = loadingDate; }
+
+    public String getProductType() { return productType; }
+    public void setProductType(String productType) { this.productType = productType; }
+
+    public Double getWeight() { return weight; }
+    public void setWeight(Double weight) { this.weight = weight; }
+
+    public String getWeightUnit() { return weightUnit; }
+    public void setWeightUnit(String weightUnit) { this.weightUnit = weightUnit; }
+
+    public String getTruckType() { return truckType; }
+    public void setTruckType(String truckType) { this.truckType = truckType; }
+
+    public Integer getNoOfTrucks() { return noOfTrucks; }
+    public void setNoOfTrucks(Integer noOfTrucks) { this.noOfTrucks = noOfTrucks; }
+
+    public LocalDateTime getDatePosted() { return datePosted; }
+    public void setDatePosted(LocalDateTime datePosted) { this.datePosted = datePosted; }
+
+    public LocalDateTime getBiddingDeadline() { return biddingDeadline; }
+    public void setBiddingDeadline(LocalDateTime biddingDeadline) { this.biddingDeadline = biddingDeadline; }
+}
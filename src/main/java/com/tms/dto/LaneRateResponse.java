@@ -0,0 +1,56 @@
+package com.tms.dto;
+
+public class LaneRateResponse {
+
+    private String loadingCity;
+    private String unloadingCity;
+    private String truckType;
+    private RateSummary bids;
+    private RateSummary bookings;
+
+    public String getLoadingCity() { return loadingCity; }
+    public void setLoadingCity(String loadingCity) { this.loadingCity = loadingCity; }
+
+    public String getUnloadingCity() { return unloadingCity; }
+    public void setUnloadingCity(String unloadingCity) { this.unloadingCity = unloadingCity; }
+
+    public String getTruckType() { return truckType; }
+    public void setTruckType(String truckType) { this.truckType = truckType; }
+
+    public RateSummary getBids() { return bids; }
+    public void setBids(RateSummary bids) { this.bids = bids; }
+
+    public RateSummary getBookings() { return bookings; }
+    public void setBookings(RateSummary bookings) { this.bookings = bookings; }
+
+    /**
+     * Approximate percentiles (within 1%) of the rates seen on the lane; null while count is 0.
+     */
+    public static class RateSummary {
+        private long count;
+        private Double p10;
+        private Double p50;
+        private Double p90;
+
+        public RateSummary() {}
+
+        public RateSummary(long count, Double p10, Double p50, Double p90) {
+            this.count = count;
+            this.p10 = p10;
+            this.p50 = p50;
+            this.p90 = p90;
+        }
+
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+
+        public Double getP10() { return p10; }
+        public void setP10(Double p10) { this.p10 = p10; }
+
+        public Double getP50() { return p50; }
+        public void setP50(Double p50) { this.p50 = p50; }
+
+        public Double getP90() { return p90; }
+        public void setP90(Double p90) { this.p90 = p90; }
+    }
+}
@@ -0,0 +1,32 @@
+package com.tms.dto;
+
+import java.util.List;
+
+public class LoadCursorPage {
+
+    private List<LoadResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public LoadCursorPage() {}
+
+    public LoadCursorPage(List<LoadResponse> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<LoadResponse> getContent() { return content; }
+    public void setContent(List<LoadResponse> content) { this.content = content; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -35,6 +35,9 @@ public class LoadRequest {
     @Min(value = 1, message = "At least 1 truck required")
     private Integer noOfTrucks;
 
+    @Future(message = "Bidding deadline must be in the future")
+    private LocalDateTime biddingDeadline;
+
     public String getShipperId() { return shipperId; }
     public void setShipperId(String shipperId) { this.shipperId = shipperId; }
 
@@ -61,5 +64,7 @@ public class LoadRequest {
 
     public Integer getNoOfTrucks() { return noOfTrucks; }
     public void setNoOfTrucks(Integer noOfTrucks) { this.noOfTrucks = noOfTrucks; }
-}
 
+    public LocalDateTime getBiddingDeadline() { return biddingDeadline; }
+    public void setBiddingDeadline(LocalDateTime biddingDeadline) { this.biddingDeadline = biddingDeadline; }
+}
@@ -17,6 +17,8 @@ public class LoadResponse {
     private Integer noOfTrucks;
     private String status;
     private LocalDateTime datePosted;
+    private LocalDateTime biddingDeadline;
+    private LocalDateTime auctionClosedAt;
     private Integer remainingTrucks;
     private List<BidResponse> bids;
 
@@ -56,6 +58,12 @@ public class LoadResponse {
     public LocalDateTime getDatePosted() { return datePosted; }
     public void setDatePosted(LocalDateTime datePosted) { this.datePosted = datePosted; }
 
+    public LocalDateTime getBiddingDeadline() { return biddingDeadline; }
+    public void setBiddingDeadline(LocalDateTime biddingDeadline) { this.biddingDeadline = biddingDeadline; }
+
+    public LocalDateTime getAuctionClosedAt() { return auctionClosedAt; }
+    public void setAuctionClosedAt(LocalDateTime auctionClosedAt) { this.auctionClosedAt = auctionClosedAt; }
+
     public Integer getRemainingTrucks() { return remainingTrucks; }
     public void setRemainingTrucks(Integer remainingTrucks) { this.remainingTrucks = remainingTrucks; }
 
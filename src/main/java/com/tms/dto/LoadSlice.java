@@ -0,0 +1,32 @@
+package com.tms.dto;
+
+import java.util.List;
+
+public class LoadSlice {
+
+    private List<LoadResponse> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+
+    public LoadSlice() {}
+
+    public LoadSlice(List<LoadResponse> content, int page, int size, boolean hasNext) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+    public List<LoadResponse> getContent() { return content; }
+    public void setContent(List<LoadResponse> content) { this.content = content; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
@@ -0,0 +1,26 @@
+package com.tms.dto;
+
+import com.tms.entity.Transporter;
+
+public class TransporterSummary {
+
+    private final Integer transporterId;
+    private final String companyName;
+    private final Double rating;
+
+    public TransporterSummary(Integer transporterId, String companyName, Double rating) {
+        this.transporterId = transporterId;
+        this.companyName = companyName;
+        this.rating = rating;
+    }
+
+    public static TransporterSummary from(Transporter transporter) {
+        return new TransporterSummary(transporter.getTransporterId(), transporter.getCompanyName(), transporter.getRating());
+    }
+
+    public Integer getTransporterId() { return transporterId; }
+
+    public String getCompanyName() { return companyName; }
+
+    public Double getRating() { return rating; }
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 public class Bid {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (pooled by 50) keep JDBC insert batching available for batch bids
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bids_seq")
+    @SequenceGenerator(name = "bids_seq", sequenceName = "bids_bid_id_seq", allocationSize = 50)
     @Column(name = "bid_id")
     private Integer bidId;
 
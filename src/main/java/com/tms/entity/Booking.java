@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (pooled by 50) keep JDBC insert batching available, IDENTITY disables it
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_booking_id_seq", allocationSize = 50)
     @Column(name = "booking_id")
     private Integer bookingId;
 
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 public class Load {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (pooled by 50) keep JDBC insert batching available for bulk ingestion
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loads_seq")
+    @SequenceGenerator(name = "loads_seq", sequenceName = "loads_load_id_seq", allocationSize = 50)
     @Column(name = "load_id")
     private Integer loadId;
 
@@ -39,12 +41,24 @@ public class Load {
     @Column(name = "no_of_trucks", nullable = false)
     private Integer noOfTrucks;
 
+    // Only written by LoadRepository.allocateTrucks/releaseTrucks, never by entity updates
+    @Column(name = "allocated_trucks", nullable = false, updatable = false)
+    private Integer allocatedTrucks = 0;
+
     @Column(nullable = false)
     private String status = "POSTED";
 
-    @Column(name = "date_posted")
+    @Column(name = "date_posted", nullable = false, updatable = false)
     private LocalDateTime datePosted = LocalDateTime.now();
 
+    // Optional; bids are refused once this passes and AuctionService then awards the load
+    @Column(name = "bidding_deadline")
+    private LocalDateTime biddingDeadline;
+
+    // Set by LoadRepository.closeAuction once AuctionService has closed the auction
+    @Column(name = "auction_closed_at", updatable = false)
+    private LocalDateTime auctionClosedAt;
+
     @Version
     private Integer version;
 
@@ -80,12 +94,21 @@ public class Load {
     public Integer getNoOfTrucks() { return noOfTrucks; }
     public void setNoOfTrucks(Integer noOfTrucks) { this.noOfTrucks = noOfTrucks; }
 
+    public Integer getAllocatedTrucks() { return allocatedTrucks; }
+    public void setAllocatedTrucks(Integer allocatedTrucks) { this.allocatedTrucks = allocatedTrucks; }
+
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
     public LocalDateTime getDatePosted() { return datePosted; }
     public void setDatePosted(LocalDateTime datePosted) { this.datePosted = datePosted; }
 
+    public LocalDateTime getBiddingDeadline() { return biddingDeadline; }
+    public void setBiddingDeadline(LocalDateTime biddingDeadline) { this.biddingDeadline = biddingDeadline; }
+
+    public LocalDateTime getAuctionClosedAt() { return auctionClosedAt; }
+    public void setAuctionClosedAt(LocalDateTime auctionClosedAt) { this.auctionClosedAt = auctionClosedAt; }
+
     public Integer getVersion() { return version; }
     public void setVersion(Integer version) { this.version = version; }
 }
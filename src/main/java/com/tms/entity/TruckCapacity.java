@@ -14,7 +14,8 @@ public class TruckCapacity {
     @Column(name = "truck_type", nullable = false)
     private String truckType;
 
-    @Column(nullable = false)
+    // Only written on insert and by TruckCapacityRepository.decrementCount/incrementCount, never by entity updates
+    @Column(nullable = false, updatable = false)
     private Integer count;
 
     @Version
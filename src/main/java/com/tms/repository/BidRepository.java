@@ -1,27 +1,59 @@
 package com.tms.repository;
 
 import com.tms.entity.Bid;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface BidRepository extends JpaRepository<Bid, Integer> {
 
-    List<Bid> findByLoadId(Integer loadId);
-
-    List<Bid> findByTransporterId(Integer transporterId);
-
-    List<Bid> findByStatus(String status);
-
     List<Bid> findByLoadIdAndStatus(Integer loadId, String status);
 
-    List<Bid> findByTransporterIdAndStatus(Integer transporterId, String status);
+    /**
+     * Cursor over the bids matching every given filter (null = any), fetched from the
+     * database in blocks of the fetch size. Needs a transaction and must be closed.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Bid b WHERE (:loadId IS NULL OR b.loadId = :loadId) " +
+           "AND (:transporterId IS NULL OR b.transporterId = :transporterId) " +
+           "AND (:status IS NULL OR b.status = :status) ORDER BY b.bidId")
+    Stream<Bid> streamBids(@Param("loadId") Integer loadId, @Param("transporterId") Integer transporterId,
+                           @Param("status") String status);
+
+    @Query("SELECT b.loadId FROM Bid b WHERE b.bidId = :bidId")
+    Optional<Integer> findLoadIdByBidId(@Param("bidId") Integer bidId);
+
+    /**
+     * Accepts the given bids in one statement, returns how many were still PENDING.
+     */
+    @Modifying
+    @Query("UPDATE Bid b SET b.status = 'ACCEPTED' WHERE b.bidId IN :bidIds AND b.status = 'PENDING'")
+    int acceptPending(@Param("bidIds") Collection<Integer> bidIds);
 
     @Query("SELECT SUM(b.trucksOffered) FROM Bid b WHERE b.loadId = :loadId AND b.status = 'ACCEPTED'")
     Integer getTotalAllocatedTrucks(@Param("loadId") Integer loadId);
-}
 
+    @Query("SELECT MIN(b.bidId) AS min, MAX(b.bidId) AS max FROM Bid b")
+    IdRange findIdRange();
+
+    /**
+     * Rates of the bids with ids in [fromId, toId] and the lane of their load.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l.loadingCity AS loadingCity, l.unloadingCity AS unloadingCity, l.truckType AS truckType, " +
+           "b.proposedRate AS rate FROM Bid b JOIN Load l ON l.loadId = b.loadId WHERE b.bidId BETWEEN :fromId AND :toId")
+    Stream<LaneRateRow> streamLaneRates(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+}
@@ -1,11 +1,19 @@
 package com.tms.repository;
 
 import com.tms.entity.Booking;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
@@ -14,7 +22,28 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
 
     List<Booking> findByTransporterId(Integer transporterId);
 
+    /**
+     * Cursor over all bookings, fetched from the database in blocks of the fetch size.
+     * Needs a transaction and must be closed.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Booking b ORDER BY b.bookingId")
+    Stream<Booking> streamAll();
+
+    @Query("SELECT b.loadId FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<Integer> findLoadIdByBookingId(@Param("bookingId") Integer bookingId);
+
     @Query("SELECT COALESCE(SUM(b.allocatedTrucks), 0) FROM Booking b WHERE b.loadId = :loadId AND b.status != 'CANCELLED'")
     Integer getTotalAllocatedTrucks(Integer loadId);
-}
 
+    @Query("SELECT MIN(b.bookingId) AS min, MAX(b.bookingId) AS max FROM Booking b")
+    IdRange findIdRange();
+
+    /**
+     * Rates of the bookings with ids in [fromId, toId] and the lane of their load.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l.loadingCity AS loadingCity, l.unloadingCity AS unloadingCity, l.truckType AS truckType, " +
+           "b.finalRate AS rate FROM Booking b JOIN Load l ON l.loadId = b.loadId WHERE b.bookingId BETWEEN :fromId AND :toId")
+    Stream<LaneRateRow> streamLaneRates(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+}
@@ -0,0 +1,11 @@
+package com.tms.repository;
+
+/**
+ * Smallest and largest id of a table, both null when it is empty.
+ */
+public interface IdRange {
+
+    Integer getMin();
+
+    Integer getMax();
+}
@@ -0,0 +1,15 @@
+package com.tms.repository;
+
+/**
+ * A bid or booking rate with the lane of its load, for rebuilding LaneRateStats.
+ */
+public interface LaneRateRow {
+
+    String getLoadingCity();
+
+    String getUnloadingCity();
+
+    String getTruckType();
+
+    Double getRate();
+}
@@ -1,12 +1,32 @@
 package com.tms.repository;
 
 import com.tms.entity.Load;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface LoadRepository extends JpaRepository<Load, Integer> {
 
@@ -15,5 +35,78 @@ public interface LoadRepository extends JpaRepository<Load, Integer> {
     Page<Load> findByStatus(String status, Pageable pageable);
 
     Page<Load> findByShipperIdAndStatus(String shipperId, String status, Pageable pageable);
-}
 
+    // Slices fetch one row past the page to know whether more follow, without a COUNT query
+
+    Slice<Load> findSliceBy(Pageable pageable);
+
+    Slice<Load> findSliceByShipperId(String shipperId, Pageable pageable);
+
+    Slice<Load> findSliceByStatus(String status, Pageable pageable);
+
+    Slice<Load> findSliceByShipperIdAndStatus(String shipperId, String status, Pageable pageable);
+
+    // Keyset scrolling: seeks past the position instead of OFFSET and issues no COUNT query
+
+    Window<Load> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Load> findByShipperId(String shipperId, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Load> findByStatus(String status, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Load> findByShipperIdAndStatus(String shipperId, String status, ScrollPosition position, Limit limit, Sort sort);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT l FROM Load l WHERE l.status IN :statuses")
+    Stream<Load> streamByStatusIn(@Param("statuses") Collection<String> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Load l WHERE l.loadId = :loadId")
+    Optional<Load> findByIdForUpdate(@Param("loadId") Integer loadId);
+
+    @Query("SELECT l.allocatedTrucks FROM Load l WHERE l.loadId = :loadId")
+    Integer findAllocatedTrucks(@Param("loadId") Integer loadId);
+
+    /**
+     * Reserves trucks on a load only if they still fit, returns the number of updated rows (0 or 1).
+     */
+    @Modifying
+    @Query("UPDATE Load l SET l.allocatedTrucks = l.allocatedTrucks + :trucks " +
+           "WHERE l.loadId = :loadId AND l.status <> 'CANCELLED' AND l.allocatedTrucks + :trucks <= l.noOfTrucks")
+    int allocateTrucks(@Param("loadId") Integer loadId, @Param("trucks") int trucks);
+
+    /**
+     * Gives trucks back to a load, returns 0 if fewer than that many are allocated.
+     */
+    @Modifying
+    @Query("UPDATE Load l SET l.allocatedTrucks = l.allocatedTrucks - :trucks " +
+           "WHERE l.loadId = :loadId AND l.allocatedTrucks >= :trucks")
+    int releaseTrucks(@Param("loadId") Integer loadId, @Param("trucks") int trucks);
+
+    /**
+     * Opens POSTED loads for bidding in one statement. Bumps the version like an entity
+     * update would, so writers holding an older copy of a load still get a conflict.
+     */
+    @Modifying
+    @Query("UPDATE Load l SET l.status = 'OPEN_FOR_BIDS', l.version = l.version + 1 " +
+           "WHERE l.loadId IN :loadIds AND l.status = 'POSTED'")
+    int openForBids(@Param("loadIds") Collection<Integer> loadIds);
+
+    /**
+     * Open loads whose bidding deadline has passed and whose auction is not closed yet,
+     * oldest deadline first.
+     */
+    @Query("SELECT l.loadId FROM Load l WHERE l.biddingDeadline <= :now AND l.auctionClosedAt IS NULL " +
+           "AND l.status IN ('POSTED', 'OPEN_FOR_BIDS') ORDER BY l.biddingDeadline, l.loadId")
+    List<Integer> findExpiredAuctions(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Marks a load's auction as closed at now, keeping its deadline and bumping the version
+     * like openForBids. Returns 0 if the auction is already closed or its deadline has not
+     * passed.
+     */
+    @Modifying
+    @Query("UPDATE Load l SET l.auctionClosedAt = :now, l.version = l.version + 1 " +
+           "WHERE l.loadId = :loadId AND l.auctionClosedAt IS NULL AND l.biddingDeadline <= :now")
+    int closeAuction(@Param("loadId") Integer loadId, @Param("now") LocalDateTime now);
+}
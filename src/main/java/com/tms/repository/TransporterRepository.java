@@ -1,10 +1,19 @@
 package com.tms.repository;
 
+import com.tms.dto.TransporterSummary;
 import com.tms.entity.Transporter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TransporterRepository extends JpaRepository<Transporter, Integer> {
-}
 
+    @Query("SELECT new com.tms.dto.TransporterSummary(t.transporterId, t.companyName, t.rating) " +
+           "FROM Transporter t WHERE t.transporterId IN :ids")
+    List<TransporterSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+}
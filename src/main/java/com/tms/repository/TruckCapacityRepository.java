@@ -1,18 +1,72 @@
 package com.tms.repository;
 
 import com.tms.entity.TruckCapacity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface TruckCapacityRepository extends JpaRepository<TruckCapacity, Integer> {
 
     Optional<TruckCapacity> findByTransporterTransporterIdAndTruckType(Integer transporterId, String truckType);
 
+    List<TruckCapacity> findByTransporterTransporterId(Integer transporterId);
+
+    /**
+     * The transporter's capacity rows, locked so bookings can't change the counts
+     * before they are replaced.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT tc FROM TruckCapacity tc WHERE tc.transporter.transporterId = :transporterId")
+    List<TruckCapacity> findByTransporterIdForUpdate(@Param("transporterId") Integer transporterId);
+
+    List<TruckCapacity> findByTransporterTransporterIdIn(Collection<Integer> transporterIds);
+
+    List<TruckCapacity> findByTransporterTransporterIdInAndTruckType(Collection<Integer> transporterIds, String truckType);
+
+    /**
+     * Deducts trucks only if enough are left, returns the number of updated rows (0 or 1).
+     */
+    @Modifying
+    @Query("UPDATE TruckCapacity tc SET tc.count = tc.count - :trucks " +
+           "WHERE tc.transporter.transporterId = :transporterId AND tc.truckType = :truckType AND tc.count >= :trucks")
+    int decrementCount(@Param("transporterId") Integer transporterId, @Param("truckType") String truckType,
+                       @Param("trucks") int trucks);
+
+    @Modifying
+    @Query("UPDATE TruckCapacity tc SET tc.count = tc.count + :trucks " +
+           "WHERE tc.transporter.transporterId = :transporterId AND tc.truckType = :truckType")
+    int incrementCount(@Param("transporterId") Integer transporterId, @Param("truckType") String truckType,
+                       @Param("trucks") int trucks);
+
+    /**
+     * Every capacity row with its transporter's rating, for building TransporterCapacityIndex.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.transporterId AS transporterId, t.rating AS rating, tc.truckType AS truckType, tc.count AS count " +
+           "FROM TruckCapacity tc JOIN tc.transporter t")
+    Stream<CapacityRow> streamCapacities();
+
+    interface CapacityRow {
+        Integer getTransporterId();
+        Double getRating();
+        String getTruckType();
+        Integer getCount();
+    }
+
     @Modifying
     @Query("DELETE FROM TruckCapacity tc WHERE tc.transporter.transporterId = :transporterId")
     void deleteByTransporterTransporterId(Integer transporterId);
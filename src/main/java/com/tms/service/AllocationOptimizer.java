@@ -0,0 +1,65 @@
+package com.tms.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a multi-truck load across pending bids.
+ *
+ * A bid may be booked for fewer trucks than it offers and its rate is per truck, so the
+ * cost (or blended score) of an allocation is linear in the trucks given to each bid.
+ * The caps are nested (bid within transporter), which makes picking trucks from the
+ * best bid first, up to the bid's offer and the transporter's remaining capacity,
+ * optimal; no DP is needed and the cost is one sort of the bids.
+ */
+final class AllocationOptimizer {
+
+    private AllocationOptimizer() {}
+
+    record Candidate(Integer bidId, Integer transporterId, double proposedRate, int trucksOffered, double rating) {
+        double score() {
+            return BidBook.score(proposedRate, rating);
+        }
+    }
+
+    record Allocation(Candidate bid, int trucks) {}
+
+    static final Comparator<Candidate> CHEAPEST_FIRST = Comparator
+            .comparingDouble(Candidate::proposedRate)
+            .thenComparing(Comparator.comparingDouble(Candidate::rating).reversed())
+            .thenComparing(Candidate::bidId);
+
+    static final Comparator<Candidate> BEST_SCORE_FIRST = Comparator
+            .comparingDouble(Candidate::score).reversed()
+            .thenComparing(Candidate::bidId);
+
+    /**
+     * Allocates up to trucksNeeded trucks, best candidate first in the given order. The
+     * result falls short of trucksNeeded only when the bids can't cover it.
+     */
+    static List<Allocation> allocate(int trucksNeeded, List<Candidate> candidates,
+                                     Map<Integer, Integer> capacityByTransporter, Comparator<Candidate> order) {
+        List<Candidate> ranked = new ArrayList<>(candidates);
+        ranked.sort(order);
+
+        Map<Integer, Integer> capacityLeft = new HashMap<>(capacityByTransporter);
+        List<Allocation> allocations = new ArrayList<>();
+        int needed = trucksNeeded;
+        for (Candidate candidate : ranked) {
+            if (needed == 0) {
+                break;
+            }
+            int capacity = capacityLeft.getOrDefault(candidate.transporterId(), 0);
+            int trucks = Math.min(needed, Math.min(candidate.trucksOffered(), capacity));
+            if (trucks > 0) {
+                allocations.add(new Allocation(candidate, trucks));
+                capacityLeft.put(candidate.transporterId(), capacity - trucks);
+                needed -= trucks;
+            }
+        }
+        return allocations;
+    }
+}
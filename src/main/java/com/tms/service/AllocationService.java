@@ -0,0 +1,130 @@
+package com.tms.service;
+
+import com.tms.dto.*;
+import com.tms.entity.Bid;
+import com.tms.entity.Load;
+import com.tms.entity.TruckCapacity;
+import com.tms.exception.InsufficientCapacityException;
+import com.tms.exception.InvalidStatusTransitionException;
+import com.tms.exception.ResourceNotFoundException;
+import com.tms.repository.BidRepository;
+import com.tms.repository.LoadRepository;
+import com.tms.repository.TruckCapacityRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests how to split a load's remaining trucks across its PENDING bids (see
+ * AllocationOptimizer) and books a suggestion through the batch booking path.
+ */
+@Service
+public class AllocationService {
+
+    public enum Objective { COST, SCORE }
+
+    private final LoadRepository loadRepository;
+    private final BidRepository bidRepository;
+    private final TruckCapacityRepository truckCapacityRepository;
+    private final TransporterSummaryCache transporterSummaryCache;
+    private final BookingService bookingService;
+
+    public AllocationService(LoadRepository loadRepository, BidRepository bidRepository,
+                             TruckCapacityRepository truckCapacityRepository,
+                             TransporterSummaryCache transporterSummaryCache, BookingService bookingService) {
+        this.loadRepository = loadRepository;
+        this.bidRepository = bidRepository;
+        this.truckCapacityRepository = truckCapacityRepository;
+        this.transporterSummaryCache = transporterSummaryCache;
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * COST fills the remaining trucks at the lowest total rate; SCORE maximizes the summed
+     * best-bid score, trading rate against transporter rating. Each bid is capped by its
+     * offer and each transporter by its current capacity of the load's truck type.
+     */
+    public AllocationPlan planAllocation(Integer loadId, Objective objective) {
+        Load load = loadRepository.findById(loadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Load not found with ID: " + loadId));
+
+        if ("CANCELLED".equals(load.getStatus())) {
+            throw new InvalidStatusTransitionException("Cannot allocate a cancelled load");
+        }
+
+        List<Bid> bids = bidRepository.findByLoadIdAndStatus(loadId, "PENDING");
+        Set<Integer> transporterIds = bids.stream().map(Bid::getTransporterId).collect(Collectors.toSet());
+        Map<Integer, TransporterSummary> transporters = transporterSummaryCache.getAll(transporterIds);
+        Map<Integer, Integer> capacities = transporterIds.isEmpty() ? Map.of() : truckCapacityRepository
+                .findByTransporterTransporterIdInAndTruckType(transporterIds, load.getTruckType()).stream()
+                .collect(Collectors.toMap(tc -> tc.getTransporter().getTransporterId(), TruckCapacity::getCount));
+
+        List<AllocationOptimizer.Candidate> candidates = bids.stream()
+                .filter(bid -> transporters.containsKey(bid.getTransporterId()))
+                .map(bid -> new AllocationOptimizer.Candidate(bid.getBidId(), bid.getTransporterId(),
+                        bid.getProposedRate(), bid.getTrucksOffered(), transporters.get(bid.getTransporterId()).getRating()))
+                .collect(Collectors.toList());
+
+        int trucksNeeded = load.getNoOfTrucks() - load.getAllocatedTrucks();
+        List<AllocationOptimizer.Allocation> allocations = AllocationOptimizer.allocate(trucksNeeded, candidates, capacities,
+                objective == Objective.SCORE ? AllocationOptimizer.BEST_SCORE_FIRST : AllocationOptimizer.CHEAPEST_FIRST);
+
+        AllocationPlan plan = new AllocationPlan();
+        plan.setLoadId(loadId);
+        plan.setObjective(objective.name());
+        plan.setTrucksNeeded(trucksNeeded);
+        for (AllocationOptimizer.Allocation allocation : allocations) {
+            AllocationOptimizer.Candidate bid = allocation.bid();
+            AllocationPlan.Item item = new AllocationPlan.Item();
+            item.setBidId(bid.bidId());
+            item.setTransporterId(bid.transporterId());
+            item.setTransporterCompanyName(transporters.get(bid.transporterId()).getCompanyName());
+            item.setProposedRate(bid.proposedRate());
+            item.setTrucksOffered(bid.trucksOffered());
+            item.setAllocatedTrucks(allocation.trucks());
+            item.setScore(bid.score());
+            plan.getAllocations().add(item);
+
+            plan.setTrucksAllocated(plan.getTrucksAllocated() + allocation.trucks());
+            plan.setTotalCost(plan.getTotalCost() + bid.proposedRate() * allocation.trucks());
+        }
+        plan.setComplete(plan.getTrucksAllocated() == trucksNeeded);
+        return plan;
+    }
+
+    /**
+     * Plans the allocation and books it as one ALL_OR_NOTHING batch. If bids or capacity
+     * change between planning and booking, the batch is rejected rather than booked
+     * differently from the plan. Like createBookings, must not be called inside a transaction.
+     */
+    public BatchBookingResponse applyAllocation(Integer loadId, Objective objective) {
+        return applyAllocation(loadId, objective, () -> {});
+    }
+
+    /**
+     * applyAllocation that also runs alsoInTransaction in the booking transaction, see
+     * BookingService.createBookings. It is not run if there is nothing to book.
+     */
+    public BatchBookingResponse applyAllocation(Integer loadId, Objective objective, Runnable alsoInTransaction) {
+        AllocationPlan plan = planAllocation(loadId, objective);
+        if (plan.getAllocations().isEmpty()) {
+            throw new InsufficientCapacityException(plan.getTrucksNeeded() == 0
+                    ? "Load has no trucks left to allocate"
+                    : "No pending bid can be allocated to load " + loadId);
+        }
+
+        BatchBookingRequest request = new BatchBookingRequest();
+        request.setLoadId(loadId);
+        request.setMode(BatchBookingRequest.ALL_OR_NOTHING);
+        request.setItems(plan.getAllocations().stream().map(item -> {
+            BookingRequest booking = new BookingRequest();
+            booking.setBidId(item.getBidId());
+            booking.setAllocatedTrucks(item.getAllocatedTrucks());
+            return booking;
+        }).collect(Collectors.toList()));
+        return bookingService.createBookings(request, alsoInTransaction);
+    }
+}
@@ -0,0 +1,37 @@
+package com.tms.service;
+
+import com.tms.dto.AuctionCloseReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs an auction close cycle at a fixed delay and logs its report. Switched off with
+ * tms.auction.scheduler.enabled=false, e.g. in tests that drive AuctionService directly.
+ */
+@Component
+@ConditionalOnProperty(name = "tms.auction.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class AuctionCloseScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionCloseScheduler.class);
+
+    private final AuctionService auctionService;
+
+    public AuctionCloseScheduler(AuctionService auctionService) {
+        this.auctionService = auctionService;
+    }
+
+    @Scheduled(fixedDelayString = "${tms.auction.close-interval-ms:5000}")
+    public void closeExpiredAuctions() {
+        AuctionCloseReport report = auctionService.closeExpiredAuctions();
+        if (report.getExpired() > 0) {
+            log.info("Closed {} auctions in {} ms: {} awarded, {} partial, {} unfilled, {} failed, {} deferred; "
+                            + "latency p50={} ms p95={} ms p99={} ms max={} ms",
+                    report.getExpired(), report.getElapsedMillis(), report.getAwarded(), report.getPartial(),
+                    report.getUnfilled(), report.getFailed(), report.getDeferred(), report.getP50Millis(), report.getP95Millis(),
+                    report.getP99Millis(), report.getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.tms.service;
+
+import com.tms.dto.AuctionCloseReport;
+import com.tms.dto.BatchBookingResponse;
+import com.tms.exception.InsufficientCapacityException;
+import com.tms.exception.InvalidStatusTransitionException;
+import com.tms.repository.LoadRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closes auctions whose bidding deadline has passed.
+ *
+ * Each expired load is awarded on its own worker thread through
+ * AllocationService.applyAllocation with the SCORE objective, i.e. the best-bid score
+ * of LoadService.getBestBids, capped by bid offers and transporter capacity. A load is
+ * its own unit of work: its booking is one transaction, which also marks the auction
+ * closed (Load.auctionClosedAt), so a load is never booked without being closed and
+ * picked up again. A load with no bid that can be booked is closed on its own. A
+ * failure is logged and counted without touching the other loads; the load stays
+ * unclosed and is retried after a backoff that doubles with each failure, from
+ * tms.auction.retry-backoff-ms up to tms.auction.max-retry-backoff-ms. Until then it is
+ * skipped, so loads that keep failing don't hold the oldest slots of every batch.
+ * Backoffs are kept in memory only and start over after a restart. A closed load keeps
+ * its deadline, takes no new bids and stays open for manual booking if unfilled.
+ *
+ * Close latency goes to the tms.auction.close timer, tagged by outcome.
+ */
+@Service
+public class AuctionService {
+
+    public enum Outcome { AWARDED, PARTIAL, UNFILLED, FAILED }
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionService.class);
+
+    private final LoadRepository loadRepository;
+    private final AllocationService allocationService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final ExecutorService workers;
+    private final ConcurrentMap<Integer, Backoff> backoffs = new ConcurrentHashMap<>();
+
+    public AuctionService(LoadRepository loadRepository, AllocationService allocationService,
+                          MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                          @Value("${tms.auction.close-threads:4}") int closeThreads,
+                          @Value("${tms.auction.close-batch-size:500}") int batchSize,
+                          @Value("${tms.auction.retry-backoff-ms:30000}") long retryBackoffMillis,
+                          @Value("${tms.auction.max-retry-backoff-ms:1800000}") long maxRetryBackoffMillis) {
+        if (closeThreads < 1) {
+            throw new IllegalArgumentException("tms.auction.close-threads must be at least 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("tms.auction.close-batch-size must be at least 1");
+        }
+        if (retryBackoffMillis < 0 || maxRetryBackoffMillis < retryBackoffMillis) {
+            throw new IllegalArgumentException("tms.auction.retry-backoff-ms must be between 0 and tms.auction.max-retry-backoff-ms");
+        }
+        this.loadRepository = loadRepository;
+        this.allocationService = allocationService;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+        this.maxRetryBackoff = Duration.ofMillis(maxRetryBackoffMillis);
+        this.workers = Executors.newFixedThreadPool(closeThreads, workerThreads());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Awards up to one batch of expired auctions, oldest deadline first, skipping those
+     * backing off after a failure, and waits for all of them. Must not be called inside a
+     * transaction.
+     */
+    public AuctionCloseReport closeExpiredAuctions() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        // over-fetch by the loads backing off, so they can't crowd newer loads out of the batch
+        int fetch = batchSize + backoffs.size();
+        List<Integer> expired = loadRepository.findExpiredAuctions(now, PageRequest.of(0, fetch));
+        if (expired.size() < fetch) {
+            // every expired load was seen, drop backoffs of loads closed or booked meanwhile
+            backoffs.keySet().retainAll(expired);
+        }
+        List<Integer> due = expired.stream().filter(loadId -> isDue(loadId, now)).toList();
+        List<Integer> loadIds = due.subList(0, Math.min(batchSize, due.size()));
+
+        List<CompletableFuture<Result>> results = loadIds.stream()
+                .map(loadId -> CompletableFuture.supplyAsync(() -> close(loadId, now), workers))
+                .toList();
+
+        AuctionCloseReport report = new AuctionCloseReport();
+        report.setExpired(loadIds.size());
+        report.setDeferred(expired.size() - due.size());
+        long[] latencies = new long[results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i).join();
+            latencies[i] = result.nanos();
+            switch (result.outcome()) {
+                case AWARDED -> report.setAwarded(report.getAwarded() + 1);
+                case PARTIAL -> report.setPartial(report.getPartial() + 1);
+                case UNFILLED -> report.setUnfilled(report.getUnfilled() + 1);
+                case FAILED -> report.setFailed(report.getFailed() + 1);
+            }
+        }
+
+        Arrays.sort(latencies);
+        report.setP50Millis(percentileMillis(latencies, 0.50));
+        report.setP95Millis(percentileMillis(latencies, 0.95));
+        report.setP99Millis(percentileMillis(latencies, 0.99));
+        report.setMaxMillis(percentileMillis(latencies, 1.0));
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return report;
+    }
+
+    private Result close(Integer loadId, LocalDateTime now) {
+        long started = System.nanoTime();
+        Outcome outcome;
+        try {
+            outcome = award(loadId, now);
+            backoffs.remove(loadId);
+        } catch (RuntimeException e) {
+            outcome = Outcome.FAILED;
+            Backoff backoff = backoffs.compute(loadId, (id, previous) -> Backoff.after(previous, now, retryBackoff, maxRetryBackoff));
+            log.warn("Closing the auction of load {} failed {} time(s), retrying after {}",
+                    loadId, backoff.failures(), backoff.retryAt(), e);
+        }
+
+        long nanos = System.nanoTime() - started;
+        timer(outcome).record(nanos, TimeUnit.NANOSECONDS);
+        return new Result(outcome, nanos);
+    }
+
+    private Outcome award(Integer loadId, LocalDateTime now) {
+        try {
+            BatchBookingResponse booked = allocationService.applyAllocation(
+                    loadId, AllocationService.Objective.SCORE, () -> markClosed(loadId, now));
+            return booked.getRemainingTrucks() == 0 ? Outcome.AWARDED : Outcome.PARTIAL;
+        } catch (InsufficientCapacityException e) {
+            // nothing was booked, so the close is written on its own
+            transactionTemplate.executeWithoutResult(status -> markClosed(loadId, now));
+            return Outcome.UNFILLED;
+        }
+    }
+
+    /**
+     * Throws if another close got there first, rolling back the bookings it runs with.
+     */
+    private void markClosed(Integer loadId, LocalDateTime now) {
+        if (loadRepository.closeAuction(loadId, now) == 0) {
+            throw new InvalidStatusTransitionException("Auction of load " + loadId + " is already closed");
+        }
+    }
+
+    private boolean isDue(Integer loadId, LocalDateTime now) {
+        Backoff backoff = backoffs.get(loadId);
+        return backoff == null || !backoff.retryAt().isAfter(now);
+    }
+
+    private Timer timer(Outcome outcome) {
+        return Timer.builder("tms.auction.close")
+                .tag("outcome", outcome.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Nearest-rank percentile of sorted nanosecond latencies, in milliseconds.
+     */
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+
+    private static ThreadFactory workerThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "auction-close-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Result(Outcome outcome, long nanos) {}
+
+    private record Backoff(int failures, LocalDateTime retryAt) {
+        static Backoff after(Backoff previous, LocalDateTime now, Duration base, Duration max) {
+            int failures = previous != null ? previous.failures() + 1 : 1;
+            Duration delay = base.multipliedBy(1L << Math.min(failures - 1, 30));
+            return new Backoff(failures, now.plus(delay.compareTo(max) < 0 ? delay : max));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.tms.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tms.dto.BidResponse;
+import com.tms.dto.TransporterSummary;
+import com.tms.entity.Bid;
+import com.tms.repository.BidRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.tms.service.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory ranking of PENDING bids per load, ordered by best-bid score.
+ *
+ * Books are built from the database on the first read of a load and then kept
+ * current by the bid and booking write paths. Every change is applied after its
+ * transaction commits, so rolled back writes never show up. A per-load generation
+ * counter keeps a rebuild that raced with a commit from installing a stale book.
+ *
+ * Books are bounded by tms.bid-book.max-loads and dropped after tms.bid-book.idle-minutes
+ * without a read or write, so loads that are read once and never booked don't pile up.
+ * A dropped book is simply rebuilt on the next read.
+ */
+@Component
+public class BidBook {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private static final Comparator<RankedBid> RANKING = Comparator
+            .comparingDouble(RankedBid::sortKey).reversed()
+            .thenComparing(RankedBid::bidId);
+
+    private final BidRepository bidRepository;
+    private final TransporterSummaryCache transporterSummaryCache;
+
+    private final ConcurrentMap<Integer, LoadBook> books;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public BidBook(BidRepository bidRepository, TransporterSummaryCache transporterSummaryCache,
+                   @Value("${tms.bid-book.max-loads:10000}") long maxLoads,
+                   @Value("${tms.bid-book.idle-minutes:30}") long idleMinutes) {
+        this.bidRepository = bidRepository;
+        this.transporterSummaryCache = transporterSummaryCache;
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maxLoads)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .<Integer, LoadBook>build()
+                .asMap();
+    }
+
+    /**
+     * Best-bid score: (1/rate)*0.7 + (rating/5)*0.3
+     */
+    public static double score(double proposedRate, double rating) {
+        double rateScore = (1.0 / proposedRate) * 0.7;
+        double ratingScore = (rating / 5.0) * 0.3;
+        return rateScore + ratingScore;
+    }
+
+    public boolean contains(Integer loadId) {
+        return books.containsKey(loadId);
+    }
+
+    public List<BidResponse> getBestBids(Integer loadId) {
+        return getBestBids(loadId, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Walks the ranking from the top, so the cost is O(offset + limit) no matter how many bids the load has.
+     */
+    public List<BidResponse> getBestBids(Integer loadId, int offset, int limit) {
+        return getOrLoad(loadId).ranked.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(RankedBid::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    public void bidCreated(Bid bid, TransporterSummary transporter) {
+        RankedBid ranked = RankedBid.of(bid, transporter);
+        afterCommit(() -> mutate(bid.getLoadId(), book -> book.add(ranked)));
+    }
+
+    public void bidRemoved(Integer loadId, Integer bidId) {
+        afterCommit(() -> mutate(loadId, book -> book.remove(bidId)));
+    }
+
+    /**
+     * Drops the book of a load that left the auction (booked or cancelled).
+     */
+    public void evict(Integer loadId) {
+        afterCommit(() -> books.compute(loadId, (id, book) -> {
+            generations.incrementAndGet(stripe(id));
+            return null;
+        }));
+    }
+
+    private LoadBook getOrLoad(Integer loadId) {
+        LoadBook book = books.get(loadId);
+        if (book != null) {
+            return book;
+        }
+
+        long generation = generations.get(stripe(loadId));
+        LoadBook loaded = load(loadId);
+
+        LoadBook installed = books.compute(loadId, (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            return generations.get(stripe(id)) == generation ? loaded : null;
+        });
+
+        return installed != null ? installed : loaded;
+    }
+
+    private LoadBook load(Integer loadId) {
+        List<Bid> bids = bidRepository.findByLoadIdAndStatus(loadId, "PENDING");
+
+        Set<Integer> transporterIds = bids.stream().map(Bid::getTransporterId).collect(Collectors.toSet());
+        Map<Integer, TransporterSummary> transporters = transporterSummaryCache.getAll(transporterIds);
+
+        LoadBook book = new LoadBook();
+        for (Bid bid : bids) {
+            book.add(RankedBid.of(bid, transporters.get(bid.getTransporterId())));
+        }
+        return book;
+    }
+
+    private void mutate(Integer loadId, Consumer<LoadBook> mutation) {
+        books.compute(loadId, (id, book) -> {
+            generations.incrementAndGet(stripe(id));
+            if (book != null) {
+                mutation.accept(book);
+            }
+            return book;
+        });
+    }
+
+    private static int stripe(Integer loadId) {
+        return Math.floorMod(loadId, GENERATION_STRIPES);
+    }
+
+    private static final class LoadBook {
+        private final ConcurrentSkipListSet<RankedBid> ranked = new ConcurrentSkipListSet<>(RANKING);
+        private final Map<Integer, RankedBid> byBidId = new ConcurrentHashMap<>();
+
+        synchronized void add(RankedBid bid) {
+            RankedBid previous = byBidId.put(bid.bidId(), bid);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            ranked.add(bid);
+        }
+
+        synchronized void remove(Integer bidId) {
+            RankedBid previous = byBidId.remove(bidId);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+        }
+    }
+
+    private record RankedBid(Integer bidId, Integer loadId, Integer transporterId, String transporterCompanyName,
+                             Double proposedRate, Integer trucksOffered, LocalDateTime submittedAt, Double score) {
+
+        static RankedBid of(Bid bid, TransporterSummary transporter) {
+            Double score = transporter != null ? BidBook.score(bid.getProposedRate(), transporter.getRating()) : null;
+            return new RankedBid(bid.getBidId(), bid.getLoadId(), bid.getTransporterId(),
+                    transporter != null ? transporter.getCompanyName() : null,
+                    bid.getProposedRate(), bid.getTrucksOffered(), bid.getSubmittedAt(), score);
+        }
+
+        double sortKey() {
+            return score != null ? score : Double.NEGATIVE_INFINITY;
+        }
+
+        BidResponse toResponse() {
+            BidResponse response = new BidResponse();
+            response.setBidId(bidId);
+            response.setLoadId(loadId);
+            response.setTransporterId(transporterId);
+            response.setTransporterCompanyName(transporterCompanyName);
+            response.setProposedRate(proposedRate);
+            response.setTrucksOffered(trucksOffered);
+            response.setStatus("PENDING");
+            response.setSubmittedAt(submittedAt);
+            response.setScore(score);
+            return response;
+        }
+    }
+}
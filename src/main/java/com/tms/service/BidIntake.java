@@ -0,0 +1,296 @@
+package com.tms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tms.dto.BatchBidResponse;
+import com.tms.dto.BidRequest;
+import com.tms.dto.BidTicket;
+import com.tms.exception.ResourceNotFoundException;
+import com.tms.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Async bid intake (tms.bid.intake.mode=ASYNC). POST /bid is prechecked against the
+ * in-memory indexes (BidService.precheckBid), put on a bounded queue and answered with
+ * a ticket; when the queue is full the bid is refused with 503 instead of queued.
+ *
+ * Writer threads take whatever has piled up, up to the batch size, and write it with
+ * BidService.createQueuedBids: one transaction, batched inserts, one status update.
+ * Under a spike each commit carries many bids; when idle a bid is written alone
+ * without waiting. A batch failing on a transient error (lock conflict, deadlock,
+ * timeout) is retried up to tms.bid.intake.write-attempts times with jittered backoff.
+ * If it still fails, its bids are written one per transaction, so a row the database
+ * refuses only rejects its own ticket. Tickets are completed once their bid has
+ * committed or been rejected, and kept for the ticket TTL, at most
+ * tms.bid.intake.ticket-max-size of them. On shutdown the queue is drained before the
+ * writers stop.
+ */
+@Component
+public class BidIntake {
+
+    public enum Mode { SYNC, ASYNC }
+
+    private static final Logger log = LoggerFactory.getLogger(BidIntake.class);
+
+    private final BidService bidService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int writeAttempts;
+    private final long retryBackoffMillis;
+    private final BlockingQueue<QueuedBid> queue;
+    private final Cache<String, Ticket> tickets;
+    private final DistributionSummary batchSizes;
+    private final Counter retries;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public BidIntake(BidService bidService, MeterRegistry meterRegistry,
+                     @Value("${tms.bid.intake.mode:SYNC}") Mode mode,
+                     @Value("${tms.bid.intake.queue-capacity:10000}") int queueCapacity,
+                     @Value("${tms.bid.intake.batch-size:200}") int batchSize,
+                     @Value("${tms.bid.intake.writers:2}") int writerCount,
+                     @Value("${tms.bid.intake.ticket-ttl-minutes:10}") long ticketTtlMinutes,
+                     @Value("${tms.bid.intake.ticket-max-size:100000}") long ticketMaxSize,
+                     @Value("${tms.bid.intake.write-attempts:3}") int writeAttempts,
+                     @Value("${tms.bid.intake.retry-backoff-ms:20}") long retryBackoffMillis) {
+        if (queueCapacity < 1 || batchSize < 1 || writerCount < 1 || writeAttempts < 1) {
+            throw new IllegalArgumentException(
+                    "tms.bid.intake queue-capacity, batch-size, writers and write-attempts must be at least 1");
+        }
+        if (ticketMaxSize < queueCapacity) {
+            // a smaller cache could evict tickets of bids still waiting in the queue
+            throw new IllegalArgumentException("tms.bid.intake.ticket-max-size must be at least the queue capacity");
+        }
+        this.bidService = bidService;
+        this.enabled = mode == Mode.ASYNC;
+        this.batchSize = batchSize;
+        this.writeAttempts = writeAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(ticketMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(ticketTtlMinutes))
+                .build();
+        this.batchSizes = DistributionSummary.builder("tms.bid.intake.batch.size")
+                .description("Bids written per intake commit")
+                .baseUnit("bids")
+                .register(meterRegistry);
+        this.retries = Counter.builder("tms.bid.intake.retries")
+                .description("Intake writes retried after a transient database error")
+                .register(meterRegistry);
+        Gauge.builder("tms.bid.intake.queue", queue, BlockingQueue::size)
+                .description("Bids waiting in the intake queue")
+                .register(meterRegistry);
+
+        if (enabled) {
+            for (int i = 1; i <= writerCount; i++) {
+                Thread writer = new Thread(this::drain, "bid-intake-" + i);
+                writer.setDaemon(true);
+                writer.start();
+                writers.add(writer);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Prechecks and queues the bid. Precheck failures are thrown as by createBid.
+     */
+    public BidTicket submit(BidRequest request) {
+        bidService.precheckBid(request);
+
+        BidTicket queued = new BidTicket();
+        queued.setTicketId(UUID.randomUUID().toString());
+        queued.setStatus(BidTicket.QUEUED);
+        queued.setLoadId(request.getLoadId());
+        queued.setTransporterId(request.getTransporterId());
+        queued.setQueuedAt(LocalDateTime.now());
+
+        Ticket ticket = new Ticket(queued);
+        QueuedBid queuedBid = new QueuedBid(request, ticket);
+        tickets.put(queued.getTicketId(), ticket);
+        if (!running) {
+            tickets.invalidate(queued.getTicketId());
+            throw new ServiceBusyException("Bid intake is shutting down, please retry");
+        }
+        if (!queue.offer(queuedBid)) {
+            tickets.invalidate(queued.getTicketId());
+            throw new ServiceBusyException("Bid intake queue is full, please retry");
+        }
+        // shutdown may have stopped and drained for the last time since the check above;
+        // if the bid is still queued nobody will write it, otherwise a drain took it
+        if (!running && queue.remove(queuedBid)) {
+            tickets.invalidate(queued.getTicketId());
+            throw new ServiceBusyException("Bid intake is shutting down, please retry");
+        }
+        return queued;
+    }
+
+    /**
+     * The ticket's current state.
+     */
+    public BidTicket getTicket(String ticketId) {
+        Ticket ticket = find(ticketId);
+        return ticket.outcome.getNow(ticket.queued);
+    }
+
+    /**
+     * Completes with the outcome as soon as the bid is written, or with the still
+     * queued ticket after waitMillis.
+     */
+    public CompletableFuture<BidTicket> awaitTicket(String ticketId, long waitMillis) {
+        Ticket ticket = find(ticketId);
+        return ticket.outcome.copy().completeOnTimeout(ticket.queued, waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<QueuedBid> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private Ticket find(String ticketId) {
+        Ticket ticket = tickets.getIfPresent(ticketId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Bid ticket not found: " + ticketId);
+        }
+        return ticket;
+    }
+
+    private void drain() {
+        List<QueuedBid> batch = new ArrayList<>(batchSize);
+        while (running) {
+            QueuedBid first;
+            try {
+                first = queue.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<QueuedBid> batch) {
+        batchSizes.record(batch.size());
+
+        List<BidRequest> requests = batch.stream().map(QueuedBid::request).toList();
+        List<BatchBidResponse.ItemResult> results;
+        try {
+            results = writeWithRetries(requests);
+        } catch (RuntimeException e) {
+            log.warn("Bid intake batch of {} failed, writing its bids one by one: {}",
+                    batch.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            results = requests.stream().map(this::writeAlone).toList();
+        }
+
+        LocalDateTime completedAt = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            Ticket ticket = batch.get(i).ticket();
+            BidTicket outcome = new BidTicket();
+            outcome.setTicketId(ticket.queued.getTicketId());
+            outcome.setLoadId(ticket.queued.getLoadId());
+            outcome.setTransporterId(ticket.queued.getTransporterId());
+            outcome.setQueuedAt(ticket.queued.getQueuedAt());
+            outcome.setCompletedAt(completedAt);
+            if (results.get(i).getBid() != null) {
+                outcome.setStatus(BidTicket.CREATED);
+                outcome.setBid(results.get(i).getBid());
+            } else {
+                outcome.setStatus(BidTicket.REJECTED);
+                outcome.setError(results.get(i).getError());
+            }
+
+            // restart the TTL from completion so clients have the full window to read it
+            tickets.put(outcome.getTicketId(), ticket);
+            ticket.outcome.complete(outcome);
+        }
+    }
+
+    private BatchBidResponse.ItemResult writeAlone(BidRequest request) {
+        try {
+            return writeWithRetries(List.of(request)).get(0);
+        } catch (RuntimeException e) {
+            return new BatchBidResponse.ItemResult(request.getLoadId(), null,
+                    "Bid rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    private List<BatchBidResponse.ItemResult> writeWithRetries(List<BidRequest> requests) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return bidService.createQueuedBids(requests);
+            } catch (TransientDataAccessException e) {
+                if (attempt >= writeAttempts || !backOff(attempt)) {
+                    throw e;
+                }
+                retries.increment();
+            }
+        }
+    }
+
+    /**
+     * Sleeps a random time up to the retry backoff times 2^(attempt-1). Returns false if
+     * the thread was interrupted.
+     */
+    private boolean backOff(int attempt) {
+        long ceiling = retryBackoffMillis << Math.min(attempt - 1, 20);
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record QueuedBid(BidRequest request, Ticket ticket) {}
+
+    private static final class Ticket {
+        private final BidTicket queued;
+        private final CompletableFuture<BidTicket> outcome = new CompletableFuture<>();
+
+        Ticket(BidTicket queued) {
+            this.queued = queued;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.tms.service;
 
+import com.tms.dto.BatchBidRequest;
+import com.tms.dto.BatchBidResponse;
 import com.tms.dto.BidRequest;
 import com.tms.dto.BidResponse;
+import com.tms.dto.LaneLoadResponse;
+import com.tms.dto.TransporterSummary;
 import com.tms.entity.Bid;
 import com.tms.entity.Load;
-import com.tms.entity.Transporter;
 import com.tms.entity.TruckCapacity;
 import com.tms.exception.*;
 import com.tms.repository.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,15 +29,27 @@ public class BidService {
 
     private final BidRepository bidRepository;
     private final LoadRepository loadRepository;
-    private final TransporterRepository transporterRepository;
+    private final TransporterSummaryCache transporterSummaryCache;
     private final TruckCapacityRepository truckCapacityRepository;
+    private final BidBook bidBook;
+    private final EntityStreams entityStreams;
+    private final LaneRateStats laneRateStats;
+    private final LaneIndex laneIndex;
+    private final TransporterCapacityIndex capacityIndex;
 
     public BidService(BidRepository bidRepository, LoadRepository loadRepository,
-                     TransporterRepository transporterRepository, TruckCapacityRepository truckCapacityRepository) {
+                     TransporterSummaryCache transporterSummaryCache, TruckCapacityRepository truckCapacityRepository,
+                     BidBook bidBook, EntityStreams entityStreams, LaneRateStats laneRateStats,
+                     LaneIndex laneIndex, TransporterCapacityIndex capacityIndex) {
         this.bidRepository = bidRepository;
         this.loadRepository = loadRepository;
-        this.transporterRepository = transporterRepository;
+        this.transporterSummaryCache = transporterSummaryCache;
         this.truckCapacityRepository = truckCapacityRepository;
+        this.bidBook = bidBook;
+        this.entityStreams = entityStreams;
+        this.laneRateStats = laneRateStats;
+        this.laneIndex = laneIndex;
+        this.capacityIndex = capacityIndex;
     }
 
     @Transactional
@@ -35,72 +57,127 @@ public class BidService {
         Load load = loadRepository.findById(request.getLoadId())
                 .orElseThrow(() -> new ResourceNotFoundException("Load not found with ID: " + request.getLoadId()));
 
-        if ("CANCELLED".equals(load.getStatus()) || "BOOKED".equals(load.getStatus())) {
-            throw new InvalidStatusTransitionException("Cannot bid on a load with status: " + load.getStatus());
-        }
-
-        Transporter transporter = transporterRepository.findById(request.getTransporterId())
-                .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with ID: " + request.getTransporterId()));
+        checkOpenForBids(load, LocalDateTime.now());
 
-        TruckCapacity capacity = truckCapacityRepository
-                .findByTransporterTransporterIdAndTruckType(request.getTransporterId(), load.getTruckType())
-                .orElseThrow(() -> new InsufficientCapacityException(
-                        "Transporter does not have " + load.getTruckType() + " truck type"));
-
-        if (capacity.getCount() < request.getTrucksOffered()) {
-            throw new InsufficientCapacityException(
-                    String.format("Transporter only has %d trucks available, but bid offers %d",
-                            capacity.getCount(), request.getTrucksOffered()));
+        TransporterSummary transporter = transporterSummaryCache.get(request.getTransporterId());
+        if (transporter == null) {
+            throw new ResourceNotFoundException("Transporter not found with ID: " + request.getTransporterId());
         }
 
-        Bid bid = new Bid();
-        bid.setLoadId(request.getLoadId());
-        bid.setTransporterId(request.getTransporterId());
-        bid.setProposedRate(request.getProposedRate());
-        bid.setTrucksOffered(request.getTrucksOffered());
-        bid.setStatus("PENDING");
+        Integer available = truckCapacityRepository
+                .findByTransporterTransporterIdAndTruckType(request.getTransporterId(), load.getTruckType())
+                .map(TruckCapacity::getCount)
+                .orElse(null);
+        checkCapacity(available, load.getTruckType(), request.getTrucksOffered());
 
-        bid = bidRepository.save(bid);
+        Bid bid = bidRepository.save(newBid(request.getLoadId(), request.getTransporterId(),
+                request.getProposedRate(), request.getTrucksOffered()));
 
         if ("POSTED".equals(load.getStatus())) {
             load.setStatus("OPEN_FOR_BIDS");
             loadRepository.save(load);
         }
 
+        bidBook.bidCreated(bid, transporter);
+        laneRateStats.bidPlaced(load, bid.getProposedRate());
+
         return toBidResponse(bid, transporter);
     }
 
-    public List<BidResponse> getBids(Integer loadId, Integer transporterId, String status) {
-        List<Bid> bids;
-
-        if (loadId != null && status != null) {
-            bids = bidRepository.findByLoadIdAndStatus(loadId, status);
-        } else if (transporterId != null && status != null) {
-            bids = bidRepository.findByTransporterIdAndStatus(transporterId, status);
-        } else if (loadId != null) {
-            bids = bidRepository.findByLoadId(loadId);
-        } else if (transporterId != null) {
-            bids = bidRepository.findByTransporterId(transporterId);
-        } else if (status != null) {
-            bids = bidRepository.findByStatus(status);
-        } else {
-            bids = bidRepository.findAll();
+    /**
+     * Submits bids of one transporter on many loads. The transporter and its whole
+     * capacity map are resolved once; the items are then written like createQueuedBids
+     * writes a drained micro-batch, each rejected on its own without failing the others.
+     */
+    @Transactional
+    public BatchBidResponse createBids(BatchBidRequest request) {
+        Integer transporterId = request.getTransporterId();
+        TransporterSummary transporter = transporterSummaryCache.get(transporterId);
+        if (transporter == null) {
+            throw new ResourceNotFoundException("Transporter not found with ID: " + transporterId);
         }
 
-        return bids.stream()
-                .map(bid -> {
-                    Transporter t = transporterRepository.findById(bid.getTransporterId()).orElse(null);
-                    return toBidResponse(bid, t);
-                })
-                .collect(Collectors.toList());
+        Map<String, Integer> capacities = truckCapacityRepository.findByTransporterTransporterId(transporterId).stream()
+                .collect(Collectors.toMap(TruckCapacity::getTruckType, TruckCapacity::getCount));
+        List<BidRequest> requests = request.getItems().stream().map(item -> {
+            BidRequest bid = new BidRequest();
+            bid.setLoadId(item.getLoadId());
+            bid.setTransporterId(transporterId);
+            bid.setProposedRate(item.getProposedRate());
+            bid.setTrucksOffered(item.getTrucksOffered());
+            return bid;
+        }).toList();
+        List<BatchBidResponse.ItemResult> results = insertBids(requests,
+                Map.of(transporterId, transporter), Map.of(transporterId, capacities));
+
+        int created = (int) results.stream().filter(result -> result.getBid() != null).count();
+        BatchBidResponse response = new BatchBidResponse();
+        response.setTransporterId(transporterId);
+        response.setCreated(created);
+        response.setRejected(results.size() - created);
+        response.getResults().addAll(results);
+        return response;
+    }
+
+    /**
+     * Validates a bid against the in-memory lane and capacity indexes, without a
+     * transaction, and throws the same errors createBid would. The indexes trail commits,
+     * so a bid that passes is checked again against the database when it is written;
+     * the database is only read here to tell a missing load from a closed one.
+     */
+    public void precheckBid(BidRequest request) {
+        if (transporterSummaryCache.get(request.getTransporterId()) == null) {
+            throw new ResourceNotFoundException("Transporter not found with ID: " + request.getTransporterId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LaneLoadResponse load = laneIndex.find(request.getLoadId());
+        if (load == null || isPast(load.getBiddingDeadline(), now)) {
+            Load closed = loadRepository.findById(request.getLoadId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Load not found with ID: " + request.getLoadId()));
+            checkOpenForBids(closed, now);
+            // open in the database but not indexed yet (created moments ago), let the writer decide
+            return;
+        }
+
+        checkCapacity(capacityIndex.capacityOf(request.getTransporterId(), load.getTruckType()),
+                load.getTruckType(), request.getTrucksOffered());
+    }
+
+    /**
+     * Writes bids of any transporters on any loads in one transaction, as BidIntake's
+     * writers do for a drained micro-batch. Transporters and their capacities are
+     * resolved with one lookup each before the bids are written by insertBids.
+     */
+    @Transactional
+    public List<BatchBidResponse.ItemResult> createQueuedBids(List<BidRequest> requests) {
+        Set<Integer> transporterIds = requests.stream().map(BidRequest::getTransporterId).collect(Collectors.toSet());
+        Map<Integer, TransporterSummary> transporters = transporterSummaryCache.getAll(transporterIds);
+        Map<Integer, Map<String, Integer>> capacities = truckCapacityRepository.findByTransporterTransporterIdIn(transporterIds)
+                .stream()
+                .collect(Collectors.groupingBy(tc -> tc.getTransporter().getTransporterId(),
+                        Collectors.toMap(TruckCapacity::getTruckType, TruckCapacity::getCount)));
+        return insertBids(requests, transporters, capacities);
+    }
+
+    /**
+     * Hands every bid matching all given filters to the sink, in bid id order, without
+     * holding the result in memory: rows come off a database cursor in batches and
+     * transporters are resolved once per batch.
+     */
+    @Transactional(readOnly = true)
+    public void streamBids(Integer loadId, Integer transporterId, String status, Consumer<? super BidResponse> sink) {
+        entityStreams.forEachBatch(bidRepository.streamBids(loadId, transporterId, status), bids -> {
+            Map<Integer, TransporterSummary> transporters = findTransporterSummaries(bids);
+            bids.forEach(bid -> sink.accept(toBidResponse(bid, transporters.get(bid.getTransporterId()))));
+        });
     }
 
     public BidResponse getBidById(Integer bidId) {
         Bid bid = bidRepository.findById(bidId)
                 .orElseThrow(() -> new ResourceNotFoundException("Bid not found with ID: " + bidId));
 
-        Transporter transporter = transporterRepository.findById(bid.getTransporterId()).orElse(null);
-        return toBidResponse(bid, transporter);
+        return toBidResponse(bid, transporterSummaryCache.get(bid.getTransporterId()));
     }
 
     @Transactional
@@ -114,13 +191,119 @@ public class BidService {
 
         bid.setStatus("REJECTED");
         bid = bidRepository.save(bid);
+        bidBook.bidRemoved(bid.getLoadId(), bid.getBidId());
 
-        Transporter transporter = transporterRepository.findById(bid.getTransporterId()).orElse(null);
-        return toBidResponse(bid, transporter);
+        return toBidResponse(bid, transporterSummaryCache.get(bid.getTransporterId()));
     }
 
+    /**
+     * Loads are read with one IN query and every bid is validated on its own against
+     * them and the given transporters and capacities; accepted bids are batch-inserted
+     * and their POSTED loads opened for bidding with one set-based update. Results are
+     * in request order.
+     */
+    private List<BatchBidResponse.ItemResult> insertBids(List<BidRequest> requests,
+                                                         Map<Integer, TransporterSummary> transporters,
+                                                         Map<Integer, Map<String, Integer>> capacities) {
+        Map<Integer, Load> loads = loadRepository.findAllById(requests.stream()
+                        .map(BidRequest::getLoadId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Load::getLoadId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Bid> bids = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (BidRequest request : requests) {
+            try {
+                Load load = loads.get(request.getLoadId());
+                if (load == null) {
+                    throw new ResourceNotFoundException("Load not found with ID: " + request.getLoadId());
+                }
+                if (!transporters.containsKey(request.getTransporterId())) {
+                    throw new ResourceNotFoundException("Transporter not found with ID: " + request.getTransporterId());
+                }
+                checkOpenForBids(load, now);
+                checkCapacity(capacities.getOrDefault(request.getTransporterId(), Map.of()).get(load.getTruckType()),
+                        load.getTruckType(), request.getTrucksOffered());
+
+                bids.add(newBid(request.getLoadId(), request.getTransporterId(),
+                        request.getProposedRate(), request.getTrucksOffered()));
+                errors.add(null);
+            } catch (ResourceNotFoundException | InvalidStatusTransitionException | InsufficientCapacityException e) {
+                bids.add(null);
+                errors.add(e.getMessage());
+            }
+        }
+
+        List<Bid> created = bids.stream().filter(Objects::nonNull).toList();
+        if (!created.isEmpty()) {
+            bidRepository.saveAll(created);
+            loadRepository.openForBids(created.stream().map(Bid::getLoadId).collect(Collectors.toSet()));
+            created.forEach(bid -> {
+                bidBook.bidCreated(bid, transporters.get(bid.getTransporterId()));
+                laneRateStats.bidPlaced(loads.get(bid.getLoadId()), bid.getProposedRate());
+            });
+        }
+
+        List<BatchBidResponse.ItemResult> results = new ArrayList<>();
+        for (int i = 0; i < bids.size(); i++) {
+            Bid bid = bids.get(i);
+            results.add(new BatchBidResponse.ItemResult(requests.get(i).getLoadId(),
+                    bid != null ? toBidResponse(bid, transporters.get(bid.getTransporterId())) : null, errors.get(i)));
+        }
+        return results;
+    }
+
+    private static void checkOpenForBids(Load load, LocalDateTime now) {
+        if ("CANCELLED".equals(load.getStatus()) || "BOOKED".equals(load.getStatus())) {
+            throw new InvalidStatusTransitionException("Cannot bid on a load with status: " + load.getStatus());
+        }
+        if (load.getAuctionClosedAt() != null) {
+            throw new InvalidStatusTransitionException("Auction of load " + load.getLoadId()
+                    + " closed at " + load.getAuctionClosedAt());
+        }
+        if (isPast(load.getBiddingDeadline(), now)) {
+            throw new InvalidStatusTransitionException("Bidding on load " + load.getLoadId()
+                    + " closed at " + load.getBiddingDeadline());
+        }
+    }
+
+    private static boolean isPast(LocalDateTime biddingDeadline, LocalDateTime now) {
+        return biddingDeadline != null && !biddingDeadline.isAfter(now);
+    }
+
+    private static void checkCapacity(Integer available, String truckType, int trucksOffered) {
+        if (available == null) {
+            throw new InsufficientCapacityException("Transporter does not have " + truckType + " truck type");
+        }
+        if (available < trucksOffered) {
+            throw new InsufficientCapacityException(
+                    String.format("Transporter only has %d trucks available, but bid offers %d", available, trucksOffered));
+        }
+    }
+
+    private static Bid newBid(Integer loadId, Integer transporterId, Double proposedRate, Integer trucksOffered) {
+        Bid bid = new Bid();
+        bid.setLoadId(loadId);
+        bid.setTransporterId(transporterId);
+        bid.setProposedRate(proposedRate);
+        bid.setTrucksOffered(trucksOffered);
+        bid.setStatus("PENDING");
+        return bid;
+    }
+
+    /**
+     * Resolves the transporters of all given bids from the cache, loading
+     * the missing ones with a single IN query instead of one findById per bid.
+     */
+    private Map<Integer, TransporterSummary> findTransporterSummaries(List<Bid> bids) {
+        Set<Integer> transporterIds = bids.stream()
+                .map(Bid::getTransporterId)
+                .collect(Collectors.toSet());
+
+        return transporterSummaryCache.getAll(transporterIds);
+    }
 
-    private BidResponse toBidResponse(Bid bid, Transporter transporter) {
+    private BidResponse toBidResponse(Bid bid, TransporterSummary transporter) {
         BidResponse response = new BidResponse();
         response.setBidId(bid.getBidId());
         response.setLoadId(bid.getLoadId());
@@ -0,0 +1,24 @@
+package com.tms.service;
+
+/**
+ * How BookingService serializes concurrent bookings and cancellations of the same load.
+ * Selected with tms.booking.lock-strategy.
+ */
+public enum BookingLockStrategy {
+
+    /**
+     * No explicit lock, conflicting writers fail on @Version and the conditional truck update (409).
+     */
+    OPTIMISTIC,
+
+    /**
+     * Locks the load row with SELECT ... FOR UPDATE, so writers on the same load queue in the database.
+     */
+    PESSIMISTIC,
+
+    /**
+     * Queues writers on the same load behind an in-JVM lock stripe before the transaction starts.
+     * Only serializes within one instance, the optimistic checks still guard across instances.
+     */
+    STRIPED
+}
@@ -0,0 +1,53 @@
+package com.tms.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Applies the configured BookingLockStrategy around booking transactions.
+ */
+@Component
+public class BookingLocks {
+
+    private final BookingLockStrategy strategy;
+    private final ReentrantLock[] stripes;
+
+    public BookingLocks(@Value("${tms.booking.lock-strategy:OPTIMISTIC}") BookingLockStrategy strategy,
+                        @Value("${tms.booking.lock-stripes:256}") int stripeCount) {
+        this.strategy = strategy;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public BookingLockStrategy getStrategy() {
+        return strategy;
+    }
+
+    public boolean isPessimistic() {
+        return strategy == BookingLockStrategy.PESSIMISTIC;
+    }
+
+    /**
+     * Runs the action while holding the stripe of the load when the strategy is STRIPED,
+     * otherwise runs it directly. The load id is only resolved when a stripe is needed.
+     * Must be called outside the transaction, so the lock is released after commit.
+     */
+    public <T> T withLoadLock(Supplier<Integer> loadId, Supplier<T> action) {
+        if (strategy != BookingLockStrategy.STRIPED) {
+            return action.get();
+        }
+
+        ReentrantLock lock = stripes[Math.floorMod(loadId.get(), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries a booking transaction that lost a concurrency race (optimistic lock conflict,
+ * lock timeout or deadlock) with exponential backoff and full jitter.
+ *
+ * Every attempt must be a complete transaction that re-reads and re-validates its state,
+ * so a loser either succeeds on fresh data or fails with the proper business error.
+ * Counts tms.booking.retries per retried attempt and tms.booking.conflicts when the
+ * attempt budget runs out, both tagged by operation.
+ */
+@Component
+public class BookingRetry {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public BookingRetry(MeterRegistry meterRegistry,
+                        @Value("${tms.booking.retry.max-attempts:3}") int maxAttempts,
+                        @Value("${tms.booking.retry.initial-backoff-ms:5}") long initialBackoffMillis,
+                        @Value("${tms.booking.retry.max-backoff-ms:100}") long maxBackoffMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public <T> T execute(String operation, Supplier<T> attempt) {
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attemptNumber >= maxAttempts) {
+                    counter("tms.booking.conflicts", operation).increment();
+                    throw e;
+                }
+                counter("tms.booking.retries", operation).increment();
+                if (!backOff(attemptNumber)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sleeps a random time up to initial * 2^(attempt-1), capped at the maximum.
+     * Returns false if the thread was interrupted.
+     */
+    private boolean backOff(int attemptNumber) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attemptNumber - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
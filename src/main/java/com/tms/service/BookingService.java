@@ -1,14 +1,22 @@
 package com.tms.service;
 
+import com.tms.dto.BatchBookingRequest;
+import com.tms.dto.BatchBookingResponse;
 import com.tms.dto.BookingRequest;
 import com.tms.dto.BookingResponse;
+import com.tms.dto.TransporterSummary;
 import com.tms.entity.*;
 import com.tms.exception.*;
 import com.tms.repository.*;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,21 +25,103 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final BidRepository bidRepository;
     private final LoadRepository loadRepository;
-    private final TransporterRepository transporterRepository;
+    private final TransporterSummaryCache transporterSummaryCache;
     private final TruckCapacityRepository truckCapacityRepository;
+    private final BidBook bidBook;
+    private final BookingLocks bookingLocks;
+    private final BookingRetry bookingRetry;
+    private final EntityStreams entityStreams;
+    private final LaneIndex laneIndex;
+    private final TransporterCapacityIndex capacityIndex;
+    private final LaneRateStats laneRateStats;
+    private final TransactionTemplate transactionTemplate;
 
     public BookingService(BookingRepository bookingRepository, BidRepository bidRepository,
-                         LoadRepository loadRepository, TransporterRepository transporterRepository,
-                         TruckCapacityRepository truckCapacityRepository) {
+                         LoadRepository loadRepository, TransporterSummaryCache transporterSummaryCache,
+                         TruckCapacityRepository truckCapacityRepository, BidBook bidBook,
+                         BookingLocks bookingLocks, BookingRetry bookingRetry, EntityStreams entityStreams,
+                         LaneIndex laneIndex, TransporterCapacityIndex capacityIndex,
+                         LaneRateStats laneRateStats, PlatformTransactionManager transactionManager) {
         this.bookingRepository = bookingRepository;
         this.bidRepository = bidRepository;
         this.loadRepository = loadRepository;
-        this.transporterRepository = transporterRepository;
+        this.transporterSummaryCache = transporterSummaryCache;
         this.truckCapacityRepository = truckCapacityRepository;
+        this.bidBook = bidBook;
+        this.bookingLocks = bookingLocks;
+        this.bookingRetry = bookingRetry;
+        this.entityStreams = entityStreams;
+        this.laneIndex = laneIndex;
+        this.capacityIndex = capacityIndex;
+        this.laneRateStats = laneRateStats;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * Runs in its own transaction inside the configured load lock (see BookingLockStrategy),
+     * so this method itself must not be called from within a transaction. A transaction
+     * that loses a concurrency race is retried from scratch (see BookingRetry).
+     */
     public BookingResponse createBooking(BookingRequest request) {
+        return bookingLocks.withLoadLock(
+                () -> bidRepository.findLoadIdByBidId(request.getBidId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Bid not found with ID: " + request.getBidId())),
+                () -> bookingRetry.execute("create", () -> transactionTemplate.execute(status -> book(request))));
+    }
+
+    /**
+     * Books several bids of one load in a single transaction, validating every item against
+     * one snapshot of the load and the transporters' capacity. ALL_OR_NOTHING fails the whole
+     * batch on the first invalid item, BEST_EFFORT books the valid items and reports the rest.
+     */
+    public BatchBookingResponse createBookings(BatchBookingRequest request) {
+        return createBookings(request, () -> {});
+    }
+
+    /**
+     * createBookings that also runs alsoInTransaction in the booking transaction once the
+     * batch is written, so the caller's own writes commit or roll back with the bookings.
+     * It runs again whenever the transaction is retried.
+     */
+    public BatchBookingResponse createBookings(BatchBookingRequest request, Runnable alsoInTransaction) {
+        return bookingLocks.withLoadLock(
+                request::getLoadId,
+                () -> bookingRetry.execute("batch", () -> transactionTemplate.execute(status -> {
+                    BatchBookingResponse response = bookBatch(request);
+                    alsoInTransaction.run();
+                    return response;
+                })));
+    }
+
+    public BookingResponse getBookingById(Integer bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
+
+        return toBookingResponse(booking, transporterSummaryCache.get(booking.getTransporterId()));
+    }
+
+    /**
+     * Hands every booking to the sink, in booking id order, without holding the result
+     * in memory: rows come off a database cursor in batches and transporters are
+     * resolved once per batch.
+     */
+    @Transactional(readOnly = true)
+    public void streamBookings(Consumer<? super BookingResponse> sink) {
+        entityStreams.forEachBatch(bookingRepository.streamAll(), bookings -> {
+            Map<Integer, TransporterSummary> transporters = transporterSummaryCache.getAll(
+                    bookings.stream().map(Booking::getTransporterId).collect(Collectors.toSet()));
+            bookings.forEach(booking -> sink.accept(toBookingResponse(booking, transporters.get(booking.getTransporterId()))));
+        });
+    }
+
+    public BookingResponse cancelBooking(Integer bookingId) {
+        return bookingLocks.withLoadLock(
+                () -> bookingRepository.findLoadIdByBookingId(bookingId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingId)),
+                () -> bookingRetry.execute("cancel", () -> transactionTemplate.execute(status -> cancel(bookingId))));
+    }
+
+    private BookingResponse book(BookingRequest request) {
         Bid bid = bidRepository.findById(request.getBidId())
                 .orElseThrow(() -> new ResourceNotFoundException("Bid not found with ID: " + request.getBidId()));
 
@@ -39,7 +129,7 @@ public class BookingService {
             throw new InvalidStatusTransitionException("Can only accept bids with PENDING status");
         }
 
-        Load load = loadRepository.findById(bid.getLoadId())
+        Load load = findLoad(bid.getLoadId())
                 .orElseThrow(() -> new ResourceNotFoundException("Load not found"));
 
         if ("CANCELLED".equals(load.getStatus())) {
@@ -50,8 +140,7 @@ public class BookingService {
             throw new InsufficientCapacityException("Cannot allocate more trucks than offered in bid");
         }
 
-        Integer currentlyAllocated = bookingRepository.getTotalAllocatedTrucks(load.getLoadId());
-        int remaining = load.getNoOfTrucks() - (currentlyAllocated != null ? currentlyAllocated : 0);
+        int remaining = load.getNoOfTrucks() - load.getAllocatedTrucks();
 
         if (request.getAllocatedTrucks() > remaining) {
             throw new LoadAlreadyBookedException(
@@ -59,62 +148,189 @@ public class BookingService {
                             remaining, request.getAllocatedTrucks()));
         }
 
-        Transporter transporter = transporterRepository.findById(bid.getTransporterId())
-                .orElseThrow(() -> new ResourceNotFoundException("Transporter not found"));
-
-        TruckCapacity capacity = truckCapacityRepository
-                .findByTransporterTransporterIdAndTruckType(bid.getTransporterId(), load.getTruckType())
-                .orElseThrow(() -> new InsufficientCapacityException("Truck type not available"));
+        TransporterSummary transporter = transporterSummaryCache.get(bid.getTransporterId());
+        if (transporter == null) {
+            throw new ResourceNotFoundException("Transporter not found");
+        }
 
-        if (capacity.getCount() < request.getAllocatedTrucks()) {
+        // Capacity is checked and deducted in one conditional update, the row is only read
+        // again to explain a failure.
+        if (truckCapacityRepository.decrementCount(bid.getTransporterId(), load.getTruckType(), request.getAllocatedTrucks()) == 0) {
+            TruckCapacity capacity = truckCapacityRepository
+                    .findByTransporterTransporterIdAndTruckType(bid.getTransporterId(), load.getTruckType())
+                    .orElseThrow(() -> new InsufficientCapacityException("Truck type not available"));
             throw new InsufficientCapacityException(
                     String.format("Transporter only has %d trucks available", capacity.getCount()));
         }
+        capacityIndex.capacityChanged(bid.getTransporterId(), load.getTruckType(), -request.getAllocatedTrucks());
 
-        capacity.setCount(capacity.getCount() - request.getAllocatedTrucks());
-        truckCapacityRepository.save(capacity);
-
-        Booking booking = new Booking();
-        booking.setLoadId(load.getLoadId());
-        booking.setBidId(bid.getBidId());
-        booking.setTransporterId(bid.getTransporterId());
-        booking.setAllocatedTrucks(request.getAllocatedTrucks());
-        booking.setFinalRate(bid.getProposedRate());
-        booking.setStatus("CONFIRMED");
+        // The snapshot check above is only a fast path, the conditional update is what
+        // keeps concurrent partial bookings from over-allocating the load.
+        if (loadRepository.allocateTrucks(load.getLoadId(), request.getAllocatedTrucks()) == 0) {
+            throw new LoadAlreadyBookedException(
+                    String.format("Load no longer has %d trucks remaining", request.getAllocatedTrucks()));
+        }
 
-        booking = bookingRepository.save(booking);
+        Booking booking = bookingRepository.save(newBooking(bid, request.getAllocatedTrucks()));
+        laneRateStats.bookingConfirmed(load, booking.getFinalRate());
 
-        bid.setStatus("ACCEPTED");
-        bidRepository.save(bid);
+        // Bid has no version, the PENDING guard is what stops two bookings of the same bid
+        if (bidRepository.acceptPending(List.of(bid.getBidId())) == 0) {
+            throw new OptimisticLockingFailureException("Bid " + bid.getBidId() + " was accepted by another booking");
+        }
+        bidBook.bidRemoved(load.getLoadId(), bid.getBidId());
 
-        int newAllocated = (currentlyAllocated != null ? currentlyAllocated : 0) + request.getAllocatedTrucks();
-        if (newAllocated >= load.getNoOfTrucks()) {
+        load.setAllocatedTrucks(loadRepository.findAllocatedTrucks(load.getLoadId()));
+        if (load.getAllocatedTrucks() >= load.getNoOfTrucks()) {
             load.setStatus("BOOKED");
             loadRepository.save(load);
+            bidBook.evict(load.getLoadId());
+            laneIndex.loadClosed(load.getLoadId());
         }
 
         return toBookingResponse(booking, transporter);
     }
 
-    public BookingResponse getBookingById(Integer bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
+    private BatchBookingResponse bookBatch(BatchBookingRequest request) {
+        Load load = findLoad(request.getLoadId())
+                .orElseThrow(() -> new ResourceNotFoundException("Load not found with ID: " + request.getLoadId()));
 
-        Transporter transporter = transporterRepository.findById(booking.getTransporterId()).orElse(null);
-        return toBookingResponse(booking, transporter);
+        if ("CANCELLED".equals(load.getStatus())) {
+            throw new InvalidStatusTransitionException("Cannot book a cancelled load");
+        }
+
+        List<BookingRequest> items = request.getItems();
+        Map<Integer, Bid> bids = bidRepository.findAllById(items.stream().map(BookingRequest::getBidId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Bid::getBidId, Function.identity()));
+        Set<Integer> transporterIds = bids.values().stream().map(Bid::getTransporterId).collect(Collectors.toSet());
+        Map<Integer, Integer> capacityLeft = transporterIds.isEmpty() ? new HashMap<>() : truckCapacityRepository
+                .findByTransporterTransporterIdInAndTruckType(transporterIds, load.getTruckType()).stream()
+                .collect(Collectors.toMap(tc -> tc.getTransporter().getTransporterId(), TruckCapacity::getCount));
+
+        // Validate against the snapshot, reserving trucks as items are accepted
+        int remaining = load.getNoOfTrucks() - load.getAllocatedTrucks();
+        Set<Integer> seen = new HashSet<>();
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        String[] errors = new String[items.size()];
+
+        for (int i = 0; i < items.size(); i++) {
+            BookingRequest item = items.get(i);
+            try {
+                Bid bid = validateBatchItem(item, load, bids.get(item.getBidId()), seen, remaining, capacityLeft);
+                remaining -= item.getAllocatedTrucks();
+                capacityLeft.merge(bid.getTransporterId(), -item.getAllocatedTrucks(), Integer::sum);
+                accepted.put(i, newBooking(bid, item.getAllocatedTrucks()));
+            } catch (ResourceNotFoundException | InvalidStatusTransitionException
+                     | InsufficientCapacityException | LoadAlreadyBookedException e) {
+                if (!request.isBestEffort()) {
+                    throw e;
+                }
+                errors[i] = e.getMessage();
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            applyBatch(load, accepted.values());
+        }
+
+        Map<Integer, TransporterSummary> transporters = transporterSummaryCache.getAll(transporterIds);
+        BatchBookingResponse response = new BatchBookingResponse();
+        response.setLoadId(load.getLoadId());
+        response.setMode(request.getMode());
+        response.setLoadStatus(load.getStatus());
+        response.setRemainingTrucks(load.getNoOfTrucks() - load.getAllocatedTrucks());
+        response.setBooked(accepted.size());
+        response.setRejected(items.size() - accepted.size());
+        for (int i = 0; i < items.size(); i++) {
+            BookingRequest item = items.get(i);
+            Booking booking = accepted.get(i);
+            response.getResults().add(new BatchBookingResponse.ItemResult(item.getBidId(), item.getAllocatedTrucks(),
+                    booking != null ? toBookingResponse(booking, transporters.get(booking.getTransporterId())) : null,
+                    errors[i]));
+        }
+        return response;
     }
 
-    public List<BookingResponse> getAllBookings() {
-        return bookingRepository.findAll().stream()
-                .map(booking -> {
-                    Transporter t = transporterRepository.findById(booking.getTransporterId()).orElse(null);
-                    return toBookingResponse(booking, t);
-                })
-                .collect(Collectors.toList());
+    private Bid validateBatchItem(BookingRequest item, Load load, Bid bid, Set<Integer> seen,
+                                  int remaining, Map<Integer, Integer> capacityLeft) {
+        if (bid == null) {
+            throw new ResourceNotFoundException("Bid not found with ID: " + item.getBidId());
+        }
+        if (!seen.add(bid.getBidId())) {
+            throw new InvalidStatusTransitionException("Bid " + bid.getBidId() + " appears more than once in the batch");
+        }
+        if (!load.getLoadId().equals(bid.getLoadId())) {
+            throw new InvalidStatusTransitionException("Bid " + bid.getBidId() + " is not a bid on load " + load.getLoadId());
+        }
+        if (!"PENDING".equals(bid.getStatus())) {
+            throw new InvalidStatusTransitionException("Bid " + bid.getBidId() + ": can only accept bids with PENDING status");
+        }
+        if (item.getAllocatedTrucks() > bid.getTrucksOffered()) {
+            throw new InsufficientCapacityException("Bid " + bid.getBidId() + ": cannot allocate more trucks than offered in bid");
+        }
+        if (item.getAllocatedTrucks() > remaining) {
+            throw new LoadAlreadyBookedException(String.format("Bid %d: only %d trucks remaining, but trying to allocate %d",
+                    bid.getBidId(), remaining, item.getAllocatedTrucks()));
+        }
+        int available = capacityLeft.getOrDefault(bid.getTransporterId(), 0);
+        if (item.getAllocatedTrucks() > available) {
+            throw new InsufficientCapacityException(String.format("Bid %d: transporter only has %d trucks available",
+                    bid.getBidId(), available));
+        }
+        return bid;
     }
 
-    @Transactional
-    public BookingResponse cancelBooking(Integer bookingId) {
+    /**
+     * Writes the accepted items: one capacity decrement per transporter, one load allocation,
+     * one bid status update and batched booking inserts. If any guarded update misses, the
+     * snapshot went stale and the batch is retried from scratch by BookingRetry.
+     */
+    private void applyBatch(Load load, Collection<Booking> bookings) {
+        Map<Integer, Integer> trucksPerTransporter = bookings.stream()
+                .collect(Collectors.groupingBy(Booking::getTransporterId, Collectors.summingInt(Booking::getAllocatedTrucks)));
+        trucksPerTransporter.forEach((transporterId, trucks) -> {
+            if (truckCapacityRepository.decrementCount(transporterId, load.getTruckType(), trucks) == 0) {
+                throw new OptimisticLockingFailureException("Capacity of transporter " + transporterId + " changed during batch booking");
+            }
+            capacityIndex.capacityChanged(transporterId, load.getTruckType(), -trucks);
+        });
+
+        int total = trucksPerTransporter.values().stream().mapToInt(Integer::intValue).sum();
+        if (loadRepository.allocateTrucks(load.getLoadId(), total) == 0) {
+            throw new OptimisticLockingFailureException("Load " + load.getLoadId() + " changed during batch booking");
+        }
+
+        List<Integer> bidIds = bookings.stream().map(Booking::getBidId).collect(Collectors.toList());
+        if (bidRepository.acceptPending(bidIds) != bidIds.size()) {
+            throw new OptimisticLockingFailureException("Bids of load " + load.getLoadId() + " changed during batch booking");
+        }
+
+        bookingRepository.saveAll(bookings);
+        bookings.forEach(booking -> laneRateStats.bookingConfirmed(load, booking.getFinalRate()));
+        bidIds.forEach(bidId -> bidBook.bidRemoved(load.getLoadId(), bidId));
+
+        load.setAllocatedTrucks(loadRepository.findAllocatedTrucks(load.getLoadId()));
+        if (load.getAllocatedTrucks() >= load.getNoOfTrucks()) {
+            load.setStatus("BOOKED");
+            loadRepository.save(load);
+            bidBook.evict(load.getLoadId());
+            laneIndex.loadClosed(load.getLoadId());
+        }
+    }
+
+    private static Booking newBooking(Bid bid, int allocatedTrucks) {
+        Booking booking = new Booking();
+        booking.setLoadId(bid.getLoadId());
+        booking.setBidId(bid.getBidId());
+        booking.setTransporterId(bid.getTransporterId());
+        booking.setAllocatedTrucks(allocatedTrucks);
+        booking.setFinalRate(bid.getProposedRate());
+        booking.setStatus("CONFIRMED");
+        return booking;
+    }
+
+    private BookingResponse cancel(Integer bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
 
@@ -122,13 +338,17 @@ public class BookingService {
             throw new InvalidStatusTransitionException("Booking is already cancelled");
         }
 
-        Load load = loadRepository.findById(booking.getLoadId()).orElseThrow();
-        TruckCapacity capacity = truckCapacityRepository
-                .findByTransporterTransporterIdAndTruckType(booking.getTransporterId(), load.getTruckType())
-                .orElseThrow();
+        Load load = findLoad(booking.getLoadId()).orElseThrow();
 
-        capacity.setCount(capacity.getCount() + booking.getAllocatedTrucks());
-        truckCapacityRepository.save(capacity);
+        if (truckCapacityRepository.incrementCount(booking.getTransporterId(), load.getTruckType(), booking.getAllocatedTrucks()) == 0) {
+            throw new ResourceNotFoundException("Transporter no longer has " + load.getTruckType() + " trucks to restore");
+        }
+        capacityIndex.capacityChanged(booking.getTransporterId(), load.getTruckType(), booking.getAllocatedTrucks());
+
+        if (loadRepository.releaseTrucks(load.getLoadId(), booking.getAllocatedTrucks()) == 0) {
+            throw new IllegalStateException(String.format("Load %d has fewer than %d trucks allocated, cannot release booking %d",
+                    load.getLoadId(), booking.getAllocatedTrucks(), bookingId));
+        }
 
         booking.setStatus("CANCELLED");
         booking = bookingRepository.save(booking);
@@ -136,13 +356,17 @@ public class BookingService {
         if ("BOOKED".equals(load.getStatus())) {
             load.setStatus("OPEN_FOR_BIDS");
             loadRepository.save(load);
+            laneIndex.loadOpened(load);
         }
 
-        Transporter transporter = transporterRepository.findById(booking.getTransporterId()).orElse(null);
-        return toBookingResponse(booking, transporter);
+        return toBookingResponse(booking, transporterSummaryCache.get(booking.getTransporterId()));
+    }
+
+    private Optional<Load> findLoad(Integer loadId) {
+        return bookingLocks.isPessimistic() ? loadRepository.findByIdForUpdate(loadId) : loadRepository.findById(loadId);
     }
 
-    private BookingResponse toBookingResponse(Booking booking, Transporter transporter) {
+    private BookingResponse toBookingResponse(Booking booking, TransporterSummary transporter) {
         BookingResponse response = new BookingResponse();
         response.setBookingId(booking.getBookingId());
         response.setLoadId(booking.getLoadId());
@@ -0,0 +1,49 @@
+package com.tms.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Walks a repository Stream in fixed-size batches and detaches every entity once its
+ * batch was handled. Streamed rows would otherwise pile up in the persistence context
+ * (which lives for the whole request with open-in-view) and heap use would grow with
+ * the table again. Batches also let callers resolve related data per batch rather
+ * than per row. Must run inside a transaction, like any repository Stream.
+ */
+@Component
+public class EntityStreams {
+
+    static final int BATCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    public EntityStreams(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <T> void forEachBatch(Stream<T> rows, Consumer<List<T>> action) {
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        try (rows) {
+            rows.forEach(row -> {
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    handle(batch, action);
+                }
+            });
+        }
+        if (!batch.isEmpty()) {
+            handle(batch, action);
+        }
+    }
+
+    private <T> void handle(List<T> batch, Consumer<List<T>> action) {
+        action.accept(batch);
+        batch.forEach(entityManager::detach);
+        batch.clear();
+    }
+}
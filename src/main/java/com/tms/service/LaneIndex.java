@@ -0,0 +1,201 @@
+package com.tms.service;
+
+import com.tms.dto.LaneLoadResponse;
+import com.tms.entity.Load;
+import com.tms.repository.LoadRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+import static com.tms.service.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory inverted index of the loads open to transporters (POSTED and
+ * OPEN_FOR_BIDS): lane (loading city, unloading city) to truck type to the loads
+ * ordered by loading date.
+ *
+ * Built from the database once the context is up, before the web server takes
+ * traffic, and then kept current by the load and booking write paths. Like BidBook,
+ * every change is applied after its transaction commits. Only the load attributes
+ * that never change are held, so bids and partial bookings don't touch the index.
+ */
+@Component
+public class LaneIndex implements SmartInitializingSingleton {
+
+    private static final Comparator<IndexedLoad> BY_LOADING_DATE = Comparator
+            .comparing(IndexedLoad::loadingDate)
+            .thenComparing(IndexedLoad::loadId);
+
+    private final LoadRepository loadRepository;
+    private final EntityStreams entityStreams;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ConcurrentMap<Lane, ConcurrentMap<String, NavigableSet<IndexedLoad>>> lanes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, IndexedLoad> byLoadId = new ConcurrentHashMap<>();
+
+    public LaneIndex(LoadRepository loadRepository, EntityStreams entityStreams,
+                     PlatformTransactionManager transactionManager) {
+        this.loadRepository = loadRepository;
+        this.entityStreams = entityStreams;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with the open loads currently in the database.
+     */
+    public synchronized void rebuild() {
+        lanes.clear();
+        byLoadId.clear();
+        readOnlyTransaction.executeWithoutResult(status -> entityStreams.forEachBatch(
+                loadRepository.streamByStatusIn(List.of("POSTED", "OPEN_FOR_BIDS")),
+                loads -> loads.forEach(load -> add(IndexedLoad.of(load)))));
+    }
+
+    /**
+     * Open loads on the lane, by loading date (then load id), optionally narrowed to a
+     * truck type and a loading date window (both bounds inclusive).
+     */
+    public List<LaneLoadResponse> search(String loadingCity, String unloadingCity, String truckType,
+                                         LocalDateTime loadingFrom, LocalDateTime loadingTo, int limit) {
+        ConcurrentMap<String, NavigableSet<IndexedLoad>> byTruckType = lanes.get(Lane.of(loadingCity, unloadingCity));
+        if (byTruckType == null) {
+            return List.of();
+        }
+
+        Collection<NavigableSet<IndexedLoad>> candidates = truckType != null
+                ? byTruckType.containsKey(normalize(truckType)) ? List.of(byTruckType.get(normalize(truckType))) : List.of()
+                : byTruckType.values();
+
+        IndexedLoad from = IndexedLoad.bound(loadingFrom != null ? loadingFrom : LocalDateTime.MIN, Integer.MIN_VALUE);
+        IndexedLoad to = IndexedLoad.bound(loadingTo != null ? loadingTo : LocalDateTime.MAX, Integer.MAX_VALUE);
+
+        List<IndexedLoad> matches = new ArrayList<>();
+        for (NavigableSet<IndexedLoad> loads : candidates) {
+            loads.subSet(from, true, to, true).stream().limit(limit).forEach(matches::add);
+        }
+        if (candidates.size() > 1) {
+            matches.sort(BY_LOADING_DATE);
+        }
+
+        return matches.stream().limit(limit).map(IndexedLoad::toResponse).collect(Collectors.toList());
+    }
+
+    /**
+     * The load if it is open to bids, null otherwise (unknown, booked or cancelled).
+     */
+    public LaneLoadResponse find(Integer loadId) {
+        IndexedLoad load = byLoadId.get(loadId);
+        return load != null ? load.toResponse() : null;
+    }
+
+    public int size() {
+        return byLoadId.size();
+    }
+
+    public void loadOpened(Load load) {
+        IndexedLoad indexed = IndexedLoad.of(load);
+        afterCommit(() -> add(indexed));
+    }
+
+    public void loadClosed(Integer loadId) {
+        afterCommit(() -> remove(loadId));
+    }
+
+    private synchronized void add(IndexedLoad load) {
+        IndexedLoad previous = byLoadId.put(load.loadId(), load);
+        if (previous != null) {
+            unlink(previous);
+        }
+        lanes.computeIfAbsent(load.lane(), lane -> new ConcurrentHashMap<>())
+                .computeIfAbsent(load.truckTypeKey(), type -> new ConcurrentSkipListSet<>(BY_LOADING_DATE))
+                .add(load);
+    }
+
+    private synchronized void remove(Integer loadId) {
+        IndexedLoad previous = byLoadId.remove(loadId);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    private void unlink(IndexedLoad load) {
+        ConcurrentMap<String, NavigableSet<IndexedLoad>> byTruckType = lanes.get(load.lane());
+        if (byTruckType == null) {
+            return;
+        }
+        NavigableSet<IndexedLoad> loads = byTruckType.get(load.truckTypeKey());
+        if (loads != null) {
+            loads.remove(load);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Lane(String loadingCity, String unloadingCity) {
+        static Lane of(String loadingCity, String unloadingCity) {
+            return new Lane(normalize(loadingCity), normalize(unloadingCity));
+        }
+    }
+
+    private record IndexedLoad(Integer loadId, String shipperId, String loadingCity, String unloadingCity,
+                               LocalDateTime loadingDate, String productType, Double weight, String weightUnit,
+                               String truckType, Integer noOfTrucks, LocalDateTime datePosted,
+                               LocalDateTime biddingDeadline) {
+
+        static IndexedLoad of(Load load) {
+            return new IndexedLoad(load.getLoadId(), load.getShipperId(), load.getLoadingCity(), load.getUnloadingCity(),
+                    load.getLoadingDate(), load.getProductType(), load.getWeight(), load.getWeightUnit(),
+                    load.getTruckType(), load.getNoOfTrucks(), load.getDatePosted(), load.getBiddingDeadline());
+        }
+
+        static IndexedLoad bound(LocalDateTime loadingDate, int loadId) {
+            return new IndexedLoad(loadId, null, null, null, loadingDate, null, null, null, null, null, null, null);
+        }
+
+        Lane lane() {
+            return Lane.of(loadingCity, unloadingCity);
+        }
+
+        String truckTypeKey() {
+            return normalize(truckType);
+        }
+
+        LaneLoadResponse toResponse() {
+            LaneLoadResponse response = new LaneLoadResponse();
+            response.setLoadId(loadId);
+            response.setShipperId(shipperId);
+            response.setLoadingCity(loadingCity);
+            response.setUnloadingCity(unloadingCity);
+            response.setLoadingDate(loadingDate);
+            response.setProductType(productType);
+            response.setWeight(weight);
+            response.setWeightUnit(weightUnit);
+            response.setTruckType(truckType);
+            response.setNoOfTrucks(noOfTrucks);
+            response.setDatePosted(datePosted);
+            response.setBiddingDeadline(biddingDeadline);
+            return response;
+        }
+    }
+}
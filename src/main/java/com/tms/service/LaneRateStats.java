@@ -0,0 +1,189 @@
+package com.tms.service;
+
+import com.tms.dto.LaneRateResponse;
+import com.tms.entity.Load;
+import com.tms.repository.BidRepository;
+import com.tms.repository.BookingRepository;
+import com.tms.repository.IdRange;
+import com.tms.repository.LaneRateRow;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import static com.tms.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Going rates per lane (loading city, unloading city, truck type): a RateSketch of the
+ * proposed bid rates and one of the booked rates, so p10/p50/p90 come from memory
+ * instead of an aggregation over the bid and booking history.
+ *
+ * New bids and bookings are added after their transaction commits. At startup the
+ * sketches are rebuilt from history, with the bid and booking id ranges split into
+ * partitions that are read in parallel and merged. Rates are history, so rejected
+ * bids and cancelled bookings stay counted.
+ */
+@Component
+public class LaneRateStats implements SmartInitializingSingleton {
+
+    private final BidRepository bidRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int rebuildThreads;
+
+    private volatile ConcurrentMap<Lane, LaneRates> lanes = new ConcurrentHashMap<>();
+
+    public LaneRateStats(BidRepository bidRepository, BookingRepository bookingRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${tms.lane-rates.rebuild-threads:4}") int rebuildThreads) {
+        if (rebuildThreads < 1) {
+            throw new IllegalArgumentException("tms.lane-rates.rebuild-threads must be at least 1");
+        }
+        this.bidRepository = bidRepository;
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildThreads = rebuildThreads;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the sketches with ones built from the bid and booking history. Rates
+     * recorded while this runs may be missed.
+     */
+    public synchronized void rebuild() {
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            List<CompletableFuture<Map<Lane, LaneRates>>> partials = new ArrayList<>();
+            partials.addAll(readPartitions(executor, bidRepository.findIdRange(), bidRepository::streamLaneRates, LaneRates::addBid));
+            partials.addAll(readPartitions(executor, bookingRepository.findIdRange(), bookingRepository::streamLaneRates, LaneRates::addBooking));
+
+            ConcurrentMap<Lane, LaneRates> rebuilt = new ConcurrentHashMap<>();
+            for (CompletableFuture<Map<Lane, LaneRates>> partial : partials) {
+                partial.join().forEach((lane, rates) -> rebuilt.computeIfAbsent(lane, key -> new LaneRates()).merge(rates));
+            }
+            lanes = rebuilt;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public LaneRateResponse get(String loadingCity, String unloadingCity, String truckType) {
+        LaneRates rates = lanes.get(Lane.of(loadingCity, unloadingCity, truckType));
+
+        LaneRateResponse response = rates != null ? rates.toResponse() : new LaneRates().toResponse();
+        response.setLoadingCity(loadingCity);
+        response.setUnloadingCity(unloadingCity);
+        response.setTruckType(truckType);
+        return response;
+    }
+
+    public void bidPlaced(Load load, Double proposedRate) {
+        Lane lane = Lane.of(load);
+        afterCommit(() -> lanes.computeIfAbsent(lane, key -> new LaneRates()).addBid(proposedRate));
+    }
+
+    public void bookingConfirmed(Load load, Double finalRate) {
+        Lane lane = Lane.of(load);
+        afterCommit(() -> lanes.computeIfAbsent(lane, key -> new LaneRates()).addBooking(finalRate));
+    }
+
+    private List<CompletableFuture<Map<Lane, LaneRates>>> readPartitions(
+            ExecutorService executor, IdRange range,
+            BiFunction<Integer, Integer, Stream<LaneRateRow>> query, RateRecorder recorder) {
+        if (range == null || range.getMin() == null) {
+            return List.of();
+        }
+
+        long span = (long) range.getMax() - range.getMin() + 1;
+        long step = (span + rebuildThreads - 1) / rebuildThreads;
+
+        List<CompletableFuture<Map<Lane, LaneRates>>> partials = new ArrayList<>();
+        for (long from = range.getMin(); from <= range.getMax(); from += step) {
+            int fromId = (int) from;
+            int toId = (int) Math.min(range.getMax(), from + step - 1);
+            partials.add(CompletableFuture.supplyAsync(() -> readPartition(query, fromId, toId, recorder), executor));
+        }
+        return partials;
+    }
+
+    private Map<Lane, LaneRates> readPartition(BiFunction<Integer, Integer, Stream<LaneRateRow>> query,
+                                               int fromId, int toId, RateRecorder recorder) {
+        Map<Lane, LaneRates> partial = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<LaneRateRow> rows = query.apply(fromId, toId)) {
+                rows.forEach(row -> recorder.record(partial.computeIfAbsent(
+                        Lane.of(row.getLoadingCity(), row.getUnloadingCity(), row.getTruckType()),
+                        key -> new LaneRates()), row.getRate()));
+            }
+        });
+        return partial;
+    }
+
+    @FunctionalInterface
+    private interface RateRecorder {
+        void record(LaneRates rates, Double rate);
+    }
+
+    private record Lane(String loadingCity, String unloadingCity, String truckType) {
+        static Lane of(Load load) {
+            return of(load.getLoadingCity(), load.getUnloadingCity(), load.getTruckType());
+        }
+
+        static Lane of(String loadingCity, String unloadingCity, String truckType) {
+            return new Lane(normalize(loadingCity), normalize(unloadingCity), normalize(truckType));
+        }
+
+        private static String normalize(String value) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class LaneRates {
+        private final RateSketch bids = new RateSketch();
+        private final RateSketch bookings = new RateSketch();
+
+        synchronized void addBid(Double rate) {
+            bids.add(rate);
+        }
+
+        synchronized void addBooking(Double rate) {
+            bookings.add(rate);
+        }
+
+        synchronized void merge(LaneRates other) {
+            bids.merge(other.bids);
+            bookings.merge(other.bookings);
+        }
+
+        synchronized LaneRateResponse toResponse() {
+            LaneRateResponse response = new LaneRateResponse();
+            response.setBids(summarize(bids));
+            response.setBookings(summarize(bookings));
+            return response;
+        }
+
+        private static LaneRateResponse.RateSummary summarize(RateSketch sketch) {
+            return new LaneRateResponse.RateSummary(sketch.count(),
+                    sketch.quantile(0.10), sketch.quantile(0.50), sketch.quantile(0.90));
+        }
+    }
+}
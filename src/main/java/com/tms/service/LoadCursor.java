@@ -0,0 +1,56 @@
+package com.tms.service;
+
+import com.tms.entity.Load;
+import com.tms.exception.InvalidCursorException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Continuation token of the load scroll: the (date_posted, load_id) key of the last
+ * load of a page, Base64url encoded so clients treat it as opaque.
+ */
+final class LoadCursor {
+
+    /**
+     * Newest first. load_id breaks ties between loads posted at the same instant.
+     */
+    static final Sort ORDER = Sort.by(Sort.Direction.DESC, "datePosted", "loadId");
+
+    private static final String SEPARATOR = "|";
+
+    private LoadCursor() {}
+
+    static String encode(Load load) {
+        String key = load.getDatePosted() + SEPARATOR + load.getLoadId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("datePosted", LocalDateTime.parse(key.substring(0, separator)));
+            keys.put("loadId", Integer.valueOf(key.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.tms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.BulkLoadResult;
+import com.tms.dto.LoadRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams a bulk load upload (NDJSON or CSV) into the database.
+ *
+ * The body is read one line at a time and every row is checked against the LoadRequest
+ * constraints. Valid rows are inserted in chunks, one transaction per chunk, and each
+ * row's result goes to the sink as soon as its chunk is done, so memory is bounded by
+ * the chunk size rather than the upload size. A chunk the database refuses is rolled
+ * back and its rows are written again one at a time, each in its own transaction, so
+ * only the rows the database really refuses are rejected, each with its own cause.
+ */
+@Service
+public class LoadImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final Logger log = LoggerFactory.getLogger(LoadImportService.class);
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private static final Map<String, String> CSV_COLUMNS = Stream.of(
+                    "shipperId", "loadingCity", "unloadingCity", "loadingDate", "productType",
+                    "weight", "weightUnit", "truckType", "noOfTrucks", "biddingDeadline")
+            .collect(Collectors.toMap(LoadImportService::normalize, Function.identity()));
+
+    private final LoadService loadService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public LoadImportService(LoadService loadService, ObjectMapper objectMapper, Validator validator,
+                             @Value("${tms.load.bulk.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("tms.load.bulk.chunk-size must be at least 1");
+        }
+        this.loadService = loadService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * CSV uploads need a header row; columns are matched to LoadRequest fields ignoring
+     * case, underscores and spaces (shipper_id, Shipper ID and shipperId all work) and
+     * unknown columns are ignored. Quoted values may contain commas but not line breaks.
+     */
+    public void importLoads(Reader body, Format format, Consumer<? super BulkLoadResult> sink) throws IOException {
+        BufferedReader reader = body instanceof BufferedReader buffered ? buffered : new BufferedReader(body);
+        long lineNumber = 0;
+
+        Function<String, LoadRequest> parser;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return;
+            }
+            parser = csvParser(stripByteOrderMark(header));
+        } else {
+            parser = this::parseJson;
+        }
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1) {
+                line = stripByteOrderMark(line);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            chunk.add(toRow(lineNumber, line, parser));
+            if (chunk.size() == chunkSize) {
+                flush(chunk, sink);
+            }
+        }
+        flush(chunk, sink);
+    }
+
+    private Row toRow(long lineNumber, String line, Function<String, LoadRequest> parser) {
+        LoadRequest request;
+        try {
+            request = parser.apply(line);
+        } catch (IllegalArgumentException e) {
+            return new Row(lineNumber, null, List.of(e.getMessage()));
+        }
+
+        List<String> errors = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+        return new Row(lineNumber, request, errors);
+    }
+
+    private void flush(List<Row> chunk, Consumer<? super BulkLoadResult> sink) {
+        List<LoadRequest> valid = chunk.stream().filter(Row::isValid).map(Row::request).toList();
+
+        Iterator<Integer> nextId = null;
+        if (!valid.isEmpty()) {
+            try {
+                nextId = loadService.createLoads(valid).iterator();
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Load import chunk of {} rows failed, writing its rows one by one: {}",
+                        valid.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+
+        for (Row row : chunk) {
+            if (!row.isValid()) {
+                sink.accept(BulkLoadResult.rejected(row.number(), row.errors()));
+            } else if (nextId != null) {
+                sink.accept(BulkLoadResult.created(row.number(), nextId.next()));
+            } else {
+                sink.accept(writeAlone(row));
+            }
+        }
+        chunk.clear();
+    }
+
+    private BulkLoadResult writeAlone(Row row) {
+        try {
+            return BulkLoadResult.created(row.number(), loadService.createLoads(List.of(row.request())).get(0));
+        } catch (DataAccessException | TransactionException e) {
+            return BulkLoadResult.rejected(row.number(),
+                    List.of("Row rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+        }
+    }
+
+    private LoadRequest parseJson(String line) {
+        LoadRequest request;
+        try {
+            request = objectMapper.readValue(line, LoadRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(describe(e));
+        }
+        if (request == null) {
+            throw new IllegalArgumentException("Malformed row: expected a JSON object");
+        }
+        return request;
+    }
+
+    private Function<String, LoadRequest> csvParser(String header) {
+        List<String> columns = splitCsv(header).stream().map(column -> CSV_COLUMNS.get(normalize(column))).toList();
+
+        return line -> {
+            List<String> values = splitCsv(line);
+            if (values.size() != columns.size()) {
+                throw new IllegalArgumentException(
+                        String.format("Expected %d columns but found %d", columns.size(), values.size()));
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i) != null && !values.get(i).isEmpty()) {
+                    fields.put(columns.get(i), values.get(i));
+                }
+            }
+
+            try {
+                return objectMapper.convertValue(fields, LoadRequest.class);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(e.getCause() instanceof JsonProcessingException cause
+                        ? describe(cause) : e.getMessage());
+            }
+        };
+    }
+
+    private static String describe(JsonProcessingException e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            return "Invalid value for " + field;
+        }
+        return "Malformed row: " + e.getOriginalMessage();
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+
+    private static String normalize(String column) {
+        return column.replaceAll("[^A-Za-z0-9]", "").toLowerCase();
+    }
+
+    private static String stripByteOrderMark(String line) {
+        return line.startsWith(BYTE_ORDER_MARK) ? line.substring(1) : line;
+    }
+
+    private record Row(long number, LoadRequest request, List<String> errors) {
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
+}
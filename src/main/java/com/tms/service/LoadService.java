@@ -4,12 +4,20 @@ import com.tms.dto.*;
 import com.tms.entity.*;
 import com.tms.exception.*;
 import com.tms.repository.*;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,35 +25,42 @@ public class LoadService {
 
     private final LoadRepository loadRepository;
     private final BidRepository bidRepository;
-    private final BookingRepository bookingRepository;
-    private final TransporterRepository transporterRepository;
+    private final TransporterSummaryCache transporterSummaryCache;
+    private final BidBook bidBook;
+    private final LaneIndex laneIndex;
+    private final TransporterCapacityIndex capacityIndex;
+    private final LaneRateStats laneRateStats;
 
     public LoadService(LoadRepository loadRepository, BidRepository bidRepository,
-                      BookingRepository bookingRepository, TransporterRepository transporterRepository) {
+                      TransporterSummaryCache transporterSummaryCache, BidBook bidBook, LaneIndex laneIndex,
+                      TransporterCapacityIndex capacityIndex, LaneRateStats laneRateStats) {
         this.loadRepository = loadRepository;
         this.bidRepository = bidRepository;
-        this.bookingRepository = bookingRepository;
-        this.transporterRepository = transporterRepository;
+        this.transporterSummaryCache = transporterSummaryCache;
+        this.bidBook = bidBook;
+        this.laneIndex = laneIndex;
+        this.capacityIndex = capacityIndex;
+        this.laneRateStats = laneRateStats;
     }
 
     @Transactional
     public LoadResponse createLoad(LoadRequest request) {
-        Load load = new Load();
-        load.setShipperId(request.getShipperId());
-        load.setLoadingCity(request.getLoadingCity());
-        load.setUnloadingCity(request.getUnloadingCity());
-        load.setLoadingDate(request.getLoadingDate());
-        load.setProductType(request.getProductType());
-        load.setWeight(request.getWeight());
-        load.setWeightUnit(request.getWeightUnit());
-        load.setTruckType(request.getTruckType());
-        load.setNoOfTrucks(request.getNoOfTrucks());
-        load.setStatus("POSTED");
-
-        load = loadRepository.save(load);
+        Load load = loadRepository.save(newLoad(request));
+        laneIndex.loadOpened(load);
         return toLoadResponse(load);
     }
 
+    /**
+     * Inserts the loads in one transaction. Ids come from a pooled sequence, so
+     * Hibernate sends the inserts as JDBC batches. Returns the ids in request order.
+     */
+    @Transactional
+    public List<Integer> createLoads(List<LoadRequest> requests) {
+        List<Load> loads = loadRepository.saveAll(requests.stream().map(LoadService::newLoad).toList());
+        loads.forEach(laneIndex::loadOpened);
+        return loads.stream().map(Load::getLoadId).collect(Collectors.toList());
+    }
+
     public Page<LoadResponse> getLoads(String shipperId, String status, Pageable pageable) {
         Page<Load> loads;
 
@@ -62,6 +77,73 @@ public class LoadService {
         return loads.map(this::toLoadResponse);
     }
 
+    /**
+     * Same listing as getLoads without the COUNT query: one extra row is fetched to tell
+     * whether another page follows. Meant for infinite scroll, which never shows totals.
+     * Slices are ordered by load id (after any requested sort) so OFFSET paging is stable:
+     * without a total order rows can repeat or be skipped between slices, and ascending
+     * ids put loads posted while scrolling at the end instead of shifting earlier slices.
+     */
+    public LoadSlice getLoadSlice(String shipperId, String status, Pageable requested) {
+        Pageable pageable = PageRequest.of(requested.getPageNumber(), requested.getPageSize(),
+                requested.getSort().and(Sort.by("loadId")));
+        Slice<Load> loads;
+
+        if (shipperId != null && status != null) {
+            loads = loadRepository.findSliceByShipperIdAndStatus(shipperId, status, pageable);
+        } else if (shipperId != null) {
+            loads = loadRepository.findSliceByShipperId(shipperId, pageable);
+        } else if (status != null) {
+            loads = loadRepository.findSliceByStatus(status, pageable);
+        } else {
+            loads = loadRepository.findSliceBy(pageable);
+        }
+
+        List<LoadResponse> content = loads.stream().map(this::toLoadResponse).collect(Collectors.toList());
+        return new LoadSlice(content, loads.getNumber(), loads.getSize(), loads.hasNext());
+    }
+
+    /**
+     * Keyset pagination over (date_posted, load_id), newest first. Each page seeks past
+     * the cursor through the index instead of skipping rows with OFFSET, and there is no
+     * COUNT query, so every page costs the same however deep the client scrolls. Loads
+     * posted while scrolling sort ahead of the cursor, so they never shift later pages.
+     */
+    public LoadCursorPage scrollLoads(String shipperId, String status, String cursor, int size) {
+        KeysetScrollPosition position = LoadCursor.decode(cursor);
+        Limit limit = Limit.of(size);
+        Window<Load> loads;
+
+        if (shipperId != null && status != null) {
+            loads = loadRepository.findByShipperIdAndStatus(shipperId, status, position, limit, LoadCursor.ORDER);
+        } else if (shipperId != null) {
+            loads = loadRepository.findByShipperId(shipperId, position, limit, LoadCursor.ORDER);
+        } else if (status != null) {
+            loads = loadRepository.findByStatus(status, position, limit, LoadCursor.ORDER);
+        } else {
+            loads = loadRepository.findAllBy(position, limit, LoadCursor.ORDER);
+        }
+
+        List<LoadResponse> content = loads.stream().map(this::toLoadResponse).collect(Collectors.toList());
+        String nextCursor = loads.hasNext() ? LoadCursor.encode(loads.getContent().get(loads.size() - 1)) : null;
+        return new LoadCursorPage(content, size, loads.hasNext(), nextCursor);
+    }
+
+    /**
+     * Open loads on a lane, answered from LaneIndex without touching the database.
+     */
+    public List<LaneLoadResponse> searchLane(String loadingCity, String unloadingCity, String truckType,
+                                             LocalDateTime loadingFrom, LocalDateTime loadingTo, int limit) {
+        return laneIndex.search(loadingCity, unloadingCity, truckType, loadingFrom, loadingTo, limit);
+    }
+
+    /**
+     * Bid and booking rate percentiles for the lane, from LaneRateStats without touching the database.
+     */
+    public LaneRateResponse getLaneRates(String loadingCity, String unloadingCity, String truckType) {
+        return laneRateStats.get(loadingCity, unloadingCity, truckType);
+    }
+
     public LoadResponse getLoadById(Integer loadId) {
         Load load = loadRepository.findById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load not found with ID: " + loadId));
@@ -69,7 +151,11 @@ public class LoadService {
         LoadResponse response = toLoadResponse(load);
 
         List<Bid> bids = bidRepository.findByLoadIdAndStatus(loadId, "PENDING");
-        response.setBids(bids.stream().map(this::toBidResponse).collect(Collectors.toList()));
+        Map<Integer, TransporterSummary> transporters = transporterSummaryCache.getAll(
+                bids.stream().map(Bid::getTransporterId).collect(Collectors.toSet()));
+        response.setBids(bids.stream()
+                .map(bid -> toBidResponse(bid, transporters.get(bid.getTransporterId())))
+                .collect(Collectors.toList()));
 
         return response;
     }
@@ -85,32 +171,63 @@ public class LoadService {
 
         load.setStatus("CANCELLED");
         load = loadRepository.save(load);
+        bidBook.evict(loadId);
+        laneIndex.loadClosed(loadId);
 
         return toLoadResponse(load);
     }
 
-    public List<BidResponse> getBestBids(Integer loadId) {
+    /**
+     * Transporters that currently have enough trucks of the load's type, best rated first.
+     * minTrucks defaults to the trucks the load still needs. The capacity range comes from
+     * TransporterCapacityIndex, so the cost depends on the matches rather than on the
+     * number of transporters.
+     */
+    public List<EligibleTransporterResponse> getEligibleTransporters(Integer loadId, Integer minTrucks,
+                                                                     Integer maxTrucks, int limit) {
         Load load = loadRepository.findById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load not found with ID: " + loadId));
 
-        List<Bid> bids = bidRepository.findByLoadIdAndStatus(loadId, "PENDING");
+        int min = minTrucks != null ? minTrucks : Math.max(1, load.getNoOfTrucks() - load.getAllocatedTrucks());
+        List<TransporterCapacityIndex.Entry> eligible = capacityIndex.findEligible(load.getTruckType(), min, maxTrucks, limit);
 
-        return bids.stream()
-                .map(bid -> {
-                    BidResponse response = toBidResponse(bid);
-                    Transporter transporter = transporterRepository.findById(bid.getTransporterId()).orElse(null);
-                    if (transporter != null) {
-                        double rateScore = (1.0 / bid.getProposedRate()) * 0.7;
-                        double ratingScore = (transporter.getRating() / 5.0) * 0.3;
-                        response.setScore(rateScore + ratingScore);
-                        response.setTransporterCompanyName(transporter.getCompanyName());
-                    }
-                    return response;
-                })
-                .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
+        Map<Integer, TransporterSummary> transporters = transporterSummaryCache.getAll(
+                eligible.stream().map(TransporterCapacityIndex.Entry::transporterId).collect(Collectors.toSet()));
+        return eligible.stream()
+                .map(entry -> new EligibleTransporterResponse(entry.transporterId(),
+                        transporters.containsKey(entry.transporterId()) ? transporters.get(entry.transporterId()).getCompanyName() : null,
+                        entry.rating(), entry.truckType(), entry.count()))
                 .collect(Collectors.toList());
     }
 
+    public List<BidResponse> getBestBids(Integer loadId) {
+        return getBestBids(loadId, 0, null);
+    }
+
+    public List<BidResponse> getBestBids(Integer loadId, int offset, Integer limit) {
+        if (!bidBook.contains(loadId) && !loadRepository.existsById(loadId)) {
+            throw new ResourceNotFoundException("Load not found with ID: " + loadId);
+        }
+
+        return bidBook.getBestBids(loadId, offset, limit != null ? limit : Integer.MAX_VALUE);
+    }
+
+    private static Load newLoad(LoadRequest request) {
+        Load load = new Load();
+        load.setShipperId(request.getShipperId());
+        load.setLoadingCity(request.getLoadingCity());
+        load.setUnloadingCity(request.getUnloadingCity());
+        load.setLoadingDate(request.getLoadingDate());
+        load.setProductType(request.getProductType());
+        load.setWeight(request.getWeight());
+        load.setWeightUnit(request.getWeightUnit());
+        load.setTruckType(request.getTruckType());
+        load.setNoOfTrucks(request.getNoOfTrucks());
+        load.setBiddingDeadline(request.getBiddingDeadline());
+        load.setStatus("POSTED");
+        return load;
+    }
+
     private LoadResponse toLoadResponse(Load load) {
         LoadResponse response = new LoadResponse();
         response.setLoadId(load.getLoadId());
@@ -125,14 +242,15 @@ public class LoadService {
         response.setNoOfTrucks(load.getNoOfTrucks());
         response.setStatus(load.getStatus());
         response.setDatePosted(load.getDatePosted());
+        response.setBiddingDeadline(load.getBiddingDeadline());
+        response.setAuctionClosedAt(load.getAuctionClosedAt());
 
-        Integer allocated = bookingRepository.getTotalAllocatedTrucks(load.getLoadId());
-        response.setRemainingTrucks(load.getNoOfTrucks() - (allocated != null ? allocated : 0));
+        response.setRemainingTrucks(load.getNoOfTrucks() - load.getAllocatedTrucks());
 
         return response;
     }
 
-    private BidResponse toBidResponse(Bid bid) {
+    private BidResponse toBidResponse(Bid bid, TransporterSummary transporter) {
         BidResponse response = new BidResponse();
         response.setBidId(bid.getBidId());
         response.setLoadId(bid.getLoadId());
@@ -142,9 +260,9 @@ public class LoadService {
         response.setStatus(bid.getStatus());
         response.setSubmittedAt(bid.getSubmittedAt());
 
-        transporterRepository.findById(bid.getTransporterId()).ifPresent(t ->
-            response.setTransporterCompanyName(t.getCompanyName())
-        );
+        if (transporter != null) {
+            response.setTransporterCompanyName(transporter.getCompanyName());
+        }
 
         return response;
     }
@@ -0,0 +1,145 @@
+package com.tms.service;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile sketch with relative error guarantees (the DDSketch scheme).
+ *
+ * Positive values are counted in logarithmic buckets whose bounds grow by a factor of
+ * (1 + a) / (1 - a), so any quantile is returned within a = 1% of a value actually
+ * recorded. Rates on one lane sit close together and need few buckets; the bucket
+ * window is capped at MAX_BUCKETS and, when a value would stretch it further, the
+ * lowest buckets are folded together, which only costs accuracy in the low tail. A full
+ * window is never reallocated: low values land in its lowest bucket and high values
+ * slide it up in place (DDSketch's collapsing-lowest store).
+ * Sketches merge exactly, so partial sketches can be built in parallel.
+ *
+ * Not thread-safe, callers synchronize.
+ */
+final class RateSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+    static final int MAX_BUCKETS = 1024;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int INITIAL_BUCKETS = 32;
+
+    private long[] counts = new long[0];
+    private int offset;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Records a rate; non-positive and missing values are ignored.
+     */
+    void add(Double value) {
+        if (value == null || !(value > 0) || Double.isInfinite(value)) {
+            return;
+        }
+        increment((int) Math.ceil(Math.log(value) / LOG_GAMMA), 1);
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    void merge(RateSketch other) {
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] > 0) {
+                increment(other.offset + i, other.counts[i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return count;
+    }
+
+    int buckets() {
+        return counts.length;
+    }
+
+    /**
+     * Value at quantile q (0 to 1), or null when nothing was recorded.
+     */
+    Double quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+
+        double rank = q * (count - 1);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                double estimate = 2 * Math.pow(GAMMA, offset + i) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    private void increment(int index, long n) {
+        if (counts.length == 0) {
+            counts = new long[INITIAL_BUCKETS];
+            offset = index - INITIAL_BUCKETS / 2;
+        } else if (index >= offset + counts.length) {
+            if (counts.length == MAX_BUCKETS) {
+                collapseLowest(index - (offset + counts.length - 1));
+            } else {
+                grow(index);
+            }
+        } else if (index < offset && counts.length < MAX_BUCKETS) {
+            grow(index);
+        }
+        // below the window only once it is full, counted with the folded low tail
+        counts[Math.max(index, offset) - offset] += n;
+    }
+
+    /**
+     * Slides the full window up by shift buckets without reallocating, folding every
+     * bucket that drops out of it into the new lowest one.
+     */
+    private void collapseLowest(int shift) {
+        long folded = 0;
+        for (int i = 0; i < Math.min(shift + 1, counts.length); i++) {
+            folded += counts[i];
+        }
+        int kept = Math.max(counts.length - shift, 0);
+        if (kept > 0) {
+            System.arraycopy(counts, shift, counts, 0, kept);
+        }
+        Arrays.fill(counts, Math.max(kept, 1), counts.length, 0);
+        counts[0] = folded;
+        offset += shift;
+    }
+
+    private void grow(int index) {
+        int lo = Math.min(offset, index);
+        int hi = Math.max(offset + counts.length - 1, index);
+
+        // headroom in the direction of growth, so neighbouring values don't regrow the array
+        int headroom = Math.min(Math.max(INITIAL_BUCKETS, (hi - lo + 1) / 2), MAX_BUCKETS - (hi - lo + 1));
+        if (headroom > 0) {
+            if (index < offset) {
+                lo -= headroom;
+            } else {
+                hi += headroom;
+            }
+        }
+        if (hi - lo + 1 > MAX_BUCKETS) {
+            lo = hi - MAX_BUCKETS + 1;
+        }
+
+        long[] grown = new long[hi - lo + 1];
+        for (int i = 0; i < counts.length; i++) {
+            grown[Math.max(offset + i, lo) - lo] += counts[i];
+        }
+        counts = grown;
+        offset = lo;
+    }
+}
@@ -0,0 +1,206 @@
+package com.tms.service;
+
+import com.tms.entity.Transporter;
+import com.tms.entity.TruckCapacity;
+import com.tms.repository.TruckCapacityRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+import static com.tms.service.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory index of truck capacity: truck type to (count, rating, transporterId)
+ * entries sorted by count, so "transporters with between m and n trucks of this type"
+ * is a range scan of the sorted set instead of a walk over every transporter.
+ *
+ * Built from the database once the context is up and kept current by
+ * TransporterService and the booking capacity updates, after their transactions
+ * commit. After-commit callbacks of concurrent transactions run in no particular
+ * order, so every change is applied as a delta: trucks added or removed, and capacity
+ * rows added or removed (replacing a truck list removes the old rows, as read under
+ * lock, and adds the new ones). Deltas commute, so the index ends up right whatever
+ * order they arrive in. A type is listed while its row count is positive. rebuild()
+ * reads an absolute snapshot and is only meant for startup, before any writes.
+ */
+@Component
+public class TransporterCapacityIndex implements SmartInitializingSingleton {
+
+    /** Best rating first, then more trucks, then lower id for a stable order. */
+    static final Comparator<Entry> BY_RATING = Comparator
+            .comparing(Entry::rating, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Entry::count, Comparator.reverseOrder())
+            .thenComparing(Entry::transporterId);
+
+    private static final Comparator<Entry> BY_COUNT = Comparator
+            .comparingInt(Entry::count)
+            .thenComparing(Entry::transporterId);
+
+    private final TruckCapacityRepository truckCapacityRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ConcurrentMap<String, NavigableSet<Entry>> byTruckType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Map<String, Tally>> byTransporter = new ConcurrentHashMap<>();
+
+    public TransporterCapacityIndex(TruckCapacityRepository truckCapacityRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.truckCapacityRepository = truckCapacityRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with the capacities currently in the database.
+     */
+    public synchronized void rebuild() {
+        byTruckType.clear();
+        byTransporter.clear();
+        readOnlyTransaction.executeWithoutResult(status -> truckCapacityRepository.streamCapacities().forEach(row ->
+                adjust(row.getTransporterId(), row.getRating(), row.getTruckType(), row.getCount(), 1)));
+    }
+
+    /**
+     * Transporters with between minTrucks and maxTrucks (inclusive, no upper bound if
+     * null) trucks of the type, best rated first, at most limit of them.
+     */
+    public List<Entry> findEligible(String truckType, int minTrucks, Integer maxTrucks, int limit) {
+        NavigableSet<Entry> entries = byTruckType.get(truckType);
+        if (entries == null || (maxTrucks != null && maxTrucks < minTrucks)) {
+            return List.of();
+        }
+
+        Entry from = new Entry(Integer.MIN_VALUE, null, truckType, minTrucks);
+        Entry to = new Entry(Integer.MAX_VALUE, null, truckType, maxTrucks != null ? maxTrucks : Integer.MAX_VALUE);
+
+        // keep the best `limit` entries of the range without sorting all of it
+        PriorityQueue<Entry> best = new PriorityQueue<>(BY_RATING.reversed());
+        for (Entry entry : entries.subSet(from, true, to, true)) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Entry> ranked = new ArrayList<>(best);
+        ranked.sort(BY_RATING);
+        return ranked;
+    }
+
+    /**
+     * Trucks of the type the transporter has available, null if it has none of that type.
+     */
+    public Integer capacityOf(Integer transporterId, String truckType) {
+        Map<String, Tally> tallies = byTransporter.get(transporterId);
+        Tally tally = tallies != null ? tallies.get(truckType) : null;
+        return tally != null && tally.listed() ? tally.count() : null;
+    }
+
+    public int size() {
+        return byTransporter.values().stream()
+                .mapToInt(tallies -> (int) tallies.values().stream().filter(Tally::listed).count())
+                .sum();
+    }
+
+    /**
+     * Adds the trucks of a newly created transporter.
+     */
+    public void transporterCreated(Transporter transporter) {
+        trucksReplaced(transporter, List.of());
+    }
+
+    /**
+     * Swaps the transporter's previous capacity rows, as read under lock by the replacing
+     * transaction, for its current truck list.
+     */
+    public void trucksReplaced(Transporter transporter, List<TruckCapacity> previous) {
+        Integer transporterId = transporter.getTransporterId();
+        Double rating = transporter.getRating();
+        List<Entry> removed = previous.stream().map(tc -> Entry.of(transporter, tc)).collect(Collectors.toList());
+        List<Entry> added = transporter.getAvailableTrucks().stream()
+                .map(tc -> Entry.of(transporter, tc))
+                .collect(Collectors.toList());
+        afterCommit(() -> {
+            synchronized (this) {
+                removed.forEach(entry -> adjust(transporterId, rating, entry.truckType(), -entry.count(), -1));
+                added.forEach(entry -> adjust(transporterId, rating, entry.truckType(), entry.count(), 1));
+            }
+        });
+    }
+
+    /**
+     * Adds delta (negative for a booking, positive for a cancellation) to the count.
+     */
+    public void capacityChanged(Integer transporterId, String truckType, int delta) {
+        afterCommit(() -> adjust(transporterId, null, truckType, delta, 0));
+    }
+
+    private synchronized void adjust(Integer transporterId, Double rating, String truckType, int countDelta, int rowDelta) {
+        Map<String, Tally> tallies = byTransporter.computeIfAbsent(transporterId, id -> new ConcurrentHashMap<>());
+        Tally previous = tallies.getOrDefault(truckType, Tally.NONE);
+        Tally next = new Tally(rating != null ? rating : previous.rating(),
+                previous.count() + countDelta, previous.rows() + rowDelta);
+
+        if (previous.listed()) {
+            unlink(previous.entry(transporterId, truckType));
+        }
+        if (next.count() == 0 && next.rows() == 0) {
+            tallies.remove(truckType);
+        } else {
+            tallies.put(truckType, next);
+        }
+        if (tallies.isEmpty()) {
+            byTransporter.remove(transporterId);
+        }
+        if (next.listed()) {
+            byTruckType.computeIfAbsent(truckType, type -> new ConcurrentSkipListSet<>(BY_COUNT))
+                    .add(next.entry(transporterId, truckType));
+        }
+    }
+
+    private void unlink(Entry entry) {
+        NavigableSet<Entry> entries = byTruckType.get(entry.truckType());
+        if (entries != null) {
+            entries.remove(entry);
+        }
+    }
+
+    public record Entry(Integer transporterId, Double rating, String truckType, int count) {
+        static Entry of(Transporter transporter, TruckCapacity capacity) {
+            return new Entry(transporter.getTransporterId(), transporter.getRating(), capacity.getTruckType(), capacity.getCount());
+        }
+    }
+
+    /**
+     * Running sums of the deltas for one transporter and truck type. Deltas can arrive
+     * out of order, so rows may briefly be 0 or negative; the type is listed only while
+     * rows is positive.
+     */
+    private record Tally(Double rating, int count, int rows) {
+        static final Tally NONE = new Tally(null, 0, 0);
+
+        boolean listed() {
+            return rows > 0;
+        }
+
+        Entry entry(Integer transporterId, String truckType) {
+            return new Entry(transporterId, rating, truckType, count);
+        }
+    }
+}
@@ -20,14 +20,20 @@ public class TransporterService {
 
     private final TransporterRepository transporterRepository;
     private final TruckCapacityRepository truckCapacityRepository;
+    private final TransporterSummaryCache transporterSummaryCache;
+    private final TransporterCapacityIndex capacityIndex;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     public TransporterService(TransporterRepository transporterRepository,
-                             TruckCapacityRepository truckCapacityRepository) {
+                             TruckCapacityRepository truckCapacityRepository,
+                             TransporterSummaryCache transporterSummaryCache,
+                             TransporterCapacityIndex capacityIndex) {
         this.transporterRepository = transporterRepository;
         this.truckCapacityRepository = truckCapacityRepository;
+        this.transporterSummaryCache = transporterSummaryCache;
+        this.capacityIndex = capacityIndex;
     }
 
     @Transactional
@@ -42,6 +48,8 @@ public class TransporterService {
 
         transporter.setAvailableTrucks(trucks);
         transporter = transporterRepository.save(transporter);
+        transporterSummaryCache.invalidate(transporter.getTransporterId());
+        capacityIndex.transporterCreated(transporter);
 
         return toTransporterResponse(transporter);
     }
@@ -60,6 +68,8 @@ public class TransporterService {
 
     @Transactional
     public TransporterResponse updateTruckCapacity(Integer transporterId, List<TransporterRequest.TruckCapacityDTO> trucks) {
+        // the index swaps these counts for the new ones, so they must be the ones deleted
+        List<TruckCapacity> previous = truckCapacityRepository.findByTransporterIdForUpdate(transporterId);
         truckCapacityRepository.deleteByTransporterTransporterId(transporterId);
         truckCapacityRepository.flush();
 
@@ -73,6 +83,8 @@ public class TransporterService {
         }
 
         transporter = transporterRepository.save(transporter);
+        transporterSummaryCache.invalidate(transporterId);
+        capacityIndex.trucksReplaced(transporter, previous);
         return toTransporterResponse(transporter);
     }
 
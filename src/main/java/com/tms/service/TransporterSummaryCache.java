@@ -0,0 +1,68 @@
+package com.tms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tms.dto.TransporterSummary;
+import com.tms.repository.TransporterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.tms.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Size-bounded (W-TinyLFU) cache of transporter name and rating for the response
+ * mappers. Transporters are only written by TransporterService, which invalidates
+ * the entry after commit. Hit/miss statistics are published as cache.* metrics
+ * under the name "transporterSummaries".
+ */
+@Component
+public class TransporterSummaryCache {
+
+    private final TransporterRepository transporterRepository;
+    private final Cache<Integer, TransporterSummary> cache;
+
+    public TransporterSummaryCache(TransporterRepository transporterRepository, MeterRegistry meterRegistry,
+                                   @Value("${tms.transporter-cache.max-size:10000}") long maxSize) {
+        this.transporterRepository = transporterRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transporterSummaries");
+    }
+
+    /**
+     * Returns the summary, or null if the transporter doesn't exist (misses aren't cached).
+     */
+    public TransporterSummary get(Integer transporterId) {
+        return cache.get(transporterId, id -> {
+            List<TransporterSummary> found = transporterRepository.findSummariesByIdIn(List.of(id));
+            return found.isEmpty() ? null : found.get(0);
+        });
+    }
+
+    /**
+     * Resolves all given transporters, loading the missing ones with a single IN query.
+     * Unknown ids are left out of the result.
+     */
+    public Map<Integer, TransporterSummary> getAll(Collection<Integer> transporterIds) {
+        if (transporterIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return cache.getAll(transporterIds, missing -> transporterRepository.findSummariesByIdIn(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(TransporterSummary::getTransporterId, Function.identity())));
+    }
+
+    public void invalidate(Integer transporterId) {
+        afterCommit(() -> cache.invalidate(transporterId));
+    }
+}
@@ -0,0 +1,117 @@
+package com.tms.benchmark;
+
+import com.tms.TransportManagementSystemApplication;
+import com.tms.entity.*;
+import com.tms.repository.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against the in-memory H2 database of the test profile
+ * and seeds a dataset whose row counts scale with the requested size.
+ */
+final class BenchmarkDataset {
+
+    static final String TRUCK_TYPE = "CONTAINER-20FT";
+
+    final ConfigurableApplicationContext context;
+    final List<Integer> loadIds = new ArrayList<>();
+    final List<Integer> transporterIds = new ArrayList<>();
+    Integer hotLoadId;
+
+    private BenchmarkDataset(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(TransportManagementSystemApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Seeds {@code size} loads and bids, size/10 transporters (at least 10) and one
+     * hot load carrying min(size, 1000) pending bids.
+     */
+    static BenchmarkDataset seed(int size, String... properties) {
+        BenchmarkDataset dataset = new BenchmarkDataset(start(properties));
+
+        TransporterRepository transporterRepository = dataset.context.getBean(TransporterRepository.class);
+        LoadRepository loadRepository = dataset.context.getBean(LoadRepository.class);
+        BidRepository bidRepository = dataset.context.getBean(BidRepository.class);
+
+        int transporterCount = Math.max(10, size / 10);
+        for (int i = 0; i < transporterCount; i++) {
+            Transporter transporter = new Transporter();
+            transporter.setCompanyName("Transporter " + i);
+            transporter.setRating(1.0 + (i % 40) / 10.0);
+
+            List<TruckCapacity> trucks = new ArrayList<>();
+            trucks.add(new TruckCapacity(TRUCK_TYPE, 1_000_000));
+            trucks.add(new TruckCapacity("TATA-407", 1_000));
+            transporter.setAvailableTrucks(trucks);
+
+            dataset.transporterIds.add(transporterRepository.save(transporter).getTransporterId());
+        }
+
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            loads.add(newLoad("SHIP" + (i % 100), 1_000));
+        }
+        loadRepository.saveAll(loads).forEach(load -> dataset.loadIds.add(load.getLoadId()));
+        dataset.hotLoadId = dataset.loadIds.get(0);
+
+        List<Bid> bids = new ArrayList<>();
+        int hotBids = Math.min(size, 1_000);
+        for (int i = 0; i < size; i++) {
+            Integer loadId = i < hotBids ? dataset.hotLoadId : dataset.loadIds.get(i);
+            bids.add(newBid(loadId, dataset.transporterIds.get(i % transporterCount), 10_000.0 + i));
+        }
+        bidRepository.saveAll(bids);
+
+        return dataset;
+    }
+
+    static Load newLoad(String shipperId, int noOfTrucks) {
+        Load load = new Load();
+        load.setShipperId(shipperId);
+        load.setLoadingCity("Mumbai");
+        load.setUnloadingCity("Delhi");
+        load.setLoadingDate(LocalDateTime.now().plusDays(5));
+        load.setProductType("Electronics");
+        load.setWeight(5000.0);
+        load.setWeightUnit("KG");
+        load.setTruckType(TRUCK_TYPE);
+        load.setNoOfTrucks(noOfTrucks);
+        load.setStatus("OPEN_FOR_BIDS");
+        return load;
+    }
+
+    static Bid newBid(Integer loadId, Integer transporterId, double proposedRate) {
+        Bid bid = new Bid();
+        bid.setLoadId(loadId);
+        bid.setTransporterId(transporterId);
+        bid.setProposedRate(proposedRate);
+        bid.setTrucksOffered(1);
+        bid.setStatus("PENDING");
+        return bid;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,98 @@
+package com.tms.benchmark;
+
+import com.tms.dto.BookingRequest;
+import com.tms.entity.Bid;
+import com.tms.exception.InsufficientCapacityException;
+import com.tms.exception.InvalidStatusTransitionException;
+import com.tms.exception.LoadAlreadyBookedException;
+import com.tms.repository.BidRepository;
+import com.tms.service.BookingLockStrategy;
+import com.tms.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking throughput and failure rate per BookingLockStrategy. Contention rises as
+ * {@code hotLoads} shrinks, since all threads book against that many loads.
+ * Successful, conflicting and rejected bookings are reported as secondary counters.
+ * Example: {@code mvn -Pbenchmark verify -DskipTests -Djmh.args="BookingLockBenchmark -t 8"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(4)
+@Fork(1)
+public class BookingLockBenchmark {
+
+    @Param({"OPTIMISTIC", "PESSIMISTIC", "STRIPED"})
+    public BookingLockStrategy strategy;
+
+    @Param({"1", "8", "64"})
+    public int hotLoads;
+
+    private BenchmarkDataset dataset;
+    private BookingService bookingService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = BenchmarkDataset.seed(1000, "tms.booking.lock-strategy=" + strategy);
+        bookingService = dataset.bean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @Benchmark
+    public void createBooking(PendingBid pendingBid, Outcomes outcomes) {
+        BookingRequest request = new BookingRequest();
+        request.setBidId(pendingBid.bidId);
+        request.setAllocatedTrucks(1);
+        try {
+            bookingService.createBooking(request);
+            outcomes.booked++;
+        } catch (OptimisticLockingFailureException e) {
+            outcomes.conflicts++;
+        } catch (LoadAlreadyBookedException | InsufficientCapacityException | InvalidStatusTransitionException e) {
+            outcomes.rejected++;
+        }
+    }
+
+    /**
+     * A fresh PENDING bid on one of the hot loads for every createBooking call.
+     */
+    @State(Scope.Thread)
+    public static class PendingBid {
+        Integer bidId;
+
+        @Setup(Level.Invocation)
+        public void setUp(BookingLockBenchmark benchmark) {
+            BenchmarkDataset dataset = benchmark.dataset;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Bid bid = BenchmarkDataset.newBid(dataset.loadIds.get(random.nextInt(benchmark.hotLoads)),
+                    dataset.transporterIds.get(random.nextInt(dataset.transporterIds.size())), 20_000.0);
+            bidId = dataset.bean(BidRepository.class).save(bid).getBidId();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long booked;
+        public long conflicts;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            booked = 0;
+            conflicts = 0;
+            rejected = 0;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.tms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tms.dto.BidRequest;
+import com.tms.dto.BookingRequest;
+import com.tms.dto.BookingResponse;
+import com.tms.entity.*;
+import com.tms.exception.InsufficientCapacityException;
+import com.tms.exception.InvalidStatusTransitionException;
+import com.tms.exception.LoadAlreadyBookedException;
+import com.tms.repository.*;
+import com.tms.service.BidService;
+import com.tms.service.BookingService;
+import com.tms.service.TestFixtures;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * High-contention booking stress harness: N threads book and cancel against M
+ * multi-truck loads and K transporters through BookingService, then check the
+ * allocation invariants once the run has quiesced.
+ *
+ * Configured through system properties, for example
+ * {@code mvn -Pbenchmark test -Dtest=BookingStressTest -Dstress.threads=1,2,4,8 -Dstress.loads=10}:
+ * <ul>
+ *   <li>stress.threads - comma separated thread counts, one run each (default 1,2,4,8,16)</li>
+ *   <li>stress.loads - number of loads (default 20)</li>
+ *   <li>stress.transporters - number of transporters (default 50)</li>
+ *   <li>stress.trucksPerLoad - trucks needed per load (default 5)</li>
+ *   <li>stress.trucksPerTransporter - CONTAINER-20FT capacity per transporter (default 10)</li>
+ *   <li>stress.seconds - duration of each run (default 10)</li>
+ *   <li>stress.cancelRatio - share of operations that cancel a booking (default 0.3)</li>
+ * </ul>
+ * The report is printed and written to target/booking-stress-report.json.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingStressTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final int loadCount = Integer.getInteger("stress.loads", 20);
+    private final int transporterCount = Integer.getInteger("stress.transporters", 50);
+    private final int trucksPerLoad = Integer.getInteger("stress.trucksPerLoad", 5);
+    private final int trucksPerTransporter = Integer.getInteger("stress.trucksPerTransporter", 10);
+    private final int seconds = Integer.getInteger("stress.seconds", 10);
+    private final double cancelRatio = Double.parseDouble(System.getProperty("stress.cancelRatio", "0.3"));
+
+    @Test
+    void bookingUnderContention() throws Exception {
+        List<Integer> threadCounts = Arrays.stream(System.getProperty("stress.threads", "1,2,4,8,16").split(","))
+                .map(String::trim).map(Integer::valueOf).collect(Collectors.toList());
+
+        List<RunReport> reports = new ArrayList<>();
+        for (int threads : threadCounts) {
+            reports.add(run(threads));
+        }
+
+        print(reports);
+        write(reports);
+
+        for (RunReport report : reports) {
+            assertTrue(report.violations.isEmpty(), "Invariant violations with " + report.threads + " threads: " + report.violations);
+        }
+    }
+
+    private RunReport run(int threads) throws InterruptedException {
+        Dataset dataset = seed();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        Outcomes outcomes = new Outcomes();
+        ConcurrentLinkedQueue<Integer> confirmedBookings = new ConcurrentLinkedQueue<>();
+        List<Future<long[]>> latencies = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            latencies.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] samples = new long[1024];
+                int count = 0;
+
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    boolean cancel = random.nextDouble() < cancelRatio && !confirmedBookings.isEmpty();
+                    long begin = System.nanoTime();
+                    try {
+                        if (cancel) {
+                            cancelRandomBooking(confirmedBookings, dataset);
+                        } else {
+                            bookRandomBid(random, dataset, confirmedBookings);
+                        }
+                        outcomes.success.incrementAndGet();
+                    } catch (OptimisticLockingFailureException e) {
+                        outcomes.optimisticLockFailures.incrementAndGet();
+                    } catch (LoadAlreadyBookedException | InsufficientCapacityException | InvalidStatusTransitionException e) {
+                        outcomes.rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        outcomes.errors.incrementAndGet();
+                    }
+
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, samples.length * 2);
+                    }
+                    samples[count++] = System.nanoTime() - begin;
+                }
+                return Arrays.copyOf(samples, count);
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS), "Stress run did not finish");
+        double elapsedSeconds = (System.nanoTime() - begin) / 1e9;
+
+        long[] all = latencies.stream().map(this::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new RunReport(threads, Runtime.getRuntime().availableProcessors(), all.length,
+                all.length / elapsedSeconds,
+                percentileMillis(all, 0.50), percentileMillis(all, 0.99), percentileMillis(all, 0.999),
+                outcomes.success.get(), outcomes.rejected.get(), outcomes.optimisticLockFailures.get(), outcomes.errors.get(),
+                all.length == 0 ? 0 : (double) outcomes.optimisticLockFailures.get() / all.length,
+                checkInvariants(dataset));
+    }
+
+    private void bookRandomBid(ThreadLocalRandom random, Dataset dataset, Queue<Integer> confirmedBookings) {
+        Integer loadId = dataset.loadIds.get(random.nextInt(dataset.loadIds.size()));
+        List<Bid> pending = bidRepository.findByLoadIdAndStatus(loadId, "PENDING");
+        if (pending.isEmpty()) {
+            throw new InvalidStatusTransitionException("No pending bids on load " + loadId);
+        }
+
+        Bid bid = pending.get(random.nextInt(pending.size()));
+        BookingRequest request = new BookingRequest();
+        request.setBidId(bid.getBidId());
+        request.setAllocatedTrucks(1 + random.nextInt(bid.getTrucksOffered()));
+
+        BookingResponse booking = bookingService.createBooking(request);
+        confirmedBookings.add(booking.getBookingId());
+    }
+
+    private void cancelRandomBooking(Queue<Integer> confirmedBookings, Dataset dataset) {
+        Integer bookingId = confirmedBookings.poll();
+        if (bookingId == null) {
+            return;
+        }
+
+        BookingResponse cancelled = bookingService.cancelBooking(bookingId);
+
+        // Re-bid so the pool of pending bids doesn't drain over a long run
+        BidRequest rebid = new BidRequest();
+        rebid.setLoadId(cancelled.getLoadId());
+        rebid.setTransporterId(cancelled.getTransporterId());
+        rebid.setProposedRate(cancelled.getFinalRate());
+        rebid.setTrucksOffered(Math.min(2, dataset.trucksPerLoad));
+        try {
+            bidService.createBid(rebid);
+        } catch (InvalidStatusTransitionException | InsufficientCapacityException e) {
+            // load or transporter moved on, the cancellation itself succeeded
+        }
+    }
+
+    private List<String> checkInvariants(Dataset dataset) {
+        List<String> violations = new ArrayList<>();
+        List<Booking> active = bookingRepository.findAll().stream()
+                .filter(b -> !"CANCELLED".equals(b.getStatus()))
+                .collect(Collectors.toList());
+
+        Map<Integer, Integer> bookedPerLoad = active.stream()
+                .collect(Collectors.groupingBy(Booking::getLoadId, Collectors.summingInt(Booking::getAllocatedTrucks)));
+        for (Load load : loadRepository.findAllById(dataset.loadIds)) {
+            int booked = bookedPerLoad.getOrDefault(load.getLoadId(), 0);
+            if (load.getAllocatedTrucks() > load.getNoOfTrucks()) {
+                violations.add("load " + load.getLoadId() + " over-allocated: " + load.getAllocatedTrucks() + "/" + load.getNoOfTrucks());
+            }
+            if (load.getAllocatedTrucks() != booked) {
+                violations.add("load " + load.getLoadId() + " counter " + load.getAllocatedTrucks() + " != booked " + booked);
+            }
+            if ("BOOKED".equals(load.getStatus()) != (booked >= load.getNoOfTrucks())) {
+                violations.add("load " + load.getLoadId() + " status " + load.getStatus() + " with " + booked + "/" + load.getNoOfTrucks());
+            }
+        }
+
+        Map<Integer, Integer> bookedPerTransporter = active.stream()
+                .collect(Collectors.groupingBy(Booking::getTransporterId, Collectors.summingInt(Booking::getAllocatedTrucks)));
+        for (Integer transporterId : dataset.transporterIds) {
+            TruckCapacity capacity = truckCapacityRepository
+                    .findByTransporterTransporterIdAndTruckType(transporterId, BenchmarkDataset.TRUCK_TYPE).orElseThrow();
+            int booked = bookedPerTransporter.getOrDefault(transporterId, 0);
+            if (capacity.getCount() < 0) {
+                violations.add("transporter " + transporterId + " negative capacity " + capacity.getCount());
+            }
+            if (capacity.getCount() + booked != trucksPerTransporter) {
+                violations.add("transporter " + transporterId + " capacity " + capacity.getCount() + " + booked " + booked
+                        + " != " + trucksPerTransporter);
+            }
+        }
+        return violations;
+    }
+
+    private Dataset seed() {
+        TestFixtures fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+
+        Dataset dataset = new Dataset(trucksPerLoad);
+        List<Transporter> transporters = new ArrayList<>();
+        for (int i = 0; i < transporterCount; i++) {
+            Transporter transporter = fixtures.saveTransporter(1.0 + (i % 40) / 10.0,
+                    BenchmarkDataset.TRUCK_TYPE, trucksPerTransporter);
+            transporters.add(transporter);
+            dataset.transporterIds.add(transporter.getTransporterId());
+        }
+
+        List<Bid> bids = new ArrayList<>();
+        for (int i = 0; i < loadCount; i++) {
+            Load load = fixtures.saveLoad(BenchmarkDataset.TRUCK_TYPE, trucksPerLoad);
+            dataset.loadIds.add(load.getLoadId());
+            for (Transporter transporter : transporters) {
+                bids.add(TestFixtures.newBid(load, transporter, 10_000.0 + transporter.getTransporterId(),
+                        Math.min(2, trucksPerLoad)));
+            }
+        }
+        bidRepository.saveAll(bids);
+        return dataset;
+    }
+
+    private long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private void print(List<RunReport> reports) {
+        System.out.println();
+        System.out.printf("Booking stress: %d loads x %d trucks, %d transporters, %ds per run, cancel ratio %.2f, %d cores%n",
+                loadCount, trucksPerLoad, transporterCount, seconds, cancelRatio, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%7s %8s %10s %9s %9s %9s %8s %8s %8s %7s %7s %10s%n",
+                "threads", "ops", "ops/s", "p50 ms", "p99 ms", "p999 ms", "ok", "rejected", "oplock", "errors", "oplock%", "violations");
+        for (RunReport r : reports) {
+            System.out.printf("%7d %8d %10.1f %9.2f %9.2f %9.2f %8d %8d %8d %7d %7.2f %10d%n",
+                    r.threads, r.operations, r.throughput, r.p50Millis, r.p99Millis, r.p999Millis,
+                    r.success, r.rejected, r.optimisticLockFailures, r.errors, r.optimisticLockFailureRate * 100,
+                    r.violations.size());
+        }
+    }
+
+    private void write(List<RunReport> reports) {
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(new File("target/booking-stress-report.json"), reports);
+        } catch (IOException e) {
+            System.out.println("Could not write stress report: " + e.getMessage());
+        }
+    }
+
+    private static final class Dataset {
+        final int trucksPerLoad;
+        final List<Integer> loadIds = new ArrayList<>();
+        final List<Integer> transporterIds = new ArrayList<>();
+
+        Dataset(int trucksPerLoad) {
+            this.trucksPerLoad = trucksPerLoad;
+        }
+    }
+
+    private static final class Outcomes {
+        final AtomicLong success = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong optimisticLockFailures = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    record RunReport(int threads, int cores, long operations, double throughput,
+                     double p50Millis, double p99Millis, double p999Millis,
+                     long success, long rejected, long optimisticLockFailures, long errors,
+                     double optimisticLockFailureRate, List<String> violations) {}
+}
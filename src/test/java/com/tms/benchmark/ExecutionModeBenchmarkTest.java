@@ -0,0 +1,256 @@
+package com.tms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tms.entity.Bid;
+import com.tms.repository.BidRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput and latency over HTTP at high client concurrency, platform-thread Tomcat
+ * against virtual-thread execution with the connection-pool concurrency limit, on a
+ * list endpoint (GET /load), the best-bids lookup and booking (POST /booking).
+ * Platform threads are also measured with the limit on, to separate its effect from
+ * the thread model. The virtual mode needs a Java 21 runtime and is skipped otherwise.
+ *
+ * Configured through system properties, for example
+ * {@code mvn -Pbenchmark test -Dtest=ExecutionModeBenchmarkTest -Dbench.concurrency=100,400}:
+ * <ul>
+ *   <li>bench.concurrency - comma separated client concurrency levels (default 50,200,800)</li>
+ *   <li>bench.seconds - duration of each measured run (default 10)</li>
+ *   <li>bench.size - seeded loads and bids, also the number of bookable bids (default 20000)</li>
+ * </ul>
+ * The report is printed and written to target/execution-mode-report.json.
+ */
+@Tag("benchmark")
+class ExecutionModeBenchmarkTest {
+
+    private static final int WARMUP_SECONDS = 3;
+
+    private final int[] concurrencyLevels = Arrays.stream(System.getProperty("bench.concurrency", "50,200,800").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private final int seconds = Integer.getInteger("bench.seconds", 10);
+    private final int size = Integer.getInteger("bench.size", 20_000);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void compareExecutionModes() {
+        List<Mode> modes = new ArrayList<>(List.of(
+                new Mode("platform", false, false),
+                new Mode("platform+limit", false, true)));
+        if (Runtime.version().feature() >= 21) {
+            modes.add(new Mode("virtual+limit", true, true));
+        } else {
+            System.out.println("Java " + Runtime.version().feature() + ": virtual-thread mode needs Java 21, skipped");
+        }
+
+        List<RunReport> reports = new ArrayList<>();
+        for (Mode mode : modes) {
+            reports.addAll(run(mode));
+        }
+
+        print(reports);
+        write(reports);
+
+        for (RunReport report : reports) {
+            assertTrue(report.completed > 0, report.mode + " " + report.endpoint + " completed no requests");
+            assertEquals(0, report.serverErrors, report.mode + " " + report.endpoint + " returned 5xx other than 503");
+        }
+    }
+
+    private List<RunReport> run(Mode mode) {
+        BenchmarkDataset dataset = BenchmarkDataset.seed(size,
+                "spring.main.web-application-type=servlet",
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + mode.virtualThreads,
+                "tms.request-limit.enabled=" + mode.requestLimit);
+        try {
+            String baseUrl = "http://localhost:" + dataset.context.getEnvironment().getProperty("local.server.port");
+            Integer hotLoadId = dataset.hotLoadId;
+            Queue<Integer> bookableBids = new ConcurrentLinkedQueue<>(dataset.bean(BidRepository.class).findAll().stream()
+                    .map(Bid::getBidId).toList());
+
+            Map<String, Function<Integer, HttpRequest>> endpoints = new LinkedHashMap<>();
+            endpoints.put("GET /load", i -> HttpRequest.newBuilder(URI.create(baseUrl + "/load?page=" + (i % 50) + "&size=20")).build());
+            endpoints.put("GET /load/{id}/best-bids", i -> HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/load/" + hotLoadId + "/best-bids?limit=20")).build());
+            endpoints.put("POST /booking", i -> {
+                Integer bidId = bookableBids.poll();
+                if (bidId == null) {
+                    return null;
+                }
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/booking"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"bidId\":" + bidId + ",\"allocatedTrucks\":1}"))
+                        .build();
+            });
+
+            List<RunReport> reports = new ArrayList<>();
+            for (int concurrency : concurrencyLevels) {
+                for (Map.Entry<String, Function<Integer, HttpRequest>> endpoint : endpoints.entrySet()) {
+                    if (!endpoint.getKey().startsWith("POST")) {
+                        drive(endpoint.getValue(), concurrency, WARMUP_SECONDS);
+                    }
+                    RunReport report = drive(endpoint.getValue(), concurrency, seconds);
+                    report.mode = mode.name;
+                    report.endpoint = endpoint.getKey();
+                    report.concurrency = concurrency;
+                    reports.add(report);
+                }
+            }
+            return reports;
+        } finally {
+            dataset.close();
+        }
+    }
+
+    /**
+     * Closed loop: each client sends its next request as soon as the previous one
+     * answers. Stops early once the request source runs dry.
+     */
+    private RunReport drive(Function<Integer, HttpRequest> requests, int concurrency, int durationSeconds) {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long started = System.nanoTime();
+
+        List<Future<ClientStats>> futures = new ArrayList<>();
+        for (int c = 0; c < concurrency; c++) {
+            int first = c;
+            futures.add(clients.submit(() -> {
+                ClientStats stats = new ClientStats();
+                for (int i = first; System.nanoTime() < deadline; i += concurrency) {
+                    HttpRequest request = requests.apply(i);
+                    if (request == null) {
+                        break;
+                    }
+                    long sent = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    stats.record(status, System.nanoTime() - sent);
+                }
+                return stats;
+            }));
+        }
+
+        RunReport report = new RunReport();
+        List<Long> latencies = new ArrayList<>();
+        try {
+            for (Future<ClientStats> future : futures) {
+                ClientStats stats = future.get();
+                latencies.addAll(stats.latencies);
+                report.completed += stats.latencies.size();
+                report.ok += stats.ok;
+                report.clientErrors += stats.clientErrors;
+                report.rejected += stats.rejected;
+                report.serverErrors += stats.serverErrors;
+                report.ioErrors += stats.ioErrors;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            clients.shutdownNow();
+        }
+
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        Collections.sort(latencies);
+        report.throughput = report.completed / elapsedSeconds;
+        report.p50Millis = percentileMillis(latencies, 0.50);
+        report.p99Millis = percentileMillis(latencies, 0.99);
+        report.maxMillis = percentileMillis(latencies, 1.0);
+        return report;
+    }
+
+    private static double percentileMillis(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1) / 1e6;
+    }
+
+    private void print(List<RunReport> reports) {
+        System.out.println();
+        System.out.printf("%-15s %-26s %6s %10s %9s %9s %9s %8s %8s %6s%n",
+                "mode", "endpoint", "conc", "req/s", "p50 ms", "p99 ms", "max ms", "2xx", "503", "4xx");
+        for (RunReport r : reports) {
+            System.out.printf("%-15s %-26s %6d %10.1f %9.2f %9.2f %9.2f %8d %8d %6d%n",
+                    r.mode, r.endpoint, r.concurrency, r.throughput, r.p50Millis, r.p99Millis, r.maxMillis,
+                    r.ok, r.rejected, r.clientErrors);
+        }
+    }
+
+    private void write(List<RunReport> reports) {
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(new File("target/execution-mode-report.json"), reports);
+        } catch (IOException e) {
+            System.out.println("Could not write execution mode report: " + e.getMessage());
+        }
+    }
+
+    private record Mode(String name, boolean virtualThreads, boolean requestLimit) {}
+
+    private static final class ClientStats {
+        final List<Long> latencies = new ArrayList<>();
+        long ok;
+        long clientErrors;
+        long rejected;
+        long serverErrors;
+        long ioErrors;
+
+        void record(int status, long nanos) {
+            latencies.add(nanos);
+            if (status < 0) {
+                ioErrors++;
+            } else if (status == 503) {
+                rejected++;
+            } else if (status >= 500) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            } else {
+                ok++;
+            }
+        }
+    }
+
+    public static class RunReport {
+        public String mode;
+        public String endpoint;
+        public int concurrency;
+        public long completed;
+        public long ok;
+        public long clientErrors;
+        public long rejected;
+        public long serverErrors;
+        public long ioErrors;
+        public double throughput;
+        public double p50Millis;
+        public double p99Millis;
+        public double maxMillis;
+    }
+}
@@ -0,0 +1,219 @@
+package com.tms.benchmark;
+
+import com.tms.dto.LoadCursorPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.LoadResponse;
+import com.tms.dto.LoadSlice;
+import com.tms.entity.Booking;
+import com.tms.entity.Load;
+import com.tms.repository.*;
+import com.tms.service.LoadService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Page latency of GET /load at page sizes 10, 100 and 1000, comparing the
+ * allocated_trucks counter on loads with the previous per-row SUM lookup, and
+ * of the first vs the last page with OFFSET paging and with the keyset cursor,
+ * and of Page vs count-free Slice listings (queries and payload bytes).
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class LoadPageBenchmarkTest {
+
+    private static final int LOAD_COUNT = 2000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        bidRepository.deleteAll();
+        loadRepository.deleteAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < LOAD_COUNT; i++) {
+            Load load = new Load();
+            load.setShipperId("SHIP" + (i % 50));
+            load.setLoadingCity("Mumbai");
+            load.setUnloadingCity("Delhi");
+            load.setLoadingDate(LocalDateTime.now().plusDays(5));
+            load.setProductType("Electronics");
+            load.setWeight(5000.0);
+            load.setWeightUnit("KG");
+            load.setTruckType("CONTAINER-20FT");
+            load.setNoOfTrucks(4);
+            load.setAllocatedTrucks(1);
+            load.setStatus("OPEN_FOR_BIDS");
+            loads.add(load);
+        }
+        loads = loadRepository.saveAll(loads);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (Load load : loads) {
+            Booking booking = new Booking();
+            booking.setLoadId(load.getLoadId());
+            booking.setBidId(0);
+            booking.setTransporterId(0);
+            booking.setAllocatedTrucks(1);
+            booking.setFinalRate(10000.0);
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void pageLatencyBySize() {
+        System.out.println();
+        System.out.printf("%-6s %14s %14s %12s %14s %14s %12s%n",
+                "size", "counter p50ms", "counter p95ms", "counter sql",
+                "per-row p50ms", "per-row p95ms", "per-row sql");
+
+        for (int size : new int[]{10, 100, 1000}) {
+            PageRequest pageable = PageRequest.of(0, size);
+
+            Result counter = measure(() -> {
+                Page<LoadResponse> page = loadService.getLoads(null, null, pageable);
+                assertEquals(size, page.getNumberOfElements());
+                assertEquals(3, page.getContent().get(0).getRemainingTrucks());
+            });
+
+            Result perRow = measure(() -> {
+                Page<Load> page = loadRepository.findAll(pageable);
+                page.forEach(load -> bookingRepository.getTotalAllocatedTrucks(load.getLoadId()));
+            });
+
+            System.out.printf("%-6d %14.3f %14.3f %12d %14.3f %14.3f %12d%n",
+                    size, counter.p50Millis, counter.p95Millis, counter.statements,
+                    perRow.p50Millis, perRow.p95Millis, perRow.statements);
+
+            // page query + count query, nothing per row
+            assertEquals(2, counter.statements);
+        }
+    }
+
+    @Test
+    void deepPageLatency_OffsetVsCursor() {
+        int size = 20;
+        int lastPage = LOAD_COUNT / size - 1;
+
+        String lastCursor = null;
+        for (int page = 0; page < lastPage; page++) {
+            lastCursor = loadService.scrollLoads(null, null, lastCursor, size).getNextCursor();
+        }
+        String deepCursor = lastCursor;
+
+        Result offsetFirst = measure(() -> loadService.getLoads(null, null, PageRequest.of(0, size)));
+        Result offsetDeep = measure(() -> loadService.getLoads(null, null, PageRequest.of(lastPage, size)));
+        Result cursorFirst = measure(() -> loadService.scrollLoads(null, null, null, size));
+        Result cursorDeep = measure(() -> {
+            LoadCursorPage page = loadService.scrollLoads(null, null, deepCursor, size);
+            assertEquals(size, page.getContent().size());
+            assertFalse(page.isHasNext());
+        });
+
+        System.out.println();
+        System.out.printf("%-8s %12s %12s %6s %12s %12s %6s%n",
+                "mode", "page 1 p50", "page 1 p95", "sql", "page " + (lastPage + 1) + " p50", "p95", "sql");
+        System.out.printf("%-8s %12.3f %12.3f %6d %12.3f %12.3f %6d%n", "offset",
+                offsetFirst.p50Millis, offsetFirst.p95Millis, offsetFirst.statements,
+                offsetDeep.p50Millis, offsetDeep.p95Millis, offsetDeep.statements);
+        System.out.printf("%-8s %12.3f %12.3f %6d %12.3f %12.3f %6d%n", "cursor",
+                cursorFirst.p50Millis, cursorFirst.p95Millis, cursorFirst.statements,
+                cursorDeep.p50Millis, cursorDeep.p95Millis, cursorDeep.statements);
+
+        // page query only, no COUNT
+        assertEquals(1, cursorDeep.statements);
+    }
+
+    @Test
+    void pageVsSlice_CountQueryAndPayload() throws Exception {
+        System.out.println();
+        System.out.printf("%-6s %10s %10s %6s %10s %10s %10s %6s %10s%n",
+                "size", "page p50", "page p95", "sql", "page bytes",
+                "slice p50", "slice p95", "sql", "slice bytes");
+
+        for (int size : new int[]{10, 100, 1000}) {
+            PageRequest pageable = PageRequest.of(1, size);
+
+            Result page = measure(() -> loadService.getLoads(null, null, pageable));
+            Result slice = measure(() -> loadService.getLoadSlice(null, null, pageable));
+            int pageBytes = objectMapper.writeValueAsBytes(loadService.getLoads(null, null, pageable)).length;
+            LoadSlice sliceBody = loadService.getLoadSlice(null, null, pageable);
+            int sliceBytes = objectMapper.writeValueAsBytes(sliceBody).length;
+
+            System.out.printf("%-6d %10.3f %10.3f %6d %10d %10.3f %10.3f %6d %10d%n",
+                    size, page.p50Millis, page.p95Millis, page.statements, pageBytes,
+                    slice.p50Millis, slice.p95Millis, slice.statements, sliceBytes);
+
+            // the slice never runs the COUNT query
+            assertEquals(page.statements - 1, slice.statements);
+            assertEquals(size, sliceBody.getContent().size());
+            assertTrue(sliceBytes < pageBytes);
+        }
+    }
+
+    private Result measure(Runnable action) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            action.run();
+        }
+
+        long[] nanos = new long[MEASURED_ITERATIONS];
+        long statements = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            action.run();
+            nanos[i] = System.nanoTime() - start;
+            statements = statistics.getPrepareStatementCount();
+        }
+
+        Arrays.sort(nanos);
+        return new Result(
+                nanos[MEASURED_ITERATIONS / 2] / 1_000_000.0,
+                nanos[(int) Math.ceil(MEASURED_ITERATIONS * 0.95) - 1] / 1_000_000.0,
+                statements);
+    }
+
+    private record Result(double p50Millis, double p95Millis, long statements) {}
+}
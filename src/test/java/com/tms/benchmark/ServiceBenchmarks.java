@@ -0,0 +1,102 @@
+package com.tms.benchmark;
+
+import com.tms.dto.*;
+import com.tms.entity.Bid;
+import com.tms.repository.BidRepository;
+import com.tms.service.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the service hot paths at several dataset sizes.
+ * Run with {@code mvn -Pbenchmark verify}, results are written as JSON to target/.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmarks {
+
+    @Param({"100", "1000", "10000"})
+    public int datasetSize;
+
+    private BenchmarkDataset dataset;
+    private BidService bidService;
+    private BookingService bookingService;
+    private LoadService loadService;
+    private TransporterService transporterService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = BenchmarkDataset.seed(datasetSize);
+        bidService = dataset.bean(BidService.class);
+        bookingService = dataset.bean(BookingService.class);
+        loadService = dataset.bean(LoadService.class);
+        transporterService = dataset.bean(TransporterService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @Benchmark
+    public BidResponse createBid() {
+        BidRequest request = new BidRequest();
+        request.setLoadId(pick(dataset.loadIds));
+        request.setTransporterId(pick(dataset.transporterIds));
+        request.setProposedRate(ThreadLocalRandom.current().nextDouble(10_000, 50_000));
+        request.setTrucksOffered(1);
+        return bidService.createBid(request);
+    }
+
+    @Benchmark
+    public BookingResponse createBooking(PendingBid pendingBid) {
+        BookingRequest request = new BookingRequest();
+        request.setBidId(pendingBid.bidId);
+        request.setAllocatedTrucks(1);
+        return bookingService.createBooking(request);
+    }
+
+    @Benchmark
+    public Page<LoadResponse> getLoads() {
+        return loadService.getLoads(null, "OPEN_FOR_BIDS", PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public List<BidResponse> getBestBids() {
+        return loadService.getBestBids(dataset.hotLoadId);
+    }
+
+    @Benchmark
+    public List<TransporterResponse> getAllTransporters() {
+        return transporterService.getAllTransporters();
+    }
+
+    private static Integer pick(List<Integer> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    /**
+     * A fresh PENDING bid for every createBooking call, on a load that still has trucks left.
+     */
+    @State(Scope.Thread)
+    public static class PendingBid {
+        Integer bidId;
+
+        @Setup(Level.Invocation)
+        public void setUp(ServiceBenchmarks benchmarks) {
+            BenchmarkDataset dataset = benchmarks.dataset;
+            Bid bid = BenchmarkDataset.newBid(pick(dataset.loadIds),
+                    pick(dataset.transporterIds), 20_000.0);
+            bidId = dataset.bean(BidRepository.class).save(bid).getBidId();
+        }
+    }
+}
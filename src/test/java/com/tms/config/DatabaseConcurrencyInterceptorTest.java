@@ -0,0 +1,71 @@
+package com.tms.config;
+
+import com.tms.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConcurrencyInterceptorTest {
+
+    private Counter rejected;
+    private DatabaseConcurrencyInterceptor interceptor;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        rejected = new SimpleMeterRegistry().counter("tms.request-limit.rejected");
+        interceptor = new DatabaseConcurrencyInterceptor(2, 10, rejected);
+    }
+
+    @Test
+    void preHandle_RejectsWhenAllPermitsHeld() {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(first, response, null));
+        assertTrue(interceptor.preHandle(second, response, null));
+
+        assertThrows(ServiceBusyException.class, () -> interceptor.preHandle(new MockHttpServletRequest(), response, null));
+        assertEquals(1, rejected.count());
+
+        interceptor.afterCompletion(first, response, null, null);
+        assertEquals(1, interceptor.getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, null));
+    }
+
+    @Test
+    void afterCompletion_ReleasesOnlyOnce() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, response, null);
+
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(0, interceptor.getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, null));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, null));
+    }
+
+    @Test
+    void asyncRequest_HoldsPermitUntilAsyncCompletes() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        interceptor.preHandle(request, response, null);
+        request.startAsync();
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        // the async dispatch runs the interceptor again without taking a second permit
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertEquals(1, interceptor.getInFlight());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, interceptor.getInFlight());
+    }
+}
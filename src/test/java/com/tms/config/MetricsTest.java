@@ -0,0 +1,82 @@
+package com.tms.config;
+
+import com.tms.entity.Load;
+import com.tms.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GlobalExceptionHandler exceptionHandler;
+
+    @Test
+    void request_RecordsSqlStatementCountPerEndpoint() throws Exception {
+        mockMvc.perform(get("/load").param("page", "0").param("size", "10"))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("tms.sql.statements")
+                .tags("method", "GET", "uri", "/load")
+                .summary();
+
+        assertNotNull(statements);
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.totalAmount() >= 1);
+    }
+
+    @Test
+    void streamedRequest_CountsStatementsOfTheAsyncTask() throws Exception {
+        double before = statements("/booking");
+
+        MvcResult started = mockMvc.perform(get("/booking"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+
+        // the bookings query runs on the async executor, not on a request thread
+        assertTrue(statements("/booking") - before >= 1);
+    }
+
+    @Test
+    void optimisticLockConflict_CountedByEntity() {
+        double before = conflicts("Load");
+
+        exceptionHandler.handleOptimisticLocking(new ObjectOptimisticLockingFailureException(Load.class, 1));
+
+        assertEquals(before + 1, conflicts("Load"));
+    }
+
+    private double statements(String uri) {
+        DistributionSummary summary = meterRegistry.find("tms.sql.statements").tags("method", "GET", "uri", uri).summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+
+    private double conflicts(String entity) {
+        var counter = meterRegistry.find("tms.optimistic.lock.conflicts").tag("entity", entity).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
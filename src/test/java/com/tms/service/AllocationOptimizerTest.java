@@ -0,0 +1,137 @@
+package com.tms.service;
+
+import com.tms.service.AllocationOptimizer.Allocation;
+import com.tms.service.AllocationOptimizer.Candidate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationOptimizerTest {
+
+    @Test
+    void allocate_CheapestFirst_SplitsLastBid() {
+        List<Candidate> bids = List.of(
+                new Candidate(1, 10, 50_000.0, 3, 4.0),
+                new Candidate(2, 11, 40_000.0, 2, 3.0),
+                new Candidate(3, 12, 45_000.0, 2, 5.0));
+
+        List<Allocation> allocations = AllocationOptimizer.allocate(5, bids,
+                Map.of(10, 10, 11, 10, 12, 10), AllocationOptimizer.CHEAPEST_FIRST);
+
+        assertEquals(List.of(2, 3, 1), allocations.stream().map(a -> a.bid().bidId()).toList());
+        assertEquals(List.of(2, 2, 1), allocations.stream().map(Allocation::trucks).toList());
+        assertEquals(220_000.0, totalCost(allocations), 1e-6);
+    }
+
+    @Test
+    void allocate_BestScoreFirst_PrefersRatingWhenRatesAreClose() {
+        List<Candidate> bids = List.of(
+                new Candidate(1, 10, 40_000.0, 2, 2.0),
+                new Candidate(2, 11, 40_500.0, 2, 5.0));
+
+        List<Allocation> allocations = AllocationOptimizer.allocate(2, bids,
+                Map.of(10, 5, 11, 5), AllocationOptimizer.BEST_SCORE_FIRST);
+
+        assertEquals(1, allocations.size());
+        assertEquals(2, allocations.get(0).bid().bidId());
+    }
+
+    @Test
+    void allocate_SharesTransporterCapacityAcrossItsBids() {
+        List<Candidate> bids = List.of(
+                new Candidate(1, 10, 30_000.0, 3, 4.0),
+                new Candidate(2, 10, 31_000.0, 3, 4.0),
+                new Candidate(3, 11, 60_000.0, 5, 4.0));
+
+        List<Allocation> allocations = AllocationOptimizer.allocate(6, bids,
+                Map.of(10, 4, 11, 5), AllocationOptimizer.CHEAPEST_FIRST);
+
+        assertEquals(List.of(3, 1, 2), allocations.stream().map(Allocation::trucks).toList());
+    }
+
+    @Test
+    void allocate_FallsShortWhenBidsCannotCoverLoad() {
+        List<Candidate> bids = List.of(
+                new Candidate(1, 10, 30_000.0, 3, 4.0),
+                new Candidate(2, 11, 31_000.0, 3, 4.0));
+
+        List<Allocation> allocations = AllocationOptimizer.allocate(10, bids,
+                Map.of(10, 2), AllocationOptimizer.CHEAPEST_FIRST);
+
+        assertEquals(1, allocations.size());
+        assertEquals(2, allocations.get(0).trucks());
+    }
+
+    @Test
+    void allocate_MatchesExhaustiveSearchOnRandomLoads() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            List<Candidate> bids = new ArrayList<>();
+            int bidCount = 1 + random.nextInt(5);
+            for (int i = 0; i < bidCount; i++) {
+                bids.add(new Candidate(i, random.nextInt(3), 1_000 + random.nextInt(50) * 100.0, 1 + random.nextInt(3), 4.0));
+            }
+            Map<Integer, Integer> capacity = Map.of(0, random.nextInt(5), 1, random.nextInt(5), 2, random.nextInt(5));
+            int trucks = 1 + random.nextInt(6);
+
+            List<Allocation> greedy = AllocationOptimizer.allocate(trucks, bids, capacity, AllocationOptimizer.CHEAPEST_FIRST);
+            double[] best = exhaustive(bids, capacity, trucks);
+
+            assertEquals((int) best[0], greedy.stream().mapToInt(Allocation::trucks).sum(), "round " + round);
+            assertEquals(best[1], totalCost(greedy), 1e-6, "round " + round);
+        }
+    }
+
+    @Test
+    void allocate_HandlesHundredsOfBidsQuickly() {
+        Random random = new Random(3);
+        List<Candidate> bids = new ArrayList<>();
+        Map<Integer, Integer> capacity = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            bids.add(new Candidate(i, i % 200, 20_000 + random.nextInt(40_000), 1 + random.nextInt(10), 1 + random.nextInt(5)));
+            capacity.put(i % 200, 5 + random.nextInt(20));
+        }
+
+        long start = System.nanoTime();
+        List<Allocation> allocations = AllocationOptimizer.allocate(1_000, bids, capacity, AllocationOptimizer.BEST_SCORE_FIRST);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(1_000, allocations.stream().mapToInt(Allocation::trucks).sum());
+        assertTrue(elapsedMillis < 500, "took " + elapsedMillis + " ms");
+    }
+
+    private static double totalCost(List<Allocation> allocations) {
+        return allocations.stream().mapToDouble(a -> a.bid().proposedRate() * a.trucks()).sum();
+    }
+
+    /** Most trucks allocatable (up to the load), then the lowest cost for that many: {trucks, cost}. */
+    private static double[] exhaustive(List<Candidate> bids, Map<Integer, Integer> capacity, int trucks) {
+        double[] best = {0, 0};
+        search(bids, 0, new HashMap<>(capacity), trucks, 0, 0.0, best);
+        return best;
+    }
+
+    private static void search(List<Candidate> bids, int index, Map<Integer, Integer> capacity, int trucksLeft,
+                               int allocated, double cost, double[] best) {
+        if (allocated > best[0] || (allocated == best[0] && cost < best[1])) {
+            best[0] = allocated;
+            best[1] = cost;
+        }
+        if (index == bids.size()) {
+            return;
+        }
+        Candidate bid = bids.get(index);
+        int available = capacity.getOrDefault(bid.transporterId(), 0);
+        for (int n = 0; n <= Math.min(bid.trucksOffered(), Math.min(available, trucksLeft)); n++) {
+            capacity.put(bid.transporterId(), available - n);
+            search(bids, index + 1, capacity, trucksLeft - n, allocated + n, cost + n * bid.proposedRate(), best);
+        }
+        capacity.put(bid.transporterId(), available);
+    }
+}
@@ -0,0 +1,137 @@
+package com.tms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.AllocationPlan;
+import com.tms.dto.BatchBookingResponse;
+import com.tms.entity.*;
+import com.tms.exception.InsufficientCapacityException;
+import com.tms.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AllocationServiceTest {
+
+    private static final String TRUCK_TYPE = "CONTAINER-20FT";
+
+    @Autowired
+    private AllocationService allocationService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private TestFixtures fixtures;
+
+    private List<Transporter> transporters;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+
+        // capacities 2, 10 and 10; ratings 4.5, 2.0 and 5.0
+        transporters = new ArrayList<>();
+        transporters.add(fixtures.saveTransporter(4.5, TRUCK_TYPE, 2));
+        transporters.add(fixtures.saveTransporter(2.0, TRUCK_TYPE, 10));
+        transporters.add(fixtures.saveTransporter(5.0, TRUCK_TYPE, 10));
+    }
+
+    @Test
+    void planAllocation_CostFillsCheapestWithinTransporterCapacity() {
+        Load load = fixtures.saveLoad(TRUCK_TYPE, 5);
+        Bid capped = fixtures.saveBid(load, transporters.get(0), 30_000.0, 4);
+        Bid cheap = fixtures.saveBid(load, transporters.get(1), 35_000.0, 2);
+        Bid rest = fixtures.saveBid(load, transporters.get(2), 36_000.0, 5);
+
+        AllocationPlan plan = allocationService.planAllocation(load.getLoadId(), AllocationService.Objective.COST);
+
+        assertTrue(plan.isComplete());
+        assertEquals(5, plan.getTrucksAllocated());
+        assertEquals(List.of(capped.getBidId(), cheap.getBidId(), rest.getBidId()),
+                plan.getAllocations().stream().map(AllocationPlan.Item::getBidId).toList());
+        assertEquals(List.of(2, 2, 1),
+                plan.getAllocations().stream().map(AllocationPlan.Item::getAllocatedTrucks).toList());
+        assertEquals(2 * 30_000.0 + 2 * 35_000.0 + 36_000.0, plan.getTotalCost(), 1e-6);
+    }
+
+    @Test
+    void planAllocation_ScorePrefersBetterRatedTransporter() {
+        Load load = fixtures.saveLoad(TRUCK_TYPE, 2);
+        fixtures.saveBid(load, transporters.get(1), 35_000.0, 2);
+        Bid rated = fixtures.saveBid(load, transporters.get(2), 36_000.0, 2);
+
+        AllocationPlan plan = allocationService.planAllocation(load.getLoadId(), AllocationService.Objective.SCORE);
+
+        assertEquals(1, plan.getAllocations().size());
+        assertEquals(rated.getBidId(), plan.getAllocations().get(0).getBidId());
+    }
+
+    @Test
+    void applyAllocation_BooksPlanAndFillsLoad() {
+        Load load = fixtures.saveLoad(TRUCK_TYPE, 3);
+        fixtures.saveBid(load, transporters.get(1), 35_000.0, 2);
+        fixtures.saveBid(load, transporters.get(2), 36_000.0, 2);
+
+        BatchBookingResponse response = allocationService.applyAllocation(load.getLoadId(), AllocationService.Objective.COST);
+
+        assertEquals(2, response.getBooked());
+        assertEquals(0, response.getRemainingTrucks());
+        assertEquals("BOOKED", loadRepository.findById(load.getLoadId()).orElseThrow().getStatus());
+        assertThrows(InsufficientCapacityException.class,
+                () -> allocationService.applyAllocation(load.getLoadId(), AllocationService.Objective.COST));
+    }
+
+    @Test
+    void optimalAllocationEndpoints() throws Exception {
+        Load load = fixtures.saveLoad(TRUCK_TYPE, 4);
+        fixtures.saveBid(load, transporters.get(1), 35_000.0, 2);
+
+        JsonNode plan = objectMapper.readTree(mockMvc.perform(get("/load/{loadId}/optimal-allocation", load.getLoadId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertFalse(plan.get("complete").asBoolean());
+        assertEquals(2, plan.get("trucksAllocated").asInt());
+
+        mockMvc.perform(get("/load/{loadId}/optimal-allocation", load.getLoadId()).param("objective", "CHEAPEST"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/load/{loadId}/optimal-allocation", load.getLoadId()).param("objective", "SCORE"))
+                .andExpect(status().isCreated());
+        assertEquals(2, loadRepository.findById(load.getLoadId()).orElseThrow().getAllocatedTrucks());
+    }
+}
@@ -0,0 +1,210 @@
+package com.tms.service;
+
+import com.tms.dto.AuctionCloseReport;
+import com.tms.dto.BidRequest;
+import com.tms.entity.*;
+import com.tms.exception.InvalidStatusTransitionException;
+import com.tms.repository.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuctionServiceTest {
+
+    private static final String TRUCK_TYPE = "TRAILER";
+
+    @Autowired
+    private AuctionService auctionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private AllocationService allocationService;
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @SpyBean
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private TestFixtures fixtures;
+
+    private Transporter cheap;
+    private Transporter rated;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+
+        cheap = fixtures.saveTransporter(2.0, TRUCK_TYPE, 1000);
+        rated = fixtures.saveTransporter(5.0, TRUCK_TYPE, 1000);
+    }
+
+    @Test
+    void closeExpiredAuctions_AwardsExpiredLoadsOnly() {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        Load filled = saveLoad(2, past);
+        fixtures.saveBid(filled, rated, 40_000.0, 2);
+        Load partial = saveLoad(4, past);
+        fixtures.saveBid(partial, rated, 40_000.0, 2);
+        Load unfilled = saveLoad(1, past);
+        Load future = saveLoad(1, LocalDateTime.now().plusHours(1));
+        fixtures.saveBid(future, rated, 40_000.0, 1);
+        Load manual = saveLoad(1, null);
+        fixtures.saveBid(manual, rated, 40_000.0, 1);
+
+        AuctionCloseReport report = auctionService.closeExpiredAuctions();
+
+        assertEquals(3, report.getExpired());
+        assertEquals(1, report.getAwarded());
+        assertEquals(1, report.getPartial());
+        assertEquals(1, report.getUnfilled());
+        assertEquals(0, report.getFailed());
+        assertTrue(report.getP50Millis() <= report.getMaxMillis());
+
+        assertEquals("BOOKED", reload(filled).getStatus());
+        assertEquals(2, reload(partial).getAllocatedTrucks());
+        assertEquals("OPEN_FOR_BIDS", reload(unfilled).getStatus());
+        for (Load closed : List.of(filled, partial, unfilled)) {
+            assertNotNull(reload(closed).getAuctionClosedAt());
+            assertNotNull(reload(closed).getBiddingDeadline());
+        }
+        assertNull(reload(future).getAuctionClosedAt());
+        assertEquals(0, reload(future).getAllocatedTrucks());
+        assertEquals(0, reload(manual).getAllocatedTrucks());
+
+        assertEquals(0, auctionService.closeExpiredAuctions().getExpired());
+    }
+
+    @Test
+    void closeExpiredAuctions_AwardsBestScoreNotLowestRate() {
+        Load load = saveLoad(1, LocalDateTime.now().minusMinutes(1));
+        fixtures.saveBid(load, cheap, 38_000.0, 1);
+        Bid best = fixtures.saveBid(load, rated, 40_000.0, 1);
+
+        auctionService.closeExpiredAuctions();
+
+        List<Booking> bookings = bookingRepository.findAll();
+        assertEquals(1, bookings.size());
+        assertEquals(best.getBidId(), bookings.get(0).getBidId());
+    }
+
+    @Test
+    void closeExpiredAuctions_ClosesManyLoadsAcrossWorkers() {
+        int loads = 200;
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        List<Load> saved = new ArrayList<>();
+        for (int i = 0; i < loads; i++) {
+            Load load = saveLoad(1, past);
+            fixtures.saveBid(load, i % 2 == 0 ? cheap : rated, 40_000.0, 1);
+            saved.add(load);
+        }
+        double awardedBefore = meterRegistry.timer("tms.auction.close", "outcome", "AWARDED").count();
+
+        AuctionCloseReport report = auctionService.closeExpiredAuctions();
+
+        assertEquals(loads, report.getExpired());
+        assertEquals(loads, report.getAwarded());
+        assertEquals(loads, bookingRepository.count());
+        assertEquals(loads, meterRegistry.timer("tms.auction.close", "outcome", "AWARDED").count() - awardedBefore);
+        assertEquals(1000 - loads / 2, truckCapacityRepository.findAll().get(0).getCount());
+        saved.forEach(load -> assertEquals("BOOKED", reload(load).getStatus()));
+    }
+
+    @Test
+    void closeExpiredAuctions_FailedLoadBacksOffBehindNewerLoads() {
+        Load failing = saveLoad(1, LocalDateTime.now().minusMinutes(10));
+        fixtures.saveBid(failing, rated, 40_000.0, 1);
+        doThrow(new IllegalStateException("Allocation failed"))
+                .when(allocationService).applyAllocation(eq(failing.getLoadId()), any(), any());
+
+        AuctionCloseReport first = auctionService.closeExpiredAuctions();
+
+        assertEquals(1, first.getFailed());
+        assertNull(reload(failing).getAuctionClosedAt());
+
+        Load newer = saveLoad(1, LocalDateTime.now().minusMinutes(1));
+        fixtures.saveBid(newer, rated, 40_000.0, 1);
+
+        AuctionCloseReport second = auctionService.closeExpiredAuctions();
+
+        assertEquals(1, second.getExpired());
+        assertEquals(1, second.getAwarded());
+        assertEquals(1, second.getDeferred());
+        assertEquals("BOOKED", reload(newer).getStatus());
+        verify(allocationService, times(1)).applyAllocation(eq(failing.getLoadId()), any(), any());
+    }
+
+    @Test
+    void closeExpiredAuctions_UnfilledLoadTakesNoNewBids() {
+        Load unfilled = saveLoad(1, LocalDateTime.now().minusMinutes(1));
+
+        assertEquals(1, auctionService.closeExpiredAuctions().getUnfilled());
+
+        BidRequest request = new BidRequest();
+        request.setLoadId(unfilled.getLoadId());
+        request.setTransporterId(rated.getTransporterId());
+        request.setProposedRate(40_000.0);
+        request.setTrucksOffered(1);
+        assertThrows(InvalidStatusTransitionException.class, () -> bidService.createBid(request));
+        assertEquals(0, bidRepository.count());
+        assertEquals(0, auctionService.closeExpiredAuctions().getExpired());
+    }
+
+    @Test
+    void closeExpiredAuctions_FailedCloseRollsBackTheBooking() {
+        Load load = saveLoad(1, LocalDateTime.now().minusMinutes(1));
+        Bid bid = fixtures.saveBid(load, rated, 40_000.0, 1);
+        doThrow(new QueryTimeoutException("Close timed out"))
+                .when(loadRepository).closeAuction(eq(load.getLoadId()), any());
+
+        AuctionCloseReport report = auctionService.closeExpiredAuctions();
+
+        assertEquals(1, report.getFailed());
+        assertEquals(0, bookingRepository.count());
+        assertEquals(0, reload(load).getAllocatedTrucks());
+        assertNull(reload(load).getAuctionClosedAt());
+        assertEquals("PENDING", bidRepository.findById(bid.getBidId()).orElseThrow().getStatus());
+    }
+
+    private Load reload(Load load) {
+        return loadRepository.findById(load.getLoadId()).orElseThrow();
+    }
+
+    private Load saveLoad(int trucks, LocalDateTime biddingDeadline) {
+        return fixtures.saveLoad(TRUCK_TYPE, trucks, load -> load.setBiddingDeadline(biddingDeadline));
+    }
+}
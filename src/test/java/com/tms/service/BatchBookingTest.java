@@ -0,0 +1,141 @@
+package com.tms.service;
+
+import com.tms.dto.BatchBookingRequest;
+import com.tms.dto.BatchBookingResponse;
+import com.tms.dto.BookingRequest;
+import com.tms.entity.*;
+import com.tms.exception.LoadAlreadyBookedException;
+import com.tms.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchBookingTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TestFixtures fixtures;
+
+    private Statistics statistics;
+    private List<Transporter> transporters;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transporters = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            transporters.add(fixtures.saveTransporter(4.0, "CONTAINER-20FT", 100));
+        }
+    }
+
+    @Test
+    void createBookings_FillsLoadAndDeductsCapacityPerTransporter() {
+        Load load = fixtures.saveLoad("CONTAINER-20FT", 4);
+        List<Bid> bids = createBids(load, 4);
+
+        BatchBookingResponse response = bookingService.createBookings(batch(load, bids, BatchBookingRequest.ALL_OR_NOTHING));
+
+        assertEquals(4, response.getBooked());
+        assertEquals(0, response.getRemainingTrucks());
+        assertEquals("BOOKED", loadRepository.findById(load.getLoadId()).orElseThrow().getStatus());
+        assertEquals(4, bookingRepository.count());
+        assertEquals(4, bidRepository.findByLoadIdAndStatus(load.getLoadId(), "ACCEPTED").size());
+        for (Transporter transporter : transporters) {
+            assertEquals(98, truckCapacityRepository
+                    .findByTransporterTransporterIdAndTruckType(transporter.getTransporterId(), "CONTAINER-20FT")
+                    .orElseThrow().getCount());
+        }
+    }
+
+    @Test
+    void createBookings_AllOrNothing_LeavesNothingBehindOnRejection() {
+        Load load = fixtures.saveLoad("CONTAINER-20FT", 2);
+        List<Bid> bids = createBids(load, 3);
+
+        assertThrows(LoadAlreadyBookedException.class,
+                () -> bookingService.createBookings(batch(load, bids, BatchBookingRequest.ALL_OR_NOTHING)));
+
+        assertEquals(0, bookingRepository.count());
+        assertEquals(0, loadRepository.findById(load.getLoadId()).orElseThrow().getAllocatedTrucks());
+        assertEquals(3, bidRepository.findByLoadIdAndStatus(load.getLoadId(), "PENDING").size());
+    }
+
+    @Test
+    void createBookings_StatementCountIndependentOfBatchSize() {
+        Load smallLoad = fixtures.saveLoad("CONTAINER-20FT", 5);
+        BatchBookingRequest small = batch(smallLoad, createBids(smallLoad, 5), BatchBookingRequest.ALL_OR_NOTHING);
+        Load largeLoad = fixtures.saveLoad("CONTAINER-20FT", 40);
+        BatchBookingRequest large = batch(largeLoad, createBids(largeLoad, 40), BatchBookingRequest.ALL_OR_NOTHING);
+
+        long smallBatchStatements = countStatements(() -> bookingService.createBookings(small));
+        long largeBatchStatements = countStatements(() -> bookingService.createBookings(large));
+
+        assertEquals(40, bookingRepository.findByLoadId(largeLoad.getLoadId()).size());
+        // at most one extra round trip to refill the booking id pool
+        assertTrue(largeBatchStatements <= smallBatchStatements + 1,
+                "Statements must not grow with the batch size: " + smallBatchStatements + " vs " + largeBatchStatements);
+    }
+
+    private List<Bid> createBids(Load load, int count) {
+        List<Bid> bids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bids.add(fixtures.saveBid(load, transporters.get(i % transporters.size()), 40000.0 + i, 1));
+        }
+        return bids;
+    }
+
+    private static BatchBookingRequest batch(Load load, List<Bid> bids, String mode) {
+        BatchBookingRequest request = new BatchBookingRequest();
+        request.setLoadId(load.getLoadId());
+        request.setMode(mode);
+        request.setItems(bids.stream().map(bid -> {
+            BookingRequest item = new BookingRequest();
+            item.setBidId(bid.getBidId());
+            item.setAllocatedTrucks(1);
+            return item;
+        }).toList());
+        return request;
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
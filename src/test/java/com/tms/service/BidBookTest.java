@@ -0,0 +1,130 @@
+package com.tms.service;
+
+import com.tms.dto.BidResponse;
+import com.tms.dto.TransporterSummary;
+import com.tms.entity.Bid;
+import com.tms.repository.BidRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BidBookTest {
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private TransporterSummaryCache transporterSummaryCache;
+
+    private BidBook bidBook;
+
+    private TransporterSummary goodTransporter;
+    private TransporterSummary averageTransporter;
+
+    @BeforeEach
+    void setUp() {
+        bidBook = new BidBook(bidRepository, transporterSummaryCache, 100, 30);
+        goodTransporter = new TransporterSummary(1, "Good Transport", 5.0);
+        averageTransporter = new TransporterSummary(2, "Average Transport", 3.0);
+    }
+
+    @Test
+    void getBestBids_RebuildsOnMissAndSortsByScore() {
+        when(bidRepository.findByLoadIdAndStatus(1, "PENDING"))
+                .thenReturn(List.of(bid(10, 2, 40000.0), bid(11, 1, 40000.0)));
+        when(transporterSummaryCache.getAll(any())).thenReturn(Map.of(1, goodTransporter, 2, averageTransporter));
+
+        List<BidResponse> bids = bidBook.getBestBids(1);
+
+        assertEquals(List.of(11, 10), bids.stream().map(BidResponse::getBidId).toList());
+        assertEquals("Good Transport", bids.get(0).getTransporterCompanyName());
+        assertEquals(BidBook.score(40000.0, 5.0), bids.get(0).getScore());
+        assertTrue(bidBook.contains(1));
+    }
+
+    @Test
+    void getBestBids_CachedBookSkipsDatabase() {
+        when(bidRepository.findByLoadIdAndStatus(1, "PENDING")).thenReturn(List.of());
+
+        bidBook.getBestBids(1);
+        bidBook.getBestBids(1);
+
+        verify(bidRepository, times(1)).findByLoadIdAndStatus(1, "PENDING");
+        verify(transporterSummaryCache, times(1)).getAll(any());
+    }
+
+    @Test
+    void bidCreated_InsertsIntoRankedPosition() {
+        when(bidRepository.findByLoadIdAndStatus(1, "PENDING")).thenReturn(List.of(bid(10, 2, 40000.0)));
+        when(transporterSummaryCache.getAll(any())).thenReturn(Map.of(2, averageTransporter));
+        bidBook.getBestBids(1);
+
+        bidBook.bidCreated(bid(11, 1, 40000.0), goodTransporter);
+
+        assertEquals(List.of(11, 10), bidBook.getBestBids(1).stream().map(BidResponse::getBidId).toList());
+    }
+
+    @Test
+    void bidRemoved_DropsBidFromBook() {
+        when(bidRepository.findByLoadIdAndStatus(1, "PENDING"))
+                .thenReturn(List.of(bid(10, 2, 40000.0), bid(11, 1, 40000.0)));
+        when(transporterSummaryCache.getAll(any())).thenReturn(Map.of(1, goodTransporter, 2, averageTransporter));
+        bidBook.getBestBids(1);
+
+        bidBook.bidRemoved(1, 11);
+
+        assertEquals(List.of(10), bidBook.getBestBids(1).stream().map(BidResponse::getBidId).toList());
+    }
+
+    @Test
+    void getBestBids_TopKWithOffset() {
+        when(bidRepository.findByLoadIdAndStatus(1, "PENDING"))
+                .thenReturn(List.of(bid(10, 1, 40000.0), bid(11, 1, 30000.0), bid(12, 1, 50000.0), bid(13, 1, 45000.0)));
+        when(transporterSummaryCache.getAll(any())).thenReturn(Map.of(1, goodTransporter));
+
+        List<BidResponse> page = bidBook.getBestBids(1, 1, 2);
+
+        assertEquals(List.of(10, 13), page.stream().map(BidResponse::getBidId).toList());
+        assertTrue(bidBook.getBestBids(1, 4, 2).isEmpty());
+    }
+
+    @Test
+    void bidCreated_WithoutBookDoesNotBuildOne() {
+        bidBook.bidCreated(bid(10, 1, 40000.0), goodTransporter);
+
+        assertFalse(bidBook.contains(1));
+    }
+
+    @Test
+    void evict_ForcesRebuild() {
+        when(bidRepository.findByLoadIdAndStatus(1, "PENDING")).thenReturn(List.of());
+        bidBook.getBestBids(1);
+
+        bidBook.evict(1);
+
+        assertFalse(bidBook.contains(1));
+        bidBook.getBestBids(1);
+        verify(bidRepository, times(2)).findByLoadIdAndStatus(1, "PENDING");
+    }
+
+    private Bid bid(int bidId, int transporterId, double rate) {
+        Bid bid = new Bid();
+        bid.setBidId(bidId);
+        bid.setLoadId(1);
+        bid.setTransporterId(transporterId);
+        bid.setProposedRate(rate);
+        bid.setTrucksOffered(1);
+        bid.setStatus("PENDING");
+        return bid;
+    }
+}
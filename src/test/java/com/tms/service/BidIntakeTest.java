@@ -0,0 +1,288 @@
+package com.tms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.BatchBidResponse;
+import com.tms.dto.BidRequest;
+import com.tms.dto.BidResponse;
+import com.tms.dto.BidTicket;
+import com.tms.entity.*;
+import com.tms.exception.ServiceBusyException;
+import com.tms.repository.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"tms.bid.intake.mode=ASYNC", "tms.bid.intake.batch-size=50"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BidIntakeTest {
+
+    private static final String TRUCK_TYPE = "CONTAINER-20FT";
+
+    @Autowired
+    private BidIntake bidIntake;
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private LaneIndex laneIndex;
+
+    @Autowired
+    private TransporterCapacityIndex capacityIndex;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private TestFixtures fixtures;
+
+    private Transporter transporter;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+
+        transporter = fixtures.saveTransporter(4.0, TRUCK_TYPE, 5);
+
+        laneIndex.rebuild();
+        capacityIndex.rebuild();
+    }
+
+    @Test
+    void postBid_Returns202WithTicketThatResolvesToBid() throws Exception {
+        Load load = saveLoad("POSTED");
+        laneIndex.rebuild();
+
+        MvcResult queued = mockMvc.perform(post("/bid")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bidRequest(load, 2))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn();
+        JsonNode ticket = objectMapper.readTree(queued.getResponse().getContentAsString());
+        assertEquals(BidTicket.QUEUED, ticket.get("status").asText());
+
+        MvcResult waiting = mockMvc.perform(get(queued.getResponse().getHeader("Location")).param("waitMs", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        JsonNode outcome = objectMapper.readTree(mockMvc.perform(asyncDispatch(waiting))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(BidTicket.CREATED, outcome.get("status").asText());
+        Integer bidId = outcome.get("bid").get("bidId").asInt();
+        assertTrue(bidRepository.existsById(bidId));
+        assertEquals("OPEN_FOR_BIDS", loadRepository.findById(load.getLoadId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void postBid_PrecheckFailureIsRejectedWithoutTicket() throws Exception {
+        Load load = saveLoad("OPEN_FOR_BIDS");
+        laneIndex.rebuild();
+
+        mockMvc.perform(post("/bid")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bidRequest(load, 6))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/bid/tickets/{ticketId}", "unknown"))
+                .andExpect(status().isNotFound());
+        assertEquals(0, bidRepository.count());
+    }
+
+    @Test
+    void submit_SpikeIsWrittenInFewerCommitsThanBids() throws Exception {
+        int total = 300;
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            loads.add(saveLoad("OPEN_FOR_BIDS"));
+        }
+        laneIndex.rebuild();
+        DistributionSummary batches = meterRegistry.find("tms.bid.intake.batch.size").summary();
+        long commitsBefore = batches.count();
+
+        List<CompletableFuture<BidTicket>> outcomes = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            BidTicket ticket = bidIntake.submit(bidRequest(loads.get(i % loads.size()), 1));
+            outcomes.add(bidIntake.awaitTicket(ticket.getTicketId(), 10_000));
+        }
+        for (CompletableFuture<BidTicket> outcome : outcomes) {
+            assertEquals(BidTicket.CREATED, outcome.get(15, TimeUnit.SECONDS).getStatus());
+        }
+
+        assertEquals(total, bidRepository.count());
+        assertTrue(batches.count() - commitsBefore < total, "Commits: " + (batches.count() - commitsBefore));
+    }
+
+    @Test
+    void createQueuedBids_RejectsItemsThatFailAgainstTheDatabase() {
+        Load open = saveLoad("OPEN_FOR_BIDS");
+        Load cancelled = saveLoad("CANCELLED");
+
+        List<BatchBidResponse.ItemResult> results = bidService.createQueuedBids(
+                List.of(bidRequest(open, 1), bidRequest(cancelled, 1), bidRequest(open, 9)));
+
+        assertNotNull(results.get(0).getBid());
+        assertEquals("Cannot bid on a load with status: CANCELLED", results.get(1).getError());
+        assertNotNull(results.get(2).getError());
+        assertEquals(1, bidRepository.count());
+    }
+
+    @Test
+    void createQueuedBids_RejectsBidsPastTheDeadline() {
+        Load expired = saveLoad("OPEN_FOR_BIDS");
+        expired.setBiddingDeadline(LocalDateTime.now().minusSeconds(1));
+        expired = loadRepository.save(expired);
+        Load open = saveLoad("OPEN_FOR_BIDS");
+        open.setBiddingDeadline(LocalDateTime.now().plusHours(1));
+        open = loadRepository.save(open);
+
+        List<BatchBidResponse.ItemResult> results = bidService.createQueuedBids(
+                List.of(bidRequest(expired, 1), bidRequest(open, 1)));
+
+        assertTrue(results.get(0).getError().startsWith("Bidding on load " + expired.getLoadId() + " closed at"));
+        assertNotNull(results.get(1).getBid());
+        assertEquals(1, bidRepository.count());
+    }
+
+    @Test
+    void write_RetriesTransientFailures() throws Exception {
+        BidService writer = mock(BidService.class);
+        when(writer.createQueuedBids(any()))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout"))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)));
+        BidIntake intake = standaloneIntake(writer);
+
+        BidTicket ticket = intake.submit(bidRequest(saveLoad("OPEN_FOR_BIDS"), 1));
+        intake.shutdown();
+
+        assertEquals(BidTicket.CREATED, intake.getTicket(ticket.getTicketId()).getStatus());
+        verify(writer, times(2)).createQueuedBids(any());
+    }
+
+    @Test
+    void write_BatchTheDatabaseRefuses_IsWrittenBidByBid() throws Exception {
+        BidService writer = mock(BidService.class);
+        when(writer.createQueuedBids(any())).thenAnswer(invocation -> {
+            List<BidRequest> requests = invocation.getArgument(0);
+            if (requests.stream().anyMatch(request -> request.getTrucksOffered() == 9)) {
+                throw new DataIntegrityViolationException("Value too long for column");
+            }
+            return created(requests);
+        });
+        BidIntake intake = standaloneIntake(writer);
+        Load load = saveLoad("OPEN_FOR_BIDS");
+
+        List<BidTicket> tickets = List.of(intake.submit(bidRequest(load, 1)), intake.submit(bidRequest(load, 9)),
+                intake.submit(bidRequest(load, 2)));
+        intake.shutdown();
+
+        assertEquals(BidTicket.CREATED, intake.getTicket(tickets.get(0).getTicketId()).getStatus());
+        BidTicket refused = intake.getTicket(tickets.get(1).getTicketId());
+        assertEquals(BidTicket.REJECTED, refused.getStatus());
+        assertEquals("Bid rejected by the database: Value too long for column", refused.getError());
+        assertEquals(BidTicket.CREATED, intake.getTicket(tickets.get(2).getTicketId()).getStatus());
+        // the batch once, then each bid on its own
+        verify(writer, times(4)).createQueuedBids(any());
+    }
+
+    @Test
+    void submit_AfterShutdown_IsRefused() throws Exception {
+        BidService writer = mock(BidService.class);
+        BidIntake intake = standaloneIntake(writer);
+        Load load = saveLoad("OPEN_FOR_BIDS");
+        intake.shutdown();
+
+        assertThrows(ServiceBusyException.class, () -> intake.submit(bidRequest(load, 1)));
+        verify(writer, never()).createQueuedBids(any());
+    }
+
+    @Test
+    void ticketCacheSmallerThanTheQueue_IsRefused() {
+        assertThrows(IllegalArgumentException.class, () -> new BidIntake(mock(BidService.class),
+                new SimpleMeterRegistry(), BidIntake.Mode.SYNC, 100, 50, 1, 10, 99, 3, 0));
+    }
+
+    private BidRequest bidRequest(Load load, int trucks) {
+        BidRequest request = new BidRequest();
+        request.setLoadId(load.getLoadId());
+        request.setTransporterId(transporter.getTransporterId());
+        request.setProposedRate(42_000.0);
+        request.setTrucksOffered(trucks);
+        return request;
+    }
+
+    private Load saveLoad(String status) {
+        return fixtures.saveLoad(TRUCK_TYPE, 3, load -> load.setStatus(status));
+    }
+
+    /**
+     * SYNC mode starts no writers, so queued bids are only written by the drain in shutdown().
+     */
+    private static BidIntake standaloneIntake(BidService writer) {
+        return new BidIntake(writer, new SimpleMeterRegistry(), BidIntake.Mode.SYNC, 100, 50, 1, 10, 1000, 3, 0);
+    }
+
+    private static List<BatchBidResponse.ItemResult> created(List<BidRequest> requests) {
+        return requests.stream().map(request -> {
+            BidResponse bid = new BidResponse();
+            bid.setLoadId(request.getLoadId());
+            return new BatchBidResponse.ItemResult(request.getLoadId(), bid, null);
+        }).toList();
+    }
+}
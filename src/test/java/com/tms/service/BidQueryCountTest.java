@@ -0,0 +1,175 @@
+package com.tms.service;
+
+import com.tms.dto.BatchBidRequest;
+import com.tms.dto.BidResponse;
+import com.tms.entity.*;
+import com.tms.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BidQueryCountTest {
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TestFixtures fixtures;
+    private Statistics statistics;
+    private Load testLoad;
+    private List<Transporter> transporters;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        testLoad = fixtures.saveLoad("CONTAINER-20FT", 3);
+
+        transporters = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            transporters.add(fixtures.saveTransporter(4.0, "CONTAINER-20FT", 5));
+        }
+    }
+
+    @Test
+    void streamBids_QueryCountIndependentOfResultSize() {
+        insertPendingBids(10);
+        long smallResultQueries = countStatements(() -> assertEquals(10, bids(null, null, "PENDING").size()));
+
+        insertPendingBids(190);
+        long largeResultQueries = countStatements(() -> assertEquals(200, bids(null, null, "PENDING").size()));
+
+        assertEquals(2, smallResultQueries, "Bids and transporters should be fetched with one query each");
+        assertTrue(largeResultQueries <= smallResultQueries, "Query count must not grow with the number of bids");
+    }
+
+    @Test
+    void streamBids_RepeatedListingServesTransportersFromCache() {
+        insertPendingBids(20);
+        bids(testLoad.getLoadId(), null, null);
+
+        long queries = countStatements(() -> assertEquals(20, bids(testLoad.getLoadId(), null, null).size()));
+
+        assertEquals(1, queries, "Only the bids themselves should be queried once transporters are cached");
+    }
+
+    @Test
+    void streamBids_ResolvesCompanyNames() {
+        insertPendingBids(3);
+
+        List<BidResponse> response = bids(testLoad.getLoadId(), null, null);
+
+        assertEquals(3, response.size());
+        response.forEach(bid -> assertNotNull(bid.getTransporterCompanyName()));
+    }
+
+    @Test
+    void streamBids_AppliesEveryFilter() {
+        insertPendingBids(4);
+        Integer transporterId = transporters.get(1).getTransporterId();
+
+        List<BidResponse> response = bids(testLoad.getLoadId(), transporterId, "PENDING");
+
+        assertEquals(1, response.size());
+        assertEquals(transporterId, response.get(0).getTransporterId());
+        assertTrue(bids(testLoad.getLoadId(), transporterId, "REJECTED").isEmpty());
+    }
+
+    @Test
+    void streamBids_EmptyResultSkipsTransporterLookup() {
+        long queries = countStatements(() -> assertTrue(bids(null, null, "REJECTED").isEmpty()));
+
+        assertEquals(1, queries);
+    }
+
+    @Test
+    void createBids_StatementCountIndependentOfBatchSize() {
+        List<Load> smallBatchLoads = postLoads(5);
+        List<Load> largeBatchLoads = postLoads(50);
+        Integer transporterId = transporters.get(0).getTransporterId();
+
+        long smallBatchQueries = countStatements(() -> assertEquals(5,
+                bidService.createBids(batchOn(transporterId, smallBatchLoads)).getCreated()));
+        long largeBatchQueries = countStatements(() -> assertEquals(50,
+                bidService.createBids(batchOn(transporterId, largeBatchLoads)).getCreated()));
+
+        // at most one extra round trip to refill the bid id pool
+        assertTrue(largeBatchQueries <= smallBatchQueries + 1,
+                "Statements must not grow with the batch size: " + smallBatchQueries + " vs " + largeBatchQueries);
+        Load opened = loadRepository.findById(largeBatchLoads.get(0).getLoadId()).orElseThrow();
+        assertEquals("OPEN_FOR_BIDS", opened.getStatus());
+        assertEquals(largeBatchLoads.get(0).getVersion() + 1, opened.getVersion());
+    }
+
+    private List<Load> postLoads(int count) {
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            loads.add(fixtures.saveLoad("CONTAINER-20FT", 1, load -> {
+                load.setLoadingCity("Pune");
+                load.setUnloadingCity("Goa");
+                load.setStatus("POSTED");
+            }));
+        }
+        return loads;
+    }
+
+    private static BatchBidRequest batchOn(Integer transporterId, List<Load> loads) {
+        BatchBidRequest request = new BatchBidRequest();
+        request.setTransporterId(transporterId);
+        request.setItems(loads.stream()
+                .map(load -> new BatchBidRequest.Item(load.getLoadId(), 30000.0, 1))
+                .toList());
+        return request;
+    }
+
+    private void insertPendingBids(int count) {
+        for (int i = 0; i < count; i++) {
+            fixtures.saveBid(testLoad, transporters.get(i % transporters.size()), 40000.0 + i, 1);
+        }
+    }
+
+    private List<BidResponse> bids(Integer loadId, Integer transporterId, String status) {
+        List<BidResponse> bids = new ArrayList<>();
+        bidService.streamBids(loadId, transporterId, status, bids::add);
+        return bids;
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
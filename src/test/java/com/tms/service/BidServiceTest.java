@@ -1,7 +1,11 @@
 package com.tms.service;
 
+import com.tms.dto.BatchBidRequest;
+import com.tms.dto.BatchBidResponse;
 import com.tms.dto.BidRequest;
 import com.tms.dto.BidResponse;
+import com.tms.dto.LaneLoadResponse;
+import com.tms.dto.TransporterSummary;
 import com.tms.entity.Bid;
 import com.tms.entity.Load;
 import com.tms.entity.Transporter;
@@ -11,21 +15,29 @@ import com.tms.exception.InvalidStatusTransitionException;
 import com.tms.exception.ResourceNotFoundException;
 import com.tms.repository.BidRepository;
 import com.tms.repository.LoadRepository;
-import com.tms.repository.TransporterRepository;
 import com.tms.repository.TruckCapacityRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,11 +50,26 @@ class BidServiceTest {
     private LoadRepository loadRepository;
 
     @Mock
-    private TransporterRepository transporterRepository;
+    private TransporterSummaryCache transporterSummaryCache;
 
     @Mock
     private TruckCapacityRepository truckCapacityRepository;
 
+    @Mock
+    private BidBook bidBook;
+
+    @Mock
+    private LaneRateStats laneRateStats;
+
+    @Mock
+    private LaneIndex laneIndex;
+
+    @Mock
+    private TransporterCapacityIndex capacityIndex;
+
+    @Spy
+    private EntityStreams entityStreams = new EntityStreams(mock(EntityManager.class));
+
     @InjectMocks
     private BidService bidService;
 
@@ -54,27 +81,18 @@ class BidServiceTest {
 
     @BeforeEach
     void setUp() {
-        testLoad = new Load();
+        testLoad = TestFixtures.newLoad("CONTAINER-20FT", 3);
         testLoad.setLoadId(1);
         testLoad.setStatus("POSTED");
-        testLoad.setTruckType("CONTAINER-20FT");
-        testLoad.setNoOfTrucks(3);
 
-        testTransporter = new Transporter();
+        testTransporter = TestFixtures.newTransporter(4.5);
         testTransporter.setTransporterId(1);
-        testTransporter.setCompanyName("Test Transport");
-        testTransporter.setRating(4.5);
 
         testTruckCapacity = new TruckCapacity("CONTAINER-20FT", 10);
         testTruckCapacity.setTransporter(testTransporter);
 
-        testBid = new Bid();
+        testBid = TestFixtures.newBid(testLoad, testTransporter, 50000.0, 3);
         testBid.setBidId(1);
-        testBid.setLoadId(1);
-        testBid.setTransporterId(1);
-        testBid.setProposedRate(50000.0);
-        testBid.setTrucksOffered(3);
-        testBid.setStatus("PENDING");
 
         testBidRequest = new BidRequest();
         testBidRequest.setLoadId(1);
@@ -86,7 +104,7 @@ class BidServiceTest {
     @Test
     void createBid_Success() {
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
         when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
                 .thenReturn(Optional.of(testTruckCapacity));
         when(bidRepository.save(any(Bid.class))).thenReturn(testBid);
@@ -97,6 +115,8 @@ class BidServiceTest {
         assertNotNull(response);
         assertEquals(50000.0, response.getProposedRate());
         assertEquals("PENDING", response.getStatus());
+        verify(bidBook).bidCreated(eq(testBid), any());
+        verify(laneRateStats).bidPlaced(testLoad, 50000.0);
     }
 
     @Test
@@ -123,11 +143,32 @@ class BidServiceTest {
         assertThrows(InvalidStatusTransitionException.class, () -> bidService.createBid(testBidRequest));
     }
 
+    @Test
+    void createBid_BiddingDeadlinePassed_ThrowsException() {
+        testLoad.setBiddingDeadline(LocalDateTime.now().minusSeconds(1));
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+
+        InvalidStatusTransitionException ex = assertThrows(InvalidStatusTransitionException.class,
+                () -> bidService.createBid(testBidRequest));
+
+        assertTrue(ex.getMessage().startsWith("Bidding on load 1 closed at"));
+        verifyNoInteractions(bidRepository);
+    }
+
+    @Test
+    void createBid_TransporterNotFound_ThrowsException() {
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(transporterSummaryCache.get(1)).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> bidService.createBid(testBidRequest));
+        verifyNoInteractions(truckCapacityRepository);
+    }
+
     @Test
     void createBid_InsufficientCapacity_ThrowsException() {
         testTruckCapacity.setCount(1);
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
         when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
                 .thenReturn(Optional.of(testTruckCapacity));
 
@@ -137,7 +178,7 @@ class BidServiceTest {
     @Test
     void createBid_NoTruckType_ThrowsException() {
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
         when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
                 .thenReturn(Optional.empty());
 
@@ -148,7 +189,7 @@ class BidServiceTest {
     void createBid_UpdatesLoadStatusToOpenForBids() {
         testLoad.setStatus("POSTED");
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
         when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
                 .thenReturn(Optional.of(testTruckCapacity));
         when(bidRepository.save(any(Bid.class))).thenReturn(testBid);
@@ -163,6 +204,89 @@ class BidServiceTest {
         verify(loadRepository).save(any(Load.class));
     }
 
+    @Test
+    void createBids_ValidatesEachItemOnItsOwn() {
+        Load bookedLoad = load(2, "BOOKED", "CONTAINER-20FT");
+        Load otherTypeLoad = load(3, "OPEN_FOR_BIDS", "CONTAINER-40FT");
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.findByTransporterTransporterId(1)).thenReturn(List.of(testTruckCapacity));
+        when(loadRepository.findAllById(Set.of(1, 2, 3, 4))).thenReturn(List.of(testLoad, bookedLoad, otherTypeLoad));
+
+        BatchBidResponse response = bidService.createBids(batch(
+                new BatchBidRequest.Item(1, 50000.0, 3),
+                new BatchBidRequest.Item(2, 50000.0, 1),
+                new BatchBidRequest.Item(3, 50000.0, 1),
+                new BatchBidRequest.Item(4, 50000.0, 1),
+                new BatchBidRequest.Item(1, 48000.0, 20)));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(4, response.getRejected());
+        assertNotNull(response.getResults().get(0).getBid());
+        assertEquals("Cannot bid on a load with status: BOOKED", response.getResults().get(1).getError());
+        assertEquals("Transporter does not have CONTAINER-40FT truck type", response.getResults().get(2).getError());
+        assertEquals("Load not found with ID: 4", response.getResults().get(3).getError());
+        assertEquals("Transporter only has 10 trucks available, but bid offers 20", response.getResults().get(4).getError());
+        verify(bidRepository).saveAll(argThat(bids -> ((Collection<?>) bids).size() == 1));
+        verify(loadRepository).openForBids(Set.of(1));
+        verify(bidBook, times(1)).bidCreated(any(), any());
+        verify(truckCapacityRepository, never()).findByTransporterTransporterIdAndTruckType(any(), any());
+    }
+
+    @Test
+    void createBids_RejectsLoadsPastTheirDeadline() {
+        Load expired = load(2, "OPEN_FOR_BIDS", "CONTAINER-20FT");
+        expired.setBiddingDeadline(LocalDateTime.now().minusMinutes(1));
+        testLoad.setBiddingDeadline(LocalDateTime.now().plusHours(1));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.findByTransporterTransporterId(1)).thenReturn(List.of(testTruckCapacity));
+        when(loadRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(testLoad, expired));
+
+        BatchBidResponse response = bidService.createBids(batch(
+                new BatchBidRequest.Item(1, 50000.0, 1),
+                new BatchBidRequest.Item(2, 50000.0, 1)));
+
+        assertEquals(1, response.getCreated());
+        assertNotNull(response.getResults().get(0).getBid());
+        assertTrue(response.getResults().get(1).getError().startsWith("Bidding on load 2 closed at"));
+        verify(loadRepository).openForBids(Set.of(1));
+    }
+
+    @Test
+    void createBids_TransporterNotFound_ThrowsException() {
+        when(transporterSummaryCache.get(1)).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> bidService.createBids(batch(new BatchBidRequest.Item(1, 50000.0, 1))));
+        verifyNoInteractions(loadRepository, bidRepository);
+    }
+
+    @Test
+    void createBids_AllRejected_WritesNothing() {
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.findByTransporterTransporterId(1)).thenReturn(List.of());
+        when(loadRepository.findAllById(Set.of(1))).thenReturn(List.of(testLoad));
+
+        BatchBidResponse response = bidService.createBids(batch(new BatchBidRequest.Item(1, 50000.0, 1)));
+
+        assertEquals(0, response.getCreated());
+        verify(bidRepository, never()).saveAll(any());
+        verify(loadRepository, never()).openForBids(any());
+    }
+
+    private static BatchBidRequest batch(BatchBidRequest.Item... items) {
+        BatchBidRequest request = new BatchBidRequest();
+        request.setTransporterId(1);
+        request.setItems(List.of(items));
+        return request;
+    }
+
+    private static Load load(int loadId, String status, String truckType) {
+        Load load = TestFixtures.newLoad(truckType, 2);
+        load.setLoadId(loadId);
+        load.setStatus(status);
+        return load;
+    }
+
     @Test
     void rejectBid_Success() {
         when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
@@ -171,11 +295,12 @@ class BidServiceTest {
             bid.setStatus("REJECTED");
             return bid;
         });
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
 
         BidResponse response = bidService.rejectBid(1);
 
         assertEquals("REJECTED", response.getStatus());
+        verify(bidBook).bidRemoved(1, 1);
     }
 
     @Test
@@ -195,22 +320,88 @@ class BidServiceTest {
     }
 
     @Test
-    void getBids_FilterByLoadId() {
-        when(bidRepository.findByLoadId(1)).thenReturn(Collections.singletonList(testBid));
-        when(transporterRepository.findById(any())).thenReturn(Optional.of(testTransporter));
+    void streamBids_FilterByLoadId() {
+        when(bidRepository.streamBids(1, null, null)).thenReturn(Stream.of(testBid));
+        when(transporterSummaryCache.getAll(any())).thenReturn(Map.of(1, TransporterSummary.from(testTransporter)));
 
-        List<BidResponse> response = bidService.getBids(1, null, null);
+        List<BidResponse> response = new ArrayList<>();
+        bidService.streamBids(1, null, null, response::add);
 
         assertEquals(1, response.size());
     }
 
     @Test
-    void getBids_FilterByStatus() {
-        when(bidRepository.findByStatus("PENDING")).thenReturn(Collections.singletonList(testBid));
-        when(transporterRepository.findById(any())).thenReturn(Optional.of(testTransporter));
+    void streamBids_PassesEveryFilterToTheQuery() {
+        when(bidRepository.streamBids(1, 1, "PENDING")).thenReturn(Stream.of(testBid));
+        when(transporterSummaryCache.getAll(any())).thenReturn(Map.of(1, TransporterSummary.from(testTransporter)));
 
-        List<BidResponse> response = bidService.getBids(null, null, "PENDING");
+        List<BidResponse> response = new ArrayList<>();
+        bidService.streamBids(1, 1, "PENDING", response::add);
 
         assertEquals(1, response.size());
+        verify(bidRepository).streamBids(1, 1, "PENDING");
+    }
+
+    @Test
+    void streamBids_ResolvesTransportersWithSingleLookup() {
+        Bid secondBid = TestFixtures.newBid(testLoad, testTransporter, 48000.0, 2);
+        secondBid.setBidId(2);
+
+        when(bidRepository.streamBids(1, null, null)).thenReturn(Stream.of(testBid, secondBid));
+        when(transporterSummaryCache.getAll(any())).thenReturn(Map.of(1, TransporterSummary.from(testTransporter)));
+
+        List<BidResponse> response = new ArrayList<>();
+        bidService.streamBids(1, null, null, response::add);
+
+        assertEquals(2, response.size());
+        assertEquals(testTransporter.getCompanyName(), response.get(1).getTransporterCompanyName());
+        verify(transporterSummaryCache, times(1)).getAll(Set.of(1));
+        verify(transporterSummaryCache, never()).get(any());
+    }
+
+    @Test
+    void precheckBid_ChecksCapacityFromIndexWithoutDatabase() {
+        LaneLoadResponse open = new LaneLoadResponse();
+        open.setLoadId(1);
+        open.setTruckType("CONTAINER-20FT");
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(laneIndex.find(1)).thenReturn(open);
+        when(capacityIndex.capacityOf(1, "CONTAINER-20FT")).thenReturn(2);
+
+        InsufficientCapacityException ex = assertThrows(InsufficientCapacityException.class,
+                () -> bidService.precheckBid(testBidRequest));
+
+        assertTrue(ex.getMessage().contains("only has 2 trucks"));
+        verifyNoInteractions(loadRepository, truckCapacityRepository, bidRepository);
+    }
+
+    @Test
+    void precheckBid_LoadNotIndexed_ReportsClosedStatus() {
+        testLoad.setStatus("BOOKED");
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+
+        assertThrows(InvalidStatusTransitionException.class, () -> bidService.precheckBid(testBidRequest));
+    }
+
+    @Test
+    void precheckBid_DeadlinePassedInIndex_ConfirmsAgainstDatabase() {
+        LaneLoadResponse indexed = new LaneLoadResponse();
+        indexed.setLoadId(1);
+        indexed.setTruckType("CONTAINER-20FT");
+        indexed.setBiddingDeadline(LocalDateTime.now().minusMinutes(1));
+        testLoad.setBiddingDeadline(indexed.getBiddingDeadline());
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(laneIndex.find(1)).thenReturn(indexed);
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+
+        assertThrows(InvalidStatusTransitionException.class, () -> bidService.precheckBid(testBidRequest));
+
+        // once the auction is closed the deadline stays in place and the close is reported
+        testLoad.setAuctionClosedAt(LocalDateTime.now());
+        InvalidStatusTransitionException closed = assertThrows(InvalidStatusTransitionException.class,
+                () -> bidService.precheckBid(testBidRequest));
+        assertTrue(closed.getMessage().startsWith("Auction of load 1 closed"));
+        verifyNoInteractions(capacityIndex);
     }
 }
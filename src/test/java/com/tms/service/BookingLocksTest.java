@@ -0,0 +1,79 @@
+package com.tms.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingLocksTest {
+
+    @Test
+    void striped_SerializesActionsOnSameLoad() throws Exception {
+        BookingLocks locks = new BookingLocks(BookingLockStrategy.STRIPED, 16);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> {
+                    start.await();
+                    return locks.withLoadLock(() -> 7, () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        sleep(20);
+                        return inside.decrementAndGet();
+                    });
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maxInside.get());
+    }
+
+    @Test
+    void optimistic_DoesNotResolveLoadId() {
+        BookingLocks locks = new BookingLocks(BookingLockStrategy.OPTIMISTIC, 16);
+
+        String result = locks.withLoadLock(() -> { throw new AssertionError("load id should not be resolved"); }, () -> "done");
+
+        assertEquals("done", result);
+    }
+
+    @Test
+    void striped_ReleasesLockWhenActionFails() throws Exception {
+        BookingLocks locks = new BookingLocks(BookingLockStrategy.STRIPED, 16);
+
+        assertThrows(IllegalStateException.class,
+                () -> locks.withLoadLock(() -> 3, () -> { throw new IllegalStateException("boom"); }));
+
+        // The stripe is reentrant, so check from another thread that it was released
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals("done", executor.submit(() -> locks.withLoadLock(() -> 3, () -> "done")).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.tms.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new BookingRetry(meterRegistry, 3, 1, 2);
+    }
+
+    @Test
+    void execute_RetriesConflictUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("create", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "booked";
+        });
+
+        assertEquals("booked", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.get("tms.booking.retries").tag("operation", "create").counter().count());
+        assertNull(meterRegistry.find("tms.booking.conflicts").counter());
+    }
+
+    @Test
+    void execute_GivesUpAfterAttemptBudget() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(PessimisticLockingFailureException.class, () -> retry.execute("cancel", () -> {
+            attempts.incrementAndGet();
+            throw new PessimisticLockingFailureException("lock timeout");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.get("tms.booking.retries").tag("operation", "cancel").counter().count());
+        assertEquals(1.0, meterRegistry.get("tms.booking.conflicts").tag("operation", "cancel").counter().count());
+    }
+
+    @Test
+    void execute_DoesNotRetryBusinessErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute("create", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("not retryable");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+}
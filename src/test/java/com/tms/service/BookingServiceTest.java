@@ -1,24 +1,39 @@
 package com.tms.service;
 
+import com.tms.dto.BatchBookingRequest;
+import com.tms.dto.BatchBookingResponse;
 import com.tms.dto.BookingRequest;
 import com.tms.dto.BookingResponse;
+import com.tms.dto.TransporterSummary;
 import com.tms.entity.*;
 import com.tms.exception.InsufficientCapacityException;
 import com.tms.exception.InvalidStatusTransitionException;
 import com.tms.exception.LoadAlreadyBookedException;
 import com.tms.exception.ResourceNotFoundException;
 import com.tms.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,11 +49,35 @@ class BookingServiceTest {
     private LoadRepository loadRepository;
 
     @Mock
-    private TransporterRepository transporterRepository;
+    private TransporterSummaryCache transporterSummaryCache;
 
     @Mock
     private TruckCapacityRepository truckCapacityRepository;
 
+    @Mock
+    private BidBook bidBook;
+
+    @Mock
+    private LaneIndex laneIndex;
+
+    @Mock
+    private TransporterCapacityIndex capacityIndex;
+
+    @Mock
+    private LaneRateStats laneRateStats;
+
+    @Spy
+    private BookingLocks bookingLocks = new BookingLocks(BookingLockStrategy.OPTIMISTIC, 16);
+
+    @Spy
+    private BookingRetry bookingRetry = new BookingRetry(new SimpleMeterRegistry(), 3, 0, 0);
+
+    @Spy
+    private EntityStreams entityStreams = new EntityStreams(mock(EntityManager.class));
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -51,27 +90,17 @@ class BookingServiceTest {
 
     @BeforeEach
     void setUp() {
-        testLoad = new Load();
+        testLoad = TestFixtures.newLoad("CONTAINER-20FT", 3);
         testLoad.setLoadId(1);
-        testLoad.setStatus("OPEN_FOR_BIDS");
-        testLoad.setTruckType("CONTAINER-20FT");
-        testLoad.setNoOfTrucks(3);
 
-        testTransporter = new Transporter();
+        testTransporter = TestFixtures.newTransporter(4.5);
         testTransporter.setTransporterId(1);
-        testTransporter.setCompanyName("Test Transport");
-        testTransporter.setRating(4.5);
 
         testTruckCapacity = new TruckCapacity("CONTAINER-20FT", 10);
         testTruckCapacity.setTransporter(testTransporter);
 
-        testBid = new Bid();
+        testBid = TestFixtures.newBid(testLoad, testTransporter, 50000.0, 3);
         testBid.setBidId(1);
-        testBid.setLoadId(1);
-        testBid.setTransporterId(1);
-        testBid.setProposedRate(50000.0);
-        testBid.setTrucksOffered(3);
-        testBid.setStatus("PENDING");
 
         testBooking = new Booking();
         testBooking.setBookingId(1);
@@ -91,14 +120,13 @@ class BookingServiceTest {
     void createBooking_Success() {
         when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
-        when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
-                .thenReturn(Optional.of(testTruckCapacity));
-        when(bookingRepository.getTotalAllocatedTrucks(1)).thenReturn(0);
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 3)).thenReturn(1);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(3);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(bidRepository.save(any(Bid.class))).thenReturn(testBid);
+        when(bidRepository.acceptPending(List.of(1))).thenReturn(1);
         when(loadRepository.save(any(Load.class))).thenReturn(testLoad);
-        when(truckCapacityRepository.save(any(TruckCapacity.class))).thenReturn(testTruckCapacity);
 
         BookingResponse response = bookingService.createBooking(testBookingRequest);
 
@@ -135,22 +163,52 @@ class BookingServiceTest {
 
     @Test
     void createBooking_ExceedsRemainingTrucks_ThrowsException() {
+        testLoad.setAllocatedTrucks(2);
         when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(bookingRepository.getTotalAllocatedTrucks(1)).thenReturn(2);
 
         assertThrows(LoadAlreadyBookedException.class, () -> bookingService.createBooking(testBookingRequest));
     }
 
+    @Test
+    void createBooking_ConcurrentAllocationExhaustedLoad_ThrowsException() {
+        when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 3)).thenReturn(0);
+
+        assertThrows(LoadAlreadyBookedException.class, () -> bookingService.createBooking(testBookingRequest));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_PartialAllocation_KeepsLoadOpen() {
+        testBookingRequest.setAllocatedTrucks(1);
+        when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 1)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 1)).thenReturn(1);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(1);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bidRepository.acceptPending(List.of(1))).thenReturn(1);
+
+        bookingService.createBooking(testBookingRequest);
+
+        assertEquals("OPEN_FOR_BIDS", testLoad.getStatus());
+        verify(loadRepository, never()).save(any(Load.class));
+    }
+
     @Test
     void createBooking_InsufficientTransporterCapacity_ThrowsException() {
         testTruckCapacity.setCount(1);
         when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 3)).thenReturn(0);
         when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
                 .thenReturn(Optional.of(testTruckCapacity));
-        when(bookingRepository.getTotalAllocatedTrucks(1)).thenReturn(0);
 
         assertThrows(InsufficientCapacityException.class, () -> bookingService.createBooking(testBookingRequest));
     }
@@ -159,18 +217,17 @@ class BookingServiceTest {
     void createBooking_UpdatesLoadStatusToBooked_WhenFullyAllocated() {
         when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
-        when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
-                .thenReturn(Optional.of(testTruckCapacity));
-        when(bookingRepository.getTotalAllocatedTrucks(1)).thenReturn(0);
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 3)).thenReturn(1);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(3);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(bidRepository.save(any(Bid.class))).thenReturn(testBid);
+        when(bidRepository.acceptPending(List.of(1))).thenReturn(1);
         when(loadRepository.save(any(Load.class))).thenAnswer(inv -> {
             Load load = inv.getArgument(0);
             assertEquals("BOOKED", load.getStatus());
             return load;
         });
-        when(truckCapacityRepository.save(any(TruckCapacity.class))).thenReturn(testTruckCapacity);
 
         bookingService.createBooking(testBookingRequest);
 
@@ -181,37 +238,32 @@ class BookingServiceTest {
     void createBooking_DeductsTruckCapacity() {
         when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
-        when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
-                .thenReturn(Optional.of(testTruckCapacity));
-        when(bookingRepository.getTotalAllocatedTrucks(1)).thenReturn(0);
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 3)).thenReturn(1);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(3);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(bidRepository.save(any(Bid.class))).thenReturn(testBid);
+        when(bidRepository.acceptPending(List.of(1))).thenReturn(1);
         when(loadRepository.save(any(Load.class))).thenReturn(testLoad);
-        when(truckCapacityRepository.save(any(TruckCapacity.class))).thenAnswer(inv -> {
-            TruckCapacity tc = inv.getArgument(0);
-            assertEquals(7, tc.getCount());
-            return tc;
-        });
 
         bookingService.createBooking(testBookingRequest);
 
-        verify(truckCapacityRepository).save(any(TruckCapacity.class));
+        verify(truckCapacityRepository).decrementCount(1, "CONTAINER-20FT", 3);
+        verify(truckCapacityRepository, never()).save(any(TruckCapacity.class));
     }
 
     @Test
     void cancelBooking_Success() {
         when(bookingRepository.findById(1)).thenReturn(Optional.of(testBooking));
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
-                .thenReturn(Optional.of(testTruckCapacity));
+        when(truckCapacityRepository.incrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.releaseTrucks(1, 3)).thenReturn(1);
         when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> {
             Booking booking = inv.getArgument(0);
             booking.setStatus("CANCELLED");
             return booking;
         });
-        when(truckCapacityRepository.save(any(TruckCapacity.class))).thenReturn(testTruckCapacity);
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
 
         BookingResponse response = bookingService.cancelBooking(1);
 
@@ -228,22 +280,29 @@ class BookingServiceTest {
 
     @Test
     void cancelBooking_RestoresTruckCapacity() {
-        testTruckCapacity.setCount(7);
         when(bookingRepository.findById(1)).thenReturn(Optional.of(testBooking));
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
-                .thenReturn(Optional.of(testTruckCapacity));
+        when(truckCapacityRepository.incrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.releaseTrucks(1, 3)).thenReturn(1);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(truckCapacityRepository.save(any(TruckCapacity.class))).thenAnswer(inv -> {
-            TruckCapacity tc = inv.getArgument(0);
-            assertEquals(10, tc.getCount());
-            return tc;
-        });
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
 
         bookingService.cancelBooking(1);
 
-        verify(truckCapacityRepository).save(any(TruckCapacity.class));
+        verify(truckCapacityRepository).incrementCount(1, "CONTAINER-20FT", 3);
+        verify(loadRepository).releaseTrucks(1, 3);
+    }
+
+    @Test
+    void cancelBooking_AllocationCounterOutOfStep_ThrowsException() {
+        when(bookingRepository.findById(1)).thenReturn(Optional.of(testBooking));
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(truckCapacityRepository.incrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.releaseTrucks(1, 3)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> bookingService.cancelBooking(1));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(transactionManager).rollback(any());
     }
 
     @Test
@@ -251,16 +310,15 @@ class BookingServiceTest {
         testLoad.setStatus("BOOKED");
         when(bookingRepository.findById(1)).thenReturn(Optional.of(testBooking));
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
-        when(truckCapacityRepository.findByTransporterTransporterIdAndTruckType(1, "CONTAINER-20FT"))
-                .thenReturn(Optional.of(testTruckCapacity));
+        when(truckCapacityRepository.incrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.releaseTrucks(1, 3)).thenReturn(1);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(truckCapacityRepository.save(any(TruckCapacity.class))).thenReturn(testTruckCapacity);
         when(loadRepository.save(any(Load.class))).thenAnswer(inv -> {
             Load load = inv.getArgument(0);
             assertEquals("OPEN_FOR_BIDS", load.getStatus());
             return load;
         });
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
 
         bookingService.cancelBooking(1);
 
@@ -270,7 +328,7 @@ class BookingServiceTest {
     @Test
     void getBookingById_Success() {
         when(bookingRepository.findById(1)).thenReturn(Optional.of(testBooking));
-        when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
 
         BookingResponse response = bookingService.getBookingById(1);
 
@@ -284,4 +342,230 @@ class BookingServiceTest {
 
         assertThrows(ResourceNotFoundException.class, () -> bookingService.getBookingById(999));
     }
+
+    @Test
+    void createBooking_OptimisticConflict_RetriedWithFreshState() {
+        when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
+        when(loadRepository.findById(1)).thenAnswer(inv -> {
+            // The rolled back attempt's changes are gone when the load is read again
+            testLoad.setStatus("OPEN_FOR_BIDS");
+            testLoad.setAllocatedTrucks(0);
+            return Optional.of(testLoad);
+        });
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 3)).thenReturn(1);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(3);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bidRepository.acceptPending(List.of(1))).thenReturn(1);
+        // The load was updated elsewhere (e.g. its auction closed) before it could be marked BOOKED
+        when(loadRepository.save(any(Load.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Load.class, 1))
+                .thenReturn(testLoad);
+
+        BookingResponse response = bookingService.createBooking(testBookingRequest);
+
+        assertEquals("CONFIRMED", response.getStatus());
+        verify(bidRepository, times(2)).findById(1);
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void createBooking_BidAcceptedConcurrently_RetriedThenRejected() {
+        testBookingRequest.setAllocatedTrucks(1);
+        when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 1)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 1)).thenReturn(1);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bidRepository.acceptPending(List.of(1))).thenAnswer(inv -> {
+            // Another booking of the same bid committed first
+            testBid.setStatus("ACCEPTED");
+            return 0;
+        });
+
+        assertThrows(InvalidStatusTransitionException.class, () -> bookingService.createBooking(testBookingRequest));
+        verify(bidRepository, times(1)).acceptPending(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void createBooking_RetriedAttemptRevalidates() {
+        when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 3)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 3)).thenAnswer(inv -> {
+            // Another booking takes the trucks while this attempt is in flight
+            testLoad.setAllocatedTrucks(3);
+            throw new ObjectOptimisticLockingFailureException(Load.class, 1);
+        });
+
+        assertThrows(LoadAlreadyBookedException.class, () -> bookingService.createBooking(testBookingRequest));
+        verify(loadRepository, times(1)).allocateTrucks(1, 3);
+    }
+
+    @Test
+    void createBooking_PessimisticStrategy_LocksLoadRow() {
+        BookingService pessimistic = withStrategy(BookingLockStrategy.PESSIMISTIC);
+        testBookingRequest.setAllocatedTrucks(1);
+        when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
+        when(loadRepository.findByIdForUpdate(1)).thenReturn(Optional.of(testLoad));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 1)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 1)).thenReturn(1);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(1);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bidRepository.acceptPending(List.of(1))).thenReturn(1);
+
+        pessimistic.createBooking(testBookingRequest);
+
+        verify(loadRepository).findByIdForUpdate(1);
+        verify(loadRepository, never()).findById(any());
+    }
+
+    @Test
+    void createBooking_StripedStrategy_ResolvesLoadBeforeTransaction() {
+        BookingService striped = withStrategy(BookingLockStrategy.STRIPED);
+        testBookingRequest.setAllocatedTrucks(1);
+        when(bidRepository.findLoadIdByBidId(1)).thenReturn(Optional.of(1));
+        when(bidRepository.findById(1)).thenReturn(Optional.of(testBid));
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(transporterSummaryCache.get(1)).thenReturn(TransporterSummary.from(testTransporter));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 1)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 1)).thenReturn(1);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(1);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bidRepository.acceptPending(List.of(1))).thenReturn(1);
+
+        striped.createBooking(testBookingRequest);
+
+        InOrder order = inOrder(bidRepository, transactionManager);
+        order.verify(bidRepository).findLoadIdByBidId(1);
+        order.verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    void cancelBooking_StripedStrategy_UnknownBooking_ThrowsException() {
+        BookingService striped = withStrategy(BookingLockStrategy.STRIPED);
+        when(bookingRepository.findLoadIdByBookingId(999)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> striped.cancelBooking(999));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void createBookings_AllOrNothing_RejectsWholeBatchOnInvalidItem() {
+        Bid secondBid = bid(2, 1, 1);
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(bidRepository.findAllById(any())).thenReturn(List.of(testBid, secondBid));
+        when(truckCapacityRepository.findByTransporterTransporterIdInAndTruckType(any(), eq("CONTAINER-20FT")))
+                .thenReturn(List.of(testTruckCapacity));
+
+        BatchBookingRequest request = batch(BatchBookingRequest.ALL_OR_NOTHING, item(1, 1), item(2, 2));
+
+        assertThrows(InsufficientCapacityException.class, () -> bookingService.createBookings(request));
+        verify(truckCapacityRepository, never()).decrementCount(any(), any(), anyInt());
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createBookings_BestEffort_BooksValidItemsAndReportsTheRest() {
+        Bid acceptedBid = bid(2, 1, 1);
+        acceptedBid.setStatus("ACCEPTED");
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(bidRepository.findAllById(any())).thenReturn(List.of(testBid, acceptedBid));
+        when(truckCapacityRepository.findByTransporterTransporterIdInAndTruckType(any(), eq("CONTAINER-20FT")))
+                .thenReturn(List.of(testTruckCapacity));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 2)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 2)).thenReturn(1);
+        when(bidRepository.acceptPending(List.of(1))).thenReturn(1);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(2);
+
+        BatchBookingResponse response = bookingService.createBookings(
+                batch(BatchBookingRequest.BEST_EFFORT, item(1, 2), item(2, 1), item(99, 1)));
+
+        assertEquals(1, response.getBooked());
+        assertEquals(2, response.getRejected());
+        assertEquals(1, response.getRemainingTrucks());
+        assertEquals("OPEN_FOR_BIDS", response.getLoadStatus());
+        assertNotNull(response.getResults().get(0).getBooking());
+        assertNotNull(response.getResults().get(1).getError());
+        assertNotNull(response.getResults().get(2).getError());
+        verify(bookingRepository).saveAll(argThat(bookings -> ((Collection<?>) bookings).size() == 1));
+        verify(bidBook).bidRemoved(1, 1);
+    }
+
+    @Test
+    void createBookings_OneCapacityUpdatePerTransporter() {
+        testLoad.setNoOfTrucks(4);
+        Transporter otherTransporter = TestFixtures.newTransporter(4.0);
+        otherTransporter.setTransporterId(2);
+        TruckCapacity otherCapacity = new TruckCapacity("CONTAINER-20FT", 5);
+        otherCapacity.setTransporter(otherTransporter);
+
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(bidRepository.findAllById(any())).thenReturn(List.of(bid(1, 1, 1), bid(2, 1, 1), bid(3, 2, 2)));
+        when(truckCapacityRepository.findByTransporterTransporterIdInAndTruckType(any(), eq("CONTAINER-20FT")))
+                .thenReturn(List.of(testTruckCapacity, otherCapacity));
+        when(truckCapacityRepository.decrementCount(anyInt(), eq("CONTAINER-20FT"), anyInt())).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 4)).thenReturn(1);
+        when(bidRepository.acceptPending(List.of(1, 2, 3))).thenReturn(3);
+        when(loadRepository.findAllocatedTrucks(1)).thenReturn(4);
+
+        BatchBookingResponse response = bookingService.createBookings(
+                batch(BatchBookingRequest.ALL_OR_NOTHING, item(1, 1), item(2, 1), item(3, 2)));
+
+        assertEquals(3, response.getBooked());
+        assertEquals("BOOKED", response.getLoadStatus());
+        verify(truckCapacityRepository).decrementCount(1, "CONTAINER-20FT", 2);
+        verify(truckCapacityRepository).decrementCount(2, "CONTAINER-20FT", 2);
+        verify(truckCapacityRepository, times(2)).decrementCount(anyInt(), any(), anyInt());
+        verify(loadRepository).save(testLoad);
+        verify(bidBook).evict(1);
+    }
+
+    @Test
+    void createBookings_StaleSnapshot_RetriedThenConflict() {
+        when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
+        when(bidRepository.findAllById(any())).thenReturn(List.of(testBid));
+        when(truckCapacityRepository.findByTransporterTransporterIdInAndTruckType(any(), eq("CONTAINER-20FT")))
+                .thenReturn(List.of(testTruckCapacity));
+        when(truckCapacityRepository.decrementCount(1, "CONTAINER-20FT", 1)).thenReturn(1);
+        when(loadRepository.allocateTrucks(1, 1)).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> bookingService.createBookings(batch(BatchBookingRequest.ALL_OR_NOTHING, item(1, 1))));
+        verify(loadRepository, times(3)).allocateTrucks(1, 1);
+    }
+
+    private Bid bid(int bidId, int transporterId, int trucksOffered) {
+        Bid bid = TestFixtures.newBid(testLoad, testTransporter, 45000.0 + bidId, trucksOffered);
+        bid.setBidId(bidId);
+        bid.setTransporterId(transporterId);
+        return bid;
+    }
+
+    private static BookingRequest item(int bidId, int trucks) {
+        BookingRequest item = new BookingRequest();
+        item.setBidId(bidId);
+        item.setAllocatedTrucks(trucks);
+        return item;
+    }
+
+    private static BatchBookingRequest batch(String mode, BookingRequest... items) {
+        BatchBookingRequest request = new BatchBookingRequest();
+        request.setLoadId(1);
+        request.setMode(mode);
+        request.setItems(List.of(items));
+        return request;
+    }
+
+    private BookingService withStrategy(BookingLockStrategy strategy) {
+        return new BookingService(bookingRepository, bidRepository, loadRepository, transporterSummaryCache,
+                truckCapacityRepository, bidBook, new BookingLocks(strategy, 16), bookingRetry, entityStreams, laneIndex,
+                capacityIndex, laneRateStats, transactionManager);
+    }
 }
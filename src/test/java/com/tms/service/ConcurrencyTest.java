@@ -9,7 +9,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -39,6 +40,7 @@ class ConcurrencyTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    private TestFixtures fixtures;
     private Load testLoad;
     private Transporter transporter1;
     private Transporter transporter2;
@@ -47,58 +49,15 @@ class ConcurrencyTest {
 
     @BeforeEach
     void setUp() {
-        bookingRepository.deleteAll();
-        bidRepository.deleteAll();
-        loadRepository.deleteAll();
-        truckCapacityRepository.deleteAll();
-        transporterRepository.deleteAll();
-
-        testLoad = new Load();
-        testLoad.setShipperId("SHIP001");
-        testLoad.setLoadingCity("Mumbai");
-        testLoad.setUnloadingCity("Delhi");
-        testLoad.setLoadingDate(LocalDateTime.now().plusDays(5));
-        testLoad.setProductType("Electronics");
-        testLoad.setWeight(5000.0);
-        testLoad.setWeightUnit("KG");
-        testLoad.setTruckType("CONTAINER-20FT");
-        testLoad.setNoOfTrucks(1);
-        testLoad.setStatus("OPEN_FOR_BIDS");
-        testLoad = loadRepository.save(testLoad);
-
-        transporter1 = new Transporter();
-        transporter1.setCompanyName("Transport A");
-        transporter1.setRating(4.5);
-        transporter1 = transporterRepository.save(transporter1);
-
-        TruckCapacity tc1 = new TruckCapacity("CONTAINER-20FT", 5);
-        tc1.setTransporter(transporter1);
-        truckCapacityRepository.save(tc1);
-
-        transporter2 = new Transporter();
-        transporter2.setCompanyName("Transport B");
-        transporter2.setRating(4.0);
-        transporter2 = transporterRepository.save(transporter2);
-
-        TruckCapacity tc2 = new TruckCapacity("CONTAINER-20FT", 5);
-        tc2.setTransporter(transporter2);
-        truckCapacityRepository.save(tc2);
-
-        bid1 = new Bid();
-        bid1.setLoadId(testLoad.getLoadId());
-        bid1.setTransporterId(transporter1.getTransporterId());
-        bid1.setProposedRate(50000.0);
-        bid1.setTrucksOffered(1);
-        bid1.setStatus("PENDING");
-        bid1 = bidRepository.save(bid1);
-
-        bid2 = new Bid();
-        bid2.setLoadId(testLoad.getLoadId());
-        bid2.setTransporterId(transporter2.getTransporterId());
-        bid2.setProposedRate(48000.0);
-        bid2.setTrucksOffered(1);
-        bid2.setStatus("PENDING");
-        bid2 = bidRepository.save(bid2);
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+
+        testLoad = fixtures.saveLoad("CONTAINER-20FT", 1);
+        transporter1 = fixtures.saveTransporter(4.5, "CONTAINER-20FT", 5);
+        transporter2 = fixtures.saveTransporter(4.0, "CONTAINER-20FT", 5);
+        bid1 = fixtures.saveBid(testLoad, transporter1, 50000.0, 1);
+        bid2 = fixtures.saveBid(testLoad, transporter2, 48000.0, 1);
     }
 
     @Test
@@ -146,6 +105,138 @@ class ConcurrencyTest {
         assertEquals(1, failureCount.get(), "One booking should fail");
     }
 
+    @Test
+    void concurrentPartialBookings_NeverOverAllocate() throws InterruptedException {
+        Load multiTruckLoad = fixtures.saveLoad("CONTAINER-20FT", 3);
+
+        int threadCount = 6;
+        List<BookingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Transporter transporter = fixtures.saveTransporter(4.0, "CONTAINER-20FT", 5);
+            Bid bid = fixtures.saveBid(multiTruckLoad, transporter, 40000.0 + i, 1);
+
+            BookingRequest request = new BookingRequest();
+            request.setBidId(bid.getBidId());
+            request.setAllocatedTrucks(1);
+            requests.add(request);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger(0);
+
+        for (BookingRequest request : requests) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    bookingService.createBooking(request);
+                    successCount.incrementAndGet();
+                } catch (Exception e) {
+                    // rejected or lost the race
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        Load result = loadRepository.findById(multiTruckLoad.getLoadId()).orElseThrow();
+        assertTrue(successCount.get() > 0, "At least one booking should succeed");
+        assertTrue(successCount.get() <= 3, "More trucks booked than the load needs");
+        assertEquals(successCount.get(), result.getAllocatedTrucks());
+        assertEquals(result.getAllocatedTrucks(), bookingRepository.getTotalAllocatedTrucks(result.getLoadId()));
+    }
+
+    @Test
+    void concurrentBookingsOfSameBid_OnlyOneSucceeds() throws InterruptedException {
+        Load load = fixtures.saveLoad("CONTAINER-20FT", 10);
+        Bid bid = fixtures.saveBid(load, transporter1, 45000.0, 2);
+
+        BookingRequest request = new BookingRequest();
+        request.setBidId(bid.getBidId());
+        request.setAllocatedTrucks(1);
+
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger(0);
+
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    bookingService.createBooking(request);
+                    successCount.incrementAndGet();
+                } catch (Exception e) {
+                    // the bid was already accepted
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        assertEquals(1, successCount.get(), "A bid can only be booked once");
+        assertEquals(1, loadRepository.findById(load.getLoadId()).orElseThrow().getAllocatedTrucks());
+        assertEquals("ACCEPTED", bidRepository.findById(bid.getBidId()).orElseThrow().getStatus());
+        TruckCapacity capacity = truckCapacityRepository
+                .findByTransporterTransporterIdAndTruckType(transporter1.getTransporterId(), "CONTAINER-20FT")
+                .orElseThrow();
+        assertEquals(4, capacity.getCount());
+    }
+
+    @Test
+    void concurrentBookingsBySameTransporter_OnDifferentLoads_AllSucceed() throws InterruptedException {
+        int threadCount = 4;
+        List<BookingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Load load = fixtures.saveLoad("CONTAINER-20FT", 1);
+            Bid bid = fixtures.saveBid(load, transporter1, 30000.0 + i, 1);
+
+            BookingRequest request = new BookingRequest();
+            request.setBidId(bid.getBidId());
+            request.setAllocatedTrucks(1);
+            requests.add(request);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger(0);
+
+        for (BookingRequest request : requests) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    bookingService.createBooking(request);
+                    successCount.incrementAndGet();
+                } catch (Exception e) {
+                    // counted as a failure below
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        TruckCapacity capacity = truckCapacityRepository
+                .findByTransporterTransporterIdAndTruckType(transporter1.getTransporterId(), "CONTAINER-20FT")
+                .orElseThrow();
+        assertEquals(threadCount, successCount.get(), "Ample capacity must not make bookings conflict");
+        assertEquals(5 - threadCount, capacity.getCount());
+    }
+
     @Test
     void optimisticLocking_VersionIncrementsOnUpdate() {
         Integer initialVersion = testLoad.getVersion();
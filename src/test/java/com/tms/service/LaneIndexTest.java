@@ -0,0 +1,183 @@
+package com.tms.service;
+
+import com.tms.dto.BookingRequest;
+import com.tms.dto.BookingResponse;
+import com.tms.dto.LaneLoadResponse;
+import com.tms.dto.LoadRequest;
+import com.tms.entity.*;
+import com.tms.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LaneIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Autowired
+    private LaneIndex laneIndex;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TestFixtures fixtures;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+        // the repositories bypass the index, so drop what earlier tests left behind
+        laneIndex.rebuild();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void rebuild_IndexesOnlyOpenLoads() {
+        Load posted = saveLoad("Mumbai", "Delhi", "CONTAINER-20FT", BASE, "POSTED");
+        Load open = saveLoad("Mumbai", "Delhi", "CONTAINER-20FT", BASE.plusDays(1), "OPEN_FOR_BIDS");
+        saveLoad("Mumbai", "Delhi", "CONTAINER-20FT", BASE, "BOOKED");
+        saveLoad("Mumbai", "Delhi", "CONTAINER-20FT", BASE, "CANCELLED");
+
+        laneIndex.rebuild();
+
+        assertEquals(2, laneIndex.size());
+        assertEquals(List.of(posted.getLoadId(), open.getLoadId()), search("Mumbai", "Delhi", null, null, null));
+    }
+
+    @Test
+    void search_FiltersByTruckTypeAndDateWindowWithoutQueryingTheDatabase() {
+        Load first = saveLoad("Mumbai", "Delhi", "CONTAINER-20FT", BASE.plusDays(2), "POSTED");
+        Load second = saveLoad("Mumbai", "Delhi", "OPEN-BODY", BASE.plusDays(3), "POSTED");
+        Load third = saveLoad("Mumbai", "Delhi", "CONTAINER-20FT", BASE.plusDays(4), "OPEN_FOR_BIDS");
+        saveLoad("Mumbai", "Pune", "CONTAINER-20FT", BASE.plusDays(3), "POSTED");
+        saveLoad("Delhi", "Mumbai", "CONTAINER-20FT", BASE.plusDays(3), "POSTED");
+        laneIndex.rebuild();
+
+        statistics.clear();
+
+        assertEquals(List.of(first.getLoadId(), second.getLoadId(), third.getLoadId()),
+                search(" mumbai", "DELHI ", null, null, null));
+        assertEquals(List.of(first.getLoadId(), third.getLoadId()),
+                search("Mumbai", "Delhi", "container-20ft", null, null));
+        assertEquals(List.of(second.getLoadId(), third.getLoadId()),
+                search("Mumbai", "Delhi", null, BASE.plusDays(3), BASE.plusDays(4)));
+        assertEquals(List.of(first.getLoadId()),
+                laneIndex.search("Mumbai", "Delhi", null, null, null, 1).stream().map(LaneLoadResponse::getLoadId).toList());
+        assertTrue(search("Mumbai", "Chennai", null, null, null).isEmpty());
+        assertTrue(search("Mumbai", "Delhi", "FLATBED", null, null).isEmpty());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createAndCancelLoad_KeepIndexCurrent() {
+        Integer loadId = loadService.createLoad(loadRequest()).getLoadId();
+
+        List<LaneLoadResponse> found = laneIndex.search("Mumbai", "Delhi", null, null, null, 10);
+        assertEquals(1, found.size());
+        assertEquals(loadId, found.get(0).getLoadId());
+        assertEquals("SHIP001", found.get(0).getShipperId());
+
+        loadService.cancelLoad(loadId);
+
+        assertTrue(search("Mumbai", "Delhi", null, null, null).isEmpty());
+    }
+
+    @Test
+    void bookingAndCancellation_RemoveAndRestoreLoad() {
+        Load load = saveLoad("Mumbai", "Delhi", "CONTAINER-20FT", BASE, "OPEN_FOR_BIDS");
+        laneIndex.rebuild();
+
+        Transporter transporter = fixtures.saveTransporter(4.0, "CONTAINER-20FT", 10);
+        Bid bid = fixtures.saveBid(load, transporter, 40000.0, 2);
+
+        BookingRequest request = new BookingRequest();
+        request.setBidId(bid.getBidId());
+        request.setAllocatedTrucks(2);
+        BookingResponse booking = bookingService.createBooking(request);
+
+        assertTrue(search("Mumbai", "Delhi", null, null, null).isEmpty());
+
+        bookingService.cancelBooking(booking.getBookingId());
+
+        assertEquals(List.of(load.getLoadId()), search("Mumbai", "Delhi", null, null, null));
+    }
+
+    @Test
+    void failedTransaction_LeavesIndexUntouched() {
+        Load load = saveLoad("Mumbai", "Delhi", "CONTAINER-20FT", BASE, "BOOKED");
+        laneIndex.rebuild();
+
+        assertThrows(RuntimeException.class, () -> loadService.cancelLoad(load.getLoadId()));
+        assertThrows(RuntimeException.class, () -> loadService.createLoad(new LoadRequest()));
+
+        assertEquals(0, laneIndex.size());
+    }
+
+    private List<Integer> search(String loadingCity, String unloadingCity, String truckType,
+                                 LocalDateTime loadingFrom, LocalDateTime loadingTo) {
+        return laneIndex.search(loadingCity, unloadingCity, truckType, loadingFrom, loadingTo, 100).stream()
+                .map(LaneLoadResponse::getLoadId)
+                .toList();
+    }
+
+    private Load saveLoad(String loadingCity, String unloadingCity, String truckType, LocalDateTime loadingDate, String status) {
+        return fixtures.saveLoad(truckType, 2, load -> {
+            load.setLoadingCity(loadingCity);
+            load.setUnloadingCity(unloadingCity);
+            load.setLoadingDate(loadingDate);
+            load.setStatus(status);
+        });
+    }
+
+    private static LoadRequest loadRequest() {
+        LoadRequest request = new LoadRequest();
+        request.setShipperId("SHIP001");
+        request.setLoadingCity("Mumbai");
+        request.setUnloadingCity("Delhi");
+        request.setLoadingDate(BASE);
+        request.setProductType("Electronics");
+        request.setWeight(5000.0);
+        request.setWeightUnit("KG");
+        request.setTruckType("CONTAINER-20FT");
+        request.setNoOfTrucks(2);
+        return request;
+    }
+}
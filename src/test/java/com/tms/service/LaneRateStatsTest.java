@@ -0,0 +1,168 @@
+package com.tms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.BidRequest;
+import com.tms.dto.BookingRequest;
+import com.tms.dto.LaneRateResponse;
+import com.tms.entity.*;
+import com.tms.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LaneRateStatsTest {
+
+    private static final String TRUCK_TYPE = "CONTAINER-20FT";
+
+    @Autowired
+    private LaneRateStats laneRateStats;
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TestFixtures fixtures;
+
+    private Transporter transporter;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+        // the repositories bypass the sketches, so drop what earlier tests left behind
+        laneRateStats.rebuild();
+
+        transporter = fixtures.saveTransporter(4.0, TRUCK_TYPE, 100);
+    }
+
+    @Test
+    void rebuild_ReadsBidAndBookingHistoryAcrossPartitions() {
+        Load lane = saveLoad("Mumbai", "Delhi", 10);
+        Load otherLane = saveLoad("Pune", "Goa", 10);
+
+        List<Bid> bids = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            bids.add(TestFixtures.newBid(i % 4 == 0 ? otherLane : lane, transporter, 1000.0 * i, 1));
+        }
+        bidRepository.saveAll(bids);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 1; i <= 9; i++) {
+            Booking booking = new Booking();
+            booking.setLoadId(lane.getLoadId());
+            booking.setBidId(bids.get(i).getBidId());
+            booking.setTransporterId(transporter.getTransporterId());
+            booking.setAllocatedTrucks(1);
+            booking.setFinalRate(10_000.0 * i);
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+
+        laneRateStats.rebuild();
+
+        LaneRateResponse rates = laneRateStats.get("mumbai", "DELHI", "container-20ft");
+        assertEquals(750, rates.getBids().getCount());
+        assertEquals(499_000.0, rates.getBids().getP50(), 499_000.0 * RateSketch.RELATIVE_ACCURACY);
+        assertEquals(9, rates.getBookings().getCount());
+        assertEquals(50_000.0, rates.getBookings().getP50(), 50_000.0 * RateSketch.RELATIVE_ACCURACY);
+        assertEquals(250, laneRateStats.get("Pune", "Goa", TRUCK_TYPE).getBids().getCount());
+    }
+
+    @Test
+    void createBidAndBooking_FeedSketchesAfterCommit() {
+        Load load = saveLoad("Mumbai", "Delhi", 2);
+
+        BidRequest bidRequest = new BidRequest();
+        bidRequest.setLoadId(load.getLoadId());
+        bidRequest.setTransporterId(transporter.getTransporterId());
+        bidRequest.setProposedRate(42_000.0);
+        bidRequest.setTrucksOffered(2);
+        Integer bidId = bidService.createBid(bidRequest).getBidId();
+
+        BookingRequest bookingRequest = new BookingRequest();
+        bookingRequest.setBidId(bidId);
+        bookingRequest.setAllocatedTrucks(2);
+        bookingService.createBooking(bookingRequest);
+
+        LaneRateResponse rates = laneRateStats.get("Mumbai", "Delhi", TRUCK_TYPE);
+        assertEquals(1, rates.getBids().getCount());
+        assertEquals(42_000.0, rates.getBids().getP90(), 1e-9);
+        assertEquals(1, rates.getBookings().getCount());
+        assertEquals(42_000.0, rates.getBookings().getP10(), 1e-9);
+    }
+
+    @Test
+    void laneRatesEndpoint_AnswersWithoutQueryingTheDatabase() throws Exception {
+        Load load = saveLoad("Mumbai", "Delhi", 2);
+        bidRepository.saveAll(List.of(TestFixtures.newBid(load, transporter, 30_000.0, 1),
+                TestFixtures.newBid(load, transporter, 40_000.0, 1),
+                TestFixtures.newBid(load, transporter, 50_000.0, 1)));
+        laneRateStats.rebuild();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        JsonNode body = objectMapper.readTree(mockMvc.perform(get("/load/lane-rates")
+                        .param("loadingCity", "Mumbai").param("unloadingCity", "Delhi").param("truckType", TRUCK_TYPE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(3, body.get("bids").get("count").asInt());
+        assertEquals(40_000.0, body.get("bids").get("p50").asDouble(), 400.0);
+        assertEquals(0, body.get("bookings").get("count").asInt());
+        assertTrue(body.get("bookings").get("p50").isNull());
+    }
+
+    private Load saveLoad(String loadingCity, String unloadingCity, int trucks) {
+        return fixtures.saveLoad(TRUCK_TYPE, trucks, load -> {
+            load.setLoadingCity(loadingCity);
+            load.setUnloadingCity(unloadingCity);
+        });
+    }
+}
@@ -0,0 +1,192 @@
+package com.tms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.BidResponse;
+import com.tms.entity.*;
+import com.tms.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListingStreamTest {
+
+    private static final int BID_COUNT = 1200;
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private TestFixtures fixtures;
+    private Statistics statistics;
+    private List<Transporter> transporters;
+    private List<Load> loads;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transporters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            transporters.add(fixtures.saveTransporter(4.0, "CONTAINER-20FT", 5));
+        }
+        loads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            loads.add(fixtures.saveLoad("CONTAINER-20FT", 1));
+        }
+
+        List<Bid> bids = new ArrayList<>();
+        for (int i = 0; i < BID_COUNT; i++) {
+            Bid bid = TestFixtures.newBid(loads.get(i % loads.size()), transporters.get(i % transporters.size()),
+                    40000.0 + i, 1);
+            bid.setStatus(i % 2 == 0 ? "PENDING" : "REJECTED");
+            bids.add(bid);
+        }
+        bids = bidRepository.saveAll(bids);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setLoadId(loads.get(0).getLoadId());
+            booking.setBidId(bids.get(i * loads.size()).getBidId());
+            booking.setTransporterId(transporters.get(i).getTransporterId());
+            booking.setAllocatedTrucks(1);
+            booking.setFinalRate(30000.0);
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void streamBids_KeepsPersistenceContextBoundedByBatchSize() {
+        List<BidResponse> streamed = new ArrayList<>();
+        AtomicInteger maxManaged = new AtomicInteger();
+
+        bidService.streamBids(null, null, null, bid -> {
+            streamed.add(bid);
+            int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            maxManaged.accumulateAndGet(managed, Math::max);
+        });
+
+        assertEquals(BID_COUNT, streamed.size());
+        for (int i = 1; i < streamed.size(); i++) {
+            assertTrue(streamed.get(i - 1).getBidId() < streamed.get(i).getBidId());
+        }
+        streamed.forEach(bid -> assertNotNull(bid.getTransporterCompanyName()));
+        assertTrue(maxManaged.get() <= EntityStreams.BATCH_SIZE, "Managed entities: " + maxManaged.get());
+    }
+
+    @Test
+    void streamBids_OneQueryPlusTransporterLookupsPerBatch() {
+        statistics.clear();
+        AtomicInteger count = new AtomicInteger();
+
+        bidService.streamBids(null, null, null, bid -> count.incrementAndGet());
+
+        int batches = (BID_COUNT + EntityStreams.BATCH_SIZE - 1) / EntityStreams.BATCH_SIZE;
+        assertEquals(BID_COUNT, count.get());
+        assertTrue(statistics.getPrepareStatementCount() <= 1 + batches);
+    }
+
+    @Test
+    void getBids_StreamsJsonArrayWithCombinedFilters() throws Exception {
+        Integer loadId = loads.get(0).getLoadId();
+        Integer transporterId = transporters.get(0).getTransporterId();
+        JsonNode bids = objectMapper.readTree(perform(get("/bid").param("loadId", loadId.toString())
+                .param("transporterId", transporterId.toString()).param("status", "PENDING")
+                .accept("application/json"), "application/json"));
+
+        assertTrue(bids.isArray());
+        assertEquals(BID_COUNT / 30, bids.size());
+        bids.forEach(bid -> {
+            assertEquals(loadId, bid.get("loadId").asInt());
+            assertEquals(transporterId, bid.get("transporterId").asInt());
+            assertEquals("PENDING", bid.get("status").asText());
+        });
+    }
+
+    @Test
+    void getBookings_StreamsNdjsonWhenAccepted() throws Exception {
+        String body = perform(get("/booking").accept("application/x-ndjson"), "application/x-ndjson");
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            assertNotNull(objectMapper.readTree(line).get("bookingId"));
+        }
+    }
+
+    @Test
+    void getBookings_DefaultsToJsonArray() throws Exception {
+        JsonNode bookings = objectMapper.readTree(perform(get("/booking"), "application/json"));
+
+        assertEquals(3, bookings.size());
+        assertNotNull(bookings.get(0).get("transporterCompanyName"));
+    }
+
+    private String perform(MockHttpServletRequestBuilder builder, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith(contentType)))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
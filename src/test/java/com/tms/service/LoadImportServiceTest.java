@@ -0,0 +1,150 @@
+package com.tms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.BulkLoadResult;
+import com.tms.entity.Load;
+import com.tms.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "tms.load.bulk.chunk-size=3")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoadImportServiceTest {
+
+    private static final String CSV_HEADER =
+            "shipper_id,loading_city,unloading_city,loading_date,product_type,weight,weight_unit,truck_type,no_of_trucks";
+
+    @Autowired
+    private LoadImportService loadImportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        bidRepository.deleteAll();
+        loadRepository.deleteAll();
+    }
+
+    @Test
+    void importLoads_Ndjson_CreatesValidRowsAndReportsInvalidOnesInOrder() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            body.append(jsonRow("SHIP" + i, i == 4 ? -1 : 5000)).append('\n');
+        }
+        body.append("{not json\n");
+
+        List<BulkLoadResult> results = importLoads(body.toString(), LoadImportService.Format.NDJSON);
+
+        assertEquals(8, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).getRow());
+        }
+        assertEquals(List.of("Weight must be positive"), results.get(4).getErrors());
+        assertTrue(results.get(7).getErrors().get(0).startsWith("Malformed row"));
+        assertEquals(6, loadRepository.count());
+
+        Load first = loadRepository.findById(results.get(0).getLoadId()).orElseThrow();
+        assertEquals("SHIP0", first.getShipperId());
+        assertEquals("POSTED", first.getStatus());
+    }
+
+    @Test
+    void importLoads_Csv_MatchesHeaderNamesAndHandlesQuotedValues() throws IOException {
+        String body = CSV_HEADER + "\n"
+                + "SHIP001,Mumbai,Delhi,2030-01-05T08:00:00,\"Electronics, boxed\",5000,KG,CONTAINER-20FT,2\n"
+                + "\n"
+                + "SHIP002,Pune,Goa,2030-01-06T08:00:00,Textiles,heavy,KG,CONTAINER-20FT,1\n"
+                + "SHIP003,Pune,Goa,2030-01-06T08:00:00,Textiles,8,TONNES,CONTAINER-20FT,1\n"
+                + "SHIP004,Pune,Goa\n";
+
+        List<BulkLoadResult> results = importLoads(body, LoadImportService.Format.CSV);
+
+        assertEquals(4, results.size());
+        assertEquals(2, results.get(0).getRow());
+        assertEquals("Electronics, boxed", loadRepository.findById(results.get(0).getLoadId()).orElseThrow().getProductType());
+        assertEquals(List.of("Invalid value for weight"), results.get(1).getErrors());
+        assertEquals(List.of("Weight unit must be KG or TON"), results.get(2).getErrors());
+        assertEquals(List.of("Expected 9 columns but found 3"), results.get(3).getErrors());
+        assertEquals(1, loadRepository.count());
+    }
+
+    @Test
+    void importLoads_RefusedChunk_RejectsOnlyTheRowsTheDatabaseRefuses() throws IOException {
+        String body = jsonRow("SHIP001", 5000) + "\n"
+                + jsonRow("SHIP".repeat(100), 5000) + "\n"
+                + jsonRow("SHIP003", 5000) + "\n";
+
+        List<BulkLoadResult> results = importLoads(body, LoadImportService.Format.NDJSON);
+
+        assertEquals(3, results.size());
+        assertNotNull(results.get(0).getLoadId());
+        assertNull(results.get(1).getLoadId());
+        assertTrue(results.get(1).getErrors().get(0).startsWith("Row rejected by the database"));
+        assertNotNull(results.get(2).getLoadId());
+        assertEquals(2, loadRepository.count());
+    }
+
+    @Test
+    void bulkEndpoint_StreamsOneResultLinePerRow() throws Exception {
+        String body = jsonRow("SHIP001", 5000) + "\n" + jsonRow("SHIP002", 0) + "\n";
+
+        MvcResult started = mockMvc.perform(post("/load/bulk").contentType("application/x-ndjson").content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String response = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.split("\n");
+        assertEquals(2, lines.length);
+        JsonNode created = objectMapper.readTree(lines[0]);
+        assertTrue(created.has("loadId"));
+        assertFalse(created.has("errors"));
+        assertEquals("Weight must be positive", objectMapper.readTree(lines[1]).get("errors").get(0).asText());
+    }
+
+    private List<BulkLoadResult> importLoads(String body, LoadImportService.Format format) throws IOException {
+        List<BulkLoadResult> results = new ArrayList<>();
+        loadImportService.importLoads(new StringReader(body), format, results::add);
+        return results;
+    }
+
+    private static String jsonRow(String shipperId, double weight) {
+        return String.format("{\"shipperId\":\"%s\",\"loadingCity\":\"Mumbai\",\"unloadingCity\":\"Delhi\","
+                + "\"loadingDate\":\"2030-01-05T08:00:00\",\"productType\":\"Electronics\",\"weight\":%s,"
+                + "\"weightUnit\":\"KG\",\"truckType\":\"CONTAINER-20FT\",\"noOfTrucks\":2}", shipperId, weight);
+    }
+}
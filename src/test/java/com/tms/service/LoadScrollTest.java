@@ -0,0 +1,153 @@
+package com.tms.service;
+
+import com.tms.dto.LoadCursorPage;
+import com.tms.dto.LoadResponse;
+import com.tms.entity.Load;
+import com.tms.exception.InvalidCursorException;
+import com.tms.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoadScrollTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        bidRepository.deleteAll();
+        loadRepository.deleteAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // pairs of loads share a timestamp so the load_id tie-breaker is exercised
+        for (int i = 0; i < 25; i++) {
+            createLoad(BASE.plusMinutes(i / 2), i % 3 == 0 ? "OPEN_FOR_BIDS" : "POSTED");
+        }
+    }
+
+    @Test
+    void scrollLoads_VisitsEveryLoadOnceNewestFirst() {
+        List<LoadResponse> seen = scrollAll(null, 10);
+
+        assertEquals(25, seen.size());
+        assertEquals(25, seen.stream().map(LoadResponse::getLoadId).distinct().count());
+        assertEquals(seen.stream().sorted(Comparator.comparing(LoadResponse::getDatePosted)
+                        .thenComparing(LoadResponse::getLoadId).reversed()).collect(Collectors.toList()),
+                seen);
+    }
+
+    @Test
+    void scrollLoads_LastPageHasNoCursor() {
+        LoadCursorPage first = loadService.scrollLoads(null, null, null, 20);
+        LoadCursorPage last = loadService.scrollLoads(null, null, first.getNextCursor(), 20);
+
+        assertTrue(first.isHasNext());
+        assertEquals(5, last.getContent().size());
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void scrollLoads_StableUnderConcurrentInserts() {
+        LoadCursorPage first = loadService.scrollLoads(null, null, null, 10);
+
+        for (int i = 0; i < 5; i++) {
+            createLoad(BASE.plusDays(1), "POSTED");
+        }
+        List<LoadResponse> rest = new ArrayList<>(first.getContent());
+        String cursor = first.getNextCursor();
+        while (cursor != null) {
+            LoadCursorPage page = loadService.scrollLoads(null, null, cursor, 10);
+            rest.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        }
+
+        assertEquals(25, rest.size());
+        assertEquals(25, rest.stream().map(LoadResponse::getLoadId).distinct().count());
+    }
+
+    @Test
+    void scrollLoads_FiltersByStatus() {
+        List<LoadResponse> open = scrollAll("OPEN_FOR_BIDS", 3);
+
+        assertEquals(9, open.size());
+        open.forEach(load -> assertEquals("OPEN_FOR_BIDS", load.getStatus()));
+    }
+
+    @Test
+    void scrollLoads_DeepPageIsASingleQuery() {
+        String cursor = loadService.scrollLoads(null, null, null, 20).getNextCursor();
+
+        statistics.clear();
+        loadService.scrollLoads(null, null, cursor, 5);
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "No COUNT query and no OFFSET scan");
+    }
+
+    @Test
+    void scrollLoads_InvalidCursor_ThrowsException() {
+        assertThrows(InvalidCursorException.class, () -> loadService.scrollLoads(null, null, "not-a-cursor", 10));
+    }
+
+    private List<LoadResponse> scrollAll(String status, int size) {
+        List<LoadResponse> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            LoadCursorPage page = loadService.scrollLoads(null, status, cursor, size);
+            assertTrue(page.getContent().size() <= size);
+            seen.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private void createLoad(LocalDateTime datePosted, String status) {
+        Load load = new Load();
+        load.setShipperId("SHIP001");
+        load.setLoadingCity("Mumbai");
+        load.setUnloadingCity("Delhi");
+        load.setLoadingDate(datePosted.plusDays(5));
+        load.setProductType("Electronics");
+        load.setWeight(5000.0);
+        load.setWeightUnit("KG");
+        load.setTruckType("CONTAINER-20FT");
+        load.setNoOfTrucks(2);
+        load.setStatus(status);
+        load.setDatePosted(datePosted);
+        loadRepository.save(load);
+    }
+}
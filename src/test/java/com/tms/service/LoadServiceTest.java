@@ -2,13 +2,12 @@ package com.tms.service;
 
 import com.tms.dto.LoadRequest;
 import com.tms.dto.LoadResponse;
+import com.tms.dto.LoadSlice;
 import com.tms.entity.Load;
 import com.tms.exception.InvalidStatusTransitionException;
 import com.tms.exception.ResourceNotFoundException;
 import com.tms.repository.BidRepository;
-import com.tms.repository.BookingRepository;
 import com.tms.repository.LoadRepository;
-import com.tms.repository.TransporterRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,10 +17,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,10 +40,19 @@ class LoadServiceTest {
     private BidRepository bidRepository;
 
     @Mock
-    private BookingRepository bookingRepository;
+    private TransporterSummaryCache transporterSummaryCache;
 
     @Mock
-    private TransporterRepository transporterRepository;
+    private BidBook bidBook;
+
+    @Mock
+    private LaneIndex laneIndex;
+
+    @Mock
+    private TransporterCapacityIndex capacityIndex;
+
+    @Mock
+    private LaneRateStats laneRateStats;
 
     @InjectMocks
     private LoadService loadService;
@@ -79,7 +90,6 @@ class LoadServiceTest {
     @Test
     void createLoad_Success() {
         when(loadRepository.save(any(Load.class))).thenReturn(testLoad);
-        when(bookingRepository.getTotalAllocatedTrucks(any())).thenReturn(0);
 
         LoadResponse response = loadService.createLoad(testLoadRequest);
 
@@ -87,13 +97,13 @@ class LoadServiceTest {
         assertEquals("SHIP001", response.getShipperId());
         assertEquals("POSTED", response.getStatus());
         verify(loadRepository, times(1)).save(any(Load.class));
+        verify(laneIndex).loadOpened(testLoad);
     }
 
     @Test
     void getLoadById_Success() {
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
         when(bidRepository.findByLoadIdAndStatus(1, "PENDING")).thenReturn(Collections.emptyList());
-        when(bookingRepository.getTotalAllocatedTrucks(1)).thenReturn(0);
 
         LoadResponse response = loadService.getLoadById(1);
 
@@ -114,11 +124,11 @@ class LoadServiceTest {
         testLoad.setStatus("POSTED");
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
         when(loadRepository.save(any(Load.class))).thenReturn(testLoad);
-        when(bookingRepository.getTotalAllocatedTrucks(any())).thenReturn(0);
 
         LoadResponse response = loadService.cancelLoad(1);
 
         assertEquals("CANCELLED", response.getStatus());
+        verify(laneIndex).loadClosed(1);
     }
 
     @Test
@@ -127,6 +137,7 @@ class LoadServiceTest {
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
 
         assertThrows(InvalidStatusTransitionException.class, () -> loadService.cancelLoad(1));
+        verifyNoInteractions(laneIndex);
     }
 
     @Test
@@ -135,7 +146,6 @@ class LoadServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         
         when(loadRepository.findAll(pageable)).thenReturn(loadPage);
-        when(bookingRepository.getTotalAllocatedTrucks(any())).thenReturn(0);
 
         Page<LoadResponse> response = loadService.getLoads(null, null, pageable);
 
@@ -143,13 +153,39 @@ class LoadServiceTest {
         assertEquals(1, response.getTotalElements());
     }
 
+    @Test
+    void getLoadSlice_UsesCountFreeQuery() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("loadId"));
+        when(loadRepository.findSliceByStatus("POSTED", pageable))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(testLoad), pageable, true));
+
+        LoadSlice response = loadService.getLoadSlice(null, "POSTED", PageRequest.of(0, 1));
+
+        assertEquals(1, response.getContent().size());
+        assertEquals(0, response.getPage());
+        assertEquals(1, response.getSize());
+        assertTrue(response.isHasNext());
+        verify(loadRepository, never()).findByStatus(any(), any(Pageable.class));
+    }
+
+    @Test
+    void getLoadSlice_LastSliceHasNoNext() {
+        Pageable pageable = PageRequest.of(2, 10, Sort.by("loadId"));
+        when(loadRepository.findSliceByShipperIdAndStatus("SHIP001", "POSTED", pageable))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(testLoad), pageable, false));
+
+        LoadSlice response = loadService.getLoadSlice("SHIP001", "POSTED", PageRequest.of(2, 10));
+
+        assertEquals(2, response.getPage());
+        assertFalse(response.isHasNext());
+    }
+
     @Test
     void getLoads_FilterByShipperId() {
         Page<Load> loadPage = new PageImpl<>(Collections.singletonList(testLoad));
         Pageable pageable = PageRequest.of(0, 10);
         
         when(loadRepository.findByShipperId("SHIP001", pageable)).thenReturn(loadPage);
-        when(bookingRepository.getTotalAllocatedTrucks(any())).thenReturn(0);
 
         Page<LoadResponse> response = loadService.getLoads("SHIP001", null, pageable);
 
@@ -163,7 +199,6 @@ class LoadServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         
         when(loadRepository.findByStatus("POSTED", pageable)).thenReturn(loadPage);
-        when(bookingRepository.getTotalAllocatedTrucks(any())).thenReturn(0);
 
         Page<LoadResponse> response = loadService.getLoads(null, "POSTED", pageable);
 
@@ -174,12 +209,47 @@ class LoadServiceTest {
     @Test
     void remainingTrucks_CalculatedCorrectly() {
         testLoad.setNoOfTrucks(5);
+        testLoad.setAllocatedTrucks(2);
         when(loadRepository.findById(1)).thenReturn(Optional.of(testLoad));
         when(bidRepository.findByLoadIdAndStatus(1, "PENDING")).thenReturn(Collections.emptyList());
-        when(bookingRepository.getTotalAllocatedTrucks(1)).thenReturn(2);
 
         LoadResponse response = loadService.getLoadById(1);
 
         assertEquals(3, response.getRemainingTrucks());
     }
+
+    @Test
+    void getLoads_RemainingTrucksFromAllocatedCounter() {
+        Load secondLoad = new Load();
+        secondLoad.setLoadId(2);
+        secondLoad.setNoOfTrucks(4);
+        secondLoad.setAllocatedTrucks(3);
+        secondLoad.setStatus("OPEN_FOR_BIDS");
+
+        Pageable pageable = PageRequest.of(0, 10);
+        when(loadRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(testLoad, secondLoad)));
+
+        Page<LoadResponse> response = loadService.getLoads(null, null, pageable);
+
+        assertEquals(3, response.getContent().get(0).getRemainingTrucks());
+        assertEquals(1, response.getContent().get(1).getRemainingTrucks());
+    }
+
+    @Test
+    void getBestBids_ServedFromBidBook() {
+        when(bidBook.contains(1)).thenReturn(true);
+        when(bidBook.getBestBids(1, 0, 5)).thenReturn(Collections.emptyList());
+
+        loadService.getBestBids(1, 0, 5);
+
+        verify(loadRepository, never()).existsById(any());
+        verify(bidRepository, never()).findByLoadIdAndStatus(any(), any());
+    }
+
+    @Test
+    void getBestBids_UnknownLoad_ThrowsException() {
+        when(loadRepository.existsById(999)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> loadService.getBestBids(999));
+    }
 }
@@ -0,0 +1,101 @@
+package com.tms.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSketchTest {
+
+    private static final double[] QUANTILES = {0.0, 0.10, 0.50, 0.90, 0.99, 1.0};
+
+    @Test
+    void quantile_WithinRelativeAccuracyOfExactValue() {
+        Random random = new Random(42);
+        RateSketch sketch = new RateSketch();
+        double[] rates = new double[100_000];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = 20_000 + Math.abs(random.nextGaussian()) * 30_000;
+            sketch.add(rates[i]);
+        }
+        Arrays.sort(rates);
+
+        assertEquals(rates.length, sketch.count());
+        for (double q : QUANTILES) {
+            double exact = rates[(int) (q * (rates.length - 1))];
+            assertEquals(exact, sketch.quantile(q), exact * RateSketch.RELATIVE_ACCURACY, "q=" + q);
+        }
+    }
+
+    @Test
+    void merge_MatchesSingleSketchOfAllValues() {
+        Random random = new Random(7);
+        RateSketch all = new RateSketch();
+        RateSketch low = new RateSketch();
+        RateSketch high = new RateSketch();
+        for (int i = 0; i < 10_000; i++) {
+            double rate = 1_000 + random.nextDouble() * 99_000;
+            all.add(rate);
+            (i % 2 == 0 ? low : high).add(rate);
+        }
+
+        low.merge(high);
+
+        assertEquals(all.count(), low.count());
+        for (double q : QUANTILES) {
+            assertEquals(all.quantile(q), low.quantile(q), 1e-9);
+        }
+    }
+
+    @Test
+    void buckets_StayBoundedForExtremeRanges() {
+        RateSketch sketch = new RateSketch();
+        for (double rate = 1e-3; rate < 1e12; rate *= 1.001) {
+            sketch.add(rate);
+        }
+
+        assertTrue(sketch.buckets() <= RateSketch.MAX_BUCKETS);
+        double p90 = sketch.quantile(0.90);
+        assertTrue(p90 > 1e9 && p90 < 1e11, "high quantiles keep their accuracy: " + p90);
+    }
+
+    @Test
+    void quantile_KeepsAccuracyAboveCollapsedBuckets() {
+        // one value per bucket, twice as many buckets as the window holds
+        int n = 2 * RateSketch.MAX_BUCKETS;
+        double gamma = (1 + RateSketch.RELATIVE_ACCURACY) / (1 - RateSketch.RELATIVE_ACCURACY);
+        double[] rates = new double[n];
+        for (int i = 0; i < n; i++) {
+            rates[i] = Math.pow(gamma, i + 0.5);
+        }
+
+        RateSketch descending = new RateSketch();
+        RateSketch ascending = new RateSketch();
+        for (int i = 0; i < n; i++) {
+            descending.add(rates[n - 1 - i]);
+            ascending.add(rates[i]);
+        }
+
+        for (RateSketch sketch : new RateSketch[] {descending, ascending}) {
+            assertEquals(RateSketch.MAX_BUCKETS, sketch.buckets());
+            for (double q : new double[] {0.60, 0.75, 0.90, 0.99, 1.0}) {
+                double exact = rates[(int) (q * (n - 1))];
+                assertEquals(exact, sketch.quantile(q), exact * RateSketch.RELATIVE_ACCURACY, "q=" + q);
+            }
+        }
+    }
+
+    @Test
+    void add_IgnoresMissingAndNonPositiveRates() {
+        RateSketch sketch = new RateSketch();
+        sketch.add(null);
+        sketch.add(0.0);
+        sketch.add(-5.0);
+        sketch.add(Double.NaN);
+
+        assertEquals(0, sketch.count());
+        assertNull(sketch.quantile(0.5));
+    }
+}
@@ -0,0 +1,101 @@
+package com.tms.service;
+
+import com.tms.entity.*;
+import com.tms.repository.*;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Rows for the tests that set up data through the repositories: a transporter with
+ * trucks of one type, a load on the Mumbai to Delhi lane open for bids and a pending
+ * bid. Tests pass what they assert on and adjust loads further through a customizer;
+ * everything else stays at these defaults. The static factories build the same rows
+ * unsaved, for tests that mock the repositories. Public for the benchmarks.
+ */
+public final class TestFixtures {
+
+    private final TransporterRepository transporterRepository;
+    private final TruckCapacityRepository truckCapacityRepository;
+    private final LoadRepository loadRepository;
+    private final BidRepository bidRepository;
+    private final BookingRepository bookingRepository;
+
+    public TestFixtures(TransporterRepository transporterRepository, TruckCapacityRepository truckCapacityRepository,
+                        LoadRepository loadRepository, BidRepository bidRepository, BookingRepository bookingRepository) {
+        this.transporterRepository = transporterRepository;
+        this.truckCapacityRepository = truckCapacityRepository;
+        this.loadRepository = loadRepository;
+        this.bidRepository = bidRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Empties every table, children first.
+     */
+    public void deleteAll() {
+        bookingRepository.deleteAll();
+        bidRepository.deleteAll();
+        loadRepository.deleteAll();
+        truckCapacityRepository.deleteAll();
+        transporterRepository.deleteAll();
+    }
+
+    public Transporter saveTransporter(double rating, String truckType, int trucks) {
+        Transporter transporter = transporterRepository.save(newTransporter(rating));
+
+        TruckCapacity capacity = new TruckCapacity(truckType, trucks);
+        capacity.setTransporter(transporter);
+        truckCapacityRepository.save(capacity);
+        return transporter;
+    }
+
+    public Load saveLoad(String truckType, int trucks) {
+        return saveLoad(truckType, trucks, load -> {});
+    }
+
+    public Load saveLoad(String truckType, int trucks, Consumer<Load> customizer) {
+        Load load = newLoad(truckType, trucks);
+        customizer.accept(load);
+        return loadRepository.save(load);
+    }
+
+    public Bid saveBid(Load load, Transporter transporter, double rate, int trucks) {
+        return bidRepository.save(newBid(load, transporter, rate, trucks));
+    }
+
+    public static Transporter newTransporter(double rating) {
+        Transporter transporter = new Transporter();
+        transporter.setCompanyName("Transport " + rating);
+        transporter.setRating(rating);
+        return transporter;
+    }
+
+    public static Load newLoad(String truckType, int trucks) {
+        Load load = new Load();
+        load.setShipperId("SHIP001");
+        load.setLoadingCity("Mumbai");
+        load.setUnloadingCity("Delhi");
+        load.setLoadingDate(LocalDateTime.now().plusDays(5));
+        load.setProductType("Electronics");
+        load.setWeight(5000.0);
+        load.setWeightUnit("KG");
+        load.setTruckType(truckType);
+        load.setNoOfTrucks(trucks);
+        load.setStatus("OPEN_FOR_BIDS");
+        return load;
+    }
+
+    /**
+     * A pending bid, not saved, also for tests that insert many with saveAll.
+     */
+    public static Bid newBid(Load load, Transporter transporter, double rate, int trucks) {
+        Bid bid = new Bid();
+        bid.setLoadId(load.getLoadId());
+        bid.setTransporterId(transporter.getTransporterId());
+        bid.setProposedRate(rate);
+        bid.setTrucksOffered(trucks);
+        bid.setStatus("PENDING");
+        return bid;
+    }
+}
@@ -0,0 +1,216 @@
+package com.tms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tms.dto.BookingRequest;
+import com.tms.dto.BookingResponse;
+import com.tms.dto.TransporterRequest;
+import com.tms.entity.*;
+import com.tms.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransporterCapacityIndexTest {
+
+    private static final String TRUCK_TYPE = "CONTAINER-20FT";
+
+    @Autowired
+    private TransporterCapacityIndex capacityIndex;
+
+    @Autowired
+    private TransporterService transporterService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Autowired
+    private TruckCapacityRepository truckCapacityRepository;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private TestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(transporterRepository, truckCapacityRepository, loadRepository,
+                bidRepository, bookingRepository);
+        fixtures.deleteAll();
+        // the repositories bypass the index, so drop what earlier tests left behind
+        capacityIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_RanksByRatingWithinCountRange() {
+        Transporter few = fixtures.saveTransporter(4.9, TRUCK_TYPE, 2);
+        Transporter top = fixtures.saveTransporter(4.8, TRUCK_TYPE, 10);
+        Transporter middle = fixtures.saveTransporter(4.1, TRUCK_TYPE, 6);
+        Transporter low = fixtures.saveTransporter(3.0, TRUCK_TYPE, 50);
+        capacityIndex.rebuild();
+
+        assertEquals(List.of(top.getTransporterId(), middle.getTransporterId(), low.getTransporterId()),
+                eligibleIds(5, null, 10));
+        assertEquals(List.of(top.getTransporterId(), middle.getTransporterId()), eligibleIds(5, 10, 10));
+        assertEquals(List.of(few.getTransporterId(), top.getTransporterId()), eligibleIds(1, null, 2));
+        assertTrue(eligibleIds(60, null, 10).isEmpty());
+        assertTrue(capacityIndex.findEligible("FLATBED", 1, null, 10).isEmpty());
+    }
+
+    @Test
+    void transporterService_ReplacesEntriesOnCreateAndUpdate() {
+        Integer transporterId = transporterService.createTransporter(transporterRequest(4.5, TRUCK_TYPE, 8)).getTransporterId();
+
+        assertEquals(List.of(transporterId), eligibleIds(8, null, 10));
+
+        TransporterRequest.TruckCapacityDTO flatbed = new TransporterRequest.TruckCapacityDTO();
+        flatbed.setTruckType("FLATBED");
+        flatbed.setCount(3);
+        transporterService.updateTruckCapacity(transporterId, List.of(flatbed));
+
+        assertTrue(eligibleIds(1, null, 10).isEmpty());
+        assertEquals(1, capacityIndex.findEligible("FLATBED", 3, 3, 10).size());
+        assertEquals(1, capacityIndex.size());
+    }
+
+    @Test
+    void bookingAndCancellation_AdjustCount() {
+        Transporter transporter = fixtures.saveTransporter(4.5, TRUCK_TYPE, 5);
+        capacityIndex.rebuild();
+        Load load = fixtures.saveLoad(TRUCK_TYPE, 3);
+
+        Bid bid = new Bid();
+        bid.setLoadId(load.getLoadId());
+        bid.setTransporterId(transporter.getTransporterId());
+        bid.setProposedRate(40000.0);
+        bid.setTrucksOffered(3);
+        bid.setStatus("PENDING");
+        bid = bidRepository.save(bid);
+
+        BookingRequest request = new BookingRequest();
+        request.setBidId(bid.getBidId());
+        request.setAllocatedTrucks(3);
+        BookingResponse booking = bookingService.createBooking(request);
+
+        assertEquals(2, capacityIndex.findEligible(TRUCK_TYPE, 1, null, 10).get(0).count());
+
+        bookingService.cancelBooking(booking.getBookingId());
+
+        assertEquals(5, capacityIndex.findEligible(TRUCK_TYPE, 1, null, 10).get(0).count());
+    }
+
+    @Test
+    void eligibleTransportersEndpoint_DefaultsToTrucksTheLoadNeeds() throws Exception {
+        fixtures.saveTransporter(4.0, TRUCK_TYPE, 2);
+        Transporter enough = fixtures.saveTransporter(3.5, TRUCK_TYPE, 4);
+        capacityIndex.rebuild();
+        Load load = fixtures.saveLoad(TRUCK_TYPE, 3);
+
+        JsonNode body = objectMapper.readTree(mockMvc.perform(get("/load/{loadId}/eligible-transporters", load.getLoadId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(1, body.size());
+        assertEquals(enough.getTransporterId(), body.get(0).get("transporterId").asInt());
+        assertEquals("Transport 3.5", body.get(0).get("companyName").asText());
+        assertEquals(4, body.get(0).get("availableTrucks").asInt());
+
+        mockMvc.perform(get("/load/{loadId}/eligible-transporters", load.getLoadId() + 1000))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bookingDeltaArrivingAfterReplacement_EndsAtTheDatabaseCounts() {
+        Transporter transporter = new Transporter();
+        transporter.setTransporterId(Integer.MAX_VALUE);
+        transporter.setRating(4.0);
+        transporter.setAvailableTrucks(new ArrayList<>(List.of(new TruckCapacity(TRUCK_TYPE, 8))));
+        capacityIndex.transporterCreated(transporter);
+
+        // a booking of 3 commits first, then a replacement that read 5 under lock; their
+        // callbacks arrive the other way round
+        transporter.setAvailableTrucks(new ArrayList<>(List.of(new TruckCapacity(TRUCK_TYPE, 6))));
+        capacityIndex.trucksReplaced(transporter, List.of(new TruckCapacity(TRUCK_TYPE, 5)));
+        assertEquals(9, capacityIndex.capacityOf(transporter.getTransporterId(), TRUCK_TYPE));
+        capacityIndex.capacityChanged(transporter.getTransporterId(), TRUCK_TYPE, -3);
+        assertEquals(6, capacityIndex.capacityOf(transporter.getTransporterId(), TRUCK_TYPE));
+
+        // same again, with the replacement dropping the type altogether
+        transporter.setAvailableTrucks(new ArrayList<>(List.of(new TruckCapacity("FLATBED", 3))));
+        capacityIndex.trucksReplaced(transporter, List.of(new TruckCapacity(TRUCK_TYPE, 4)));
+        assertNull(capacityIndex.capacityOf(transporter.getTransporterId(), TRUCK_TYPE));
+        assertTrue(eligibleIds(1, null, 10).isEmpty());
+        capacityIndex.capacityChanged(transporter.getTransporterId(), TRUCK_TYPE, -2);
+
+        assertNull(capacityIndex.capacityOf(transporter.getTransporterId(), TRUCK_TYPE));
+        assertEquals(3, capacityIndex.capacityOf(transporter.getTransporterId(), "FLATBED"));
+        assertEquals(1, capacityIndex.size());
+    }
+
+    @Test
+    void findEligible_ScalesToTensOfThousandsOfTransporters() {
+        int transporters = 50_000;
+        for (int i = 1; i <= transporters; i++) {
+            Transporter transporter = new Transporter();
+            transporter.setTransporterId(i);
+            transporter.setRating(1.0 + (i % 400) / 100.0);
+            transporter.setAvailableTrucks(new ArrayList<>(List.of(new TruckCapacity(TRUCK_TYPE, i % 100))));
+            capacityIndex.transporterCreated(transporter);
+        }
+
+        List<TransporterCapacityIndex.Entry> best = capacityIndex.findEligible(TRUCK_TYPE, 90, 95, 20);
+
+        assertEquals(20, best.size());
+        best.forEach(entry -> assertTrue(entry.count() >= 90 && entry.count() <= 95));
+        assertEquals(4.95, best.get(0).rating(), 1e-9);
+        for (int i = 1; i < best.size(); i++) {
+            assertTrue(TransporterCapacityIndex.BY_RATING.compare(best.get(i - 1), best.get(i)) < 0);
+        }
+    }
+
+    private List<Integer> eligibleIds(int minTrucks, Integer maxTrucks, int limit) {
+        return capacityIndex.findEligible(TRUCK_TYPE, minTrucks, maxTrucks, limit).stream()
+                .map(TransporterCapacityIndex.Entry::transporterId)
+                .toList();
+    }
+
+    private static TransporterRequest transporterRequest(double rating, String truckType, int count) {
+        TransporterRequest.TruckCapacityDTO truck = new TransporterRequest.TruckCapacityDTO();
+        truck.setTruckType(truckType);
+        truck.setCount(count);
+        TransporterRequest request = new TransporterRequest();
+        request.setCompanyName("Transport " + rating);
+        request.setRating(rating);
+        request.setAvailableTrucks(List.of(truck));
+        return request;
+    }
+}
@@ -32,6 +32,12 @@ class TransporterServiceTest {
     @Mock
     private TruckCapacityRepository truckCapacityRepository;
 
+    @Mock
+    private TransporterSummaryCache transporterSummaryCache;
+
+    @Mock
+    private TransporterCapacityIndex capacityIndex;
+
     @InjectMocks
     private TransporterService transporterService;
 
@@ -113,6 +119,8 @@ class TransporterServiceTest {
         dto.setTruckType("FLATBED-TRAILER");
         dto.setCount(15);
 
+        List<TruckCapacity> previous = new ArrayList<>(testTransporter.getAvailableTrucks());
+        when(truckCapacityRepository.findByTransporterIdForUpdate(1)).thenReturn(previous);
         when(transporterRepository.findById(1)).thenReturn(Optional.of(testTransporter));
         when(transporterRepository.save(any(Transporter.class))).thenReturn(testTransporter);
         doNothing().when(truckCapacityRepository).deleteByTransporterTransporterId(1);
@@ -122,6 +130,8 @@ class TransporterServiceTest {
         assertNotNull(response);
         verify(truckCapacityRepository).deleteByTransporterTransporterId(1);
         verify(transporterRepository).save(any(Transporter.class));
+        verify(transporterSummaryCache).invalidate(1);
+        verify(capacityIndex).trucksReplaced(testTransporter, previous);
     }
 
     @Test
@@ -0,0 +1,93 @@
+package com.tms.service;
+
+import com.tms.dto.TransporterSummary;
+import com.tms.repository.TransporterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransporterSummaryCacheTest {
+
+    @Mock
+    private TransporterRepository transporterRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransporterSummaryCache cache;
+
+    private final TransporterSummary first = new TransporterSummary(1, "First Transport", 4.0);
+    private final TransporterSummary second = new TransporterSummary(2, "Second Transport", 3.5);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TransporterSummaryCache(transporterRepository, meterRegistry, 100);
+    }
+
+    @Test
+    void get_LoadsOnceThenServesFromCache() {
+        when(transporterRepository.findSummariesByIdIn(List.of(1))).thenReturn(List.of(first));
+
+        assertSame(first, cache.get(1));
+        assertSame(first, cache.get(1));
+
+        verify(transporterRepository, times(1)).findSummariesByIdIn(any());
+    }
+
+    @Test
+    void get_UnknownTransporterIsNotCached() {
+        when(transporterRepository.findSummariesByIdIn(List.of(99))).thenReturn(List.of());
+
+        assertNull(cache.get(99));
+        assertNull(cache.get(99));
+
+        verify(transporterRepository, times(2)).findSummariesByIdIn(List.of(99));
+    }
+
+    @Test
+    void getAll_LoadsOnlyMissingIdsInOneQuery() {
+        when(transporterRepository.findSummariesByIdIn(List.of(1))).thenReturn(List.of(first));
+        cache.get(1);
+        when(transporterRepository.findSummariesByIdIn(List.of(2))).thenReturn(List.of(second));
+
+        Map<Integer, TransporterSummary> result = cache.getAll(Set.of(1, 2));
+
+        assertEquals(Map.of(1, first, 2, second), result);
+        verify(transporterRepository, times(1)).findSummariesByIdIn(List.of(2));
+    }
+
+    @Test
+    void invalidate_ReloadsOnNextRead() {
+        TransporterSummary renamed = new TransporterSummary(1, "Renamed Transport", 4.0);
+        when(transporterRepository.findSummariesByIdIn(List.of(1))).thenReturn(List.of(first), List.of(renamed));
+        cache.get(1);
+
+        cache.invalidate(1);
+
+        assertSame(renamed, cache.get(1));
+    }
+
+    @Test
+    void stats_PublishedAsCacheMetrics() {
+        when(transporterRepository.findSummariesByIdIn(List.of(1))).thenReturn(List.of(first));
+
+        cache.get(1);
+        cache.get(1);
+        cache.get(1);
+
+        assertEquals(2.0, meterRegistry.get("cache.gets").tags("cache", "transporterSummaries", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "transporterSummaries", "result", "miss")
+                .functionCounter().count());
+    }
+}